@@ -0,0 +1,36 @@
+package com.swiftcodes.swift_api.benchmarks;
+
+import com.swiftcodes.swift_api.util.CountryCodeValidator;
+import com.swiftcodes.swift_api.util.SwiftFileParser;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+// The swift-api components the benchmarks call, wired by hand with the application defaults
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static CountryCodeValidator countryCodeValidator() {
+        CountryCodeValidator validator = new CountryCodeValidator();
+        validator.loadCountryCodes();
+        return validator;
+    }
+
+    static SwiftFileParser swiftFileParser() {
+        SwiftFileParser parser = new SwiftFileParser();
+        set(parser, "countryCodeValidator", countryCodeValidator());
+        set(parser, "chunkSizeBytes", 8L << 20);
+        return parser;
+    }
+
+    private static void set(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalStateException(target.getClass().getSimpleName() + " has no field " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
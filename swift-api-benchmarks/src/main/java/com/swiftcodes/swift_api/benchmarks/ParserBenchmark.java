@@ -0,0 +1,67 @@
+package com.swiftcodes.swift_api.benchmarks;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.util.SwiftFileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// SwiftFileParser over synthetic files: the commons-csv parseCSV used for the bundled file and the
+// memory-mapped parallel parseFile used by imports
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private Path file;
+    private SwiftFileParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = SyntheticDataset.generate(rows).writeCsv(Files.createTempFile("swift-bench-", ".csv"));
+        parser = Fixtures.swiftFileParser();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        parser.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<SwiftCode> parseCSV() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return parser.parseCSV(in);
+        }
+    }
+
+    // Chunks are parsed on the parser's fork-join pool, -prof gc only counts what the calling thread allocates
+    @Benchmark
+    public SwiftFileParser.ParseSummary parseFile(Blackhole blackhole) throws IOException {
+        return parser.parseFile(file, 1000, (batch, read) -> blackhole.consume(batch));
+    }
+}
@@ -0,0 +1,58 @@
+package com.swiftcodes.swift_api.benchmarks;
+
+import com.swiftcodes.swift_api.index.SwiftCodeTextIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// GET /v1/swift-codes/search against the in-memory index, first page of 20. The synthetic dataset
+// repeats the bundled banks, so at 1M rows the queries below match thousands of codes (2,829 for the
+// Alior Bank ones, 25,447 for "bank" in Malta), all of which are scored to rank them and count the total.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class SearchBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    private SwiftCodeTextIndex index;
+
+    @Setup
+    public void setUp() {
+        index = SwiftCodeTextIndex.of(SyntheticDataset.generate(rows).toSwiftCodes());
+    }
+
+    @Benchmark
+    public SwiftCodeTextIndex.Result exact() {
+        return index.search("ALIOR BANK WARSZAWA", null, false, 0, 20);
+    }
+
+    @Benchmark
+    public SwiftCodeTextIndex.Result prefix() {
+        return index.search("ali warsz", null, false, 0, 20);
+    }
+
+    @Benchmark
+    public SwiftCodeTextIndex.Result typos() {
+        return index.search("ailor bank warszwa", null, true, 0, 20);
+    }
+
+    @Benchmark
+    public SwiftCodeTextIndex.Result country() {
+        return index.search("bank", "MT", true, 0, 20);
+    }
+}
@@ -0,0 +1,135 @@
+package com.swiftcodes.swift_api.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftcodes.swift_api.dto.CountrySwiftCodeResponse;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Response building of SwiftCodeController: entity to map/DTO mapping plus Jackson, for the largest
+// headquarter and the largest country of the dataset, and the streamed country writer
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private SwiftCode headquarter;
+    private List<SwiftCode> branches;
+    private List<SwiftCode> country;
+
+    @Setup
+    public void setUp() {
+        List<SwiftCode> codes = SyntheticDataset.generate(rows).toSwiftCodes();
+        Map<String, List<SwiftCode>> byBase = codes.stream().collect(Collectors.groupingBy(SwiftCode::getBaseCode));
+        headquarter = codes.stream()
+                .filter(SwiftCode::isHeadquarter)
+                .max(Comparator.comparingInt(code -> byBase.get(code.getBaseCode()).size()))
+                .orElseThrow();
+        branches = new ArrayList<>(byBase.get(headquarter.getBaseCode()));
+        branches.remove(headquarter);
+        country = codes.stream()
+                .collect(Collectors.groupingBy(SwiftCode::getCountryISO2))
+                .values().stream()
+                .max(Comparator.comparingInt(List::size))
+                .orElseThrow();
+    }
+
+    // GET /v1/swift-codes/{swiftCode} for a headquarter
+    @Benchmark
+    public byte[] headquarterResponse() throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("address", headquarter.getAddress());
+        response.put("bankName", headquarter.getBankName());
+        response.put("countryISO2", headquarter.getCountryISO2());
+        response.put("countryName", headquarter.getCountryName());
+        response.put("isHeadquarter", headquarter.isHeadquarter());
+        response.put("swiftCode", headquarter.getSwiftCode());
+        List<Map<String, Object>> branchList = new ArrayList<>(branches.size());
+        for (SwiftCode branch : branches) {
+            Map<String, Object> branchMap = new HashMap<>();
+            branchMap.put("address", branch.getAddress());
+            branchMap.put("bankName", branch.getBankName());
+            branchMap.put("countryISO2", branch.getCountryISO2());
+            branchMap.put("isHeadquarter", branch.isHeadquarter());
+            branchMap.put("swiftCode", branch.getSwiftCode());
+            branchList.add(branchMap);
+        }
+        response.put("branches", branchList);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // GET /v1/swift-codes/country/{iso2}?limit= style, through CountrySwiftCodeResponse
+    @Benchmark
+    public byte[] countryResponse() throws IOException {
+        CountrySwiftCodeResponse response = new CountrySwiftCodeResponse();
+        response.setCountryISO2(country.get(0).getCountryISO2());
+        response.setCountryName(country.get(0).getCountryName());
+        List<CountrySwiftCodeResponse.SwiftCodeDetail> details = new ArrayList<>(country.size());
+        for (SwiftCode code : country) {
+            CountrySwiftCodeResponse.SwiftCodeDetail detail = new CountrySwiftCodeResponse.SwiftCodeDetail();
+            detail.setSwiftCode(code.getSwiftCode());
+            detail.setBankName(code.getBankName());
+            detail.setAddress(code.getAddress());
+            detail.setCountryISO2(code.getCountryISO2());
+            detail.setHeadquarter(code.isHeadquarter());
+            details.add(detail);
+        }
+        response.setSwiftCodes(details);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // GET /v1/swift-codes/country/{iso2} without limit, written row by row as the controller streams it
+    @Benchmark
+    public int countryStreamed() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("countryISO2", country.get(0).getCountryISO2());
+            json.writeStringField("countryName", country.get(0).getCountryName());
+            json.writeArrayFieldStart("swiftCodes");
+            for (SwiftCode code : country) {
+                json.writeStartObject();
+                json.writeStringField("swiftCode", code.getSwiftCode());
+                json.writeStringField("bankName", code.getBankName());
+                json.writeStringField("address", code.getAddress());
+                json.writeStringField("countryISO2", code.getCountryISO2());
+                json.writeBooleanField("isHeadquarter", code.isHeadquarter());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,135 @@
+package com.swiftcodes.swift_api.benchmarks;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// SWIFT file shaped like the bundled CSV at any size: the same countries, banks and addresses, and the
+// same number of codes per bank (headquarter and branches), repeated under fresh bank codes until the
+// requested row count is reached. Deterministic, so runs on different machines parse the same bytes.
+public final class SyntheticDataset {
+
+    private static final String BUNDLED = "data/Interns_2025_SWIFT_CODES-Sheet1.csv";
+
+    private static final String[] HEADER = {
+            "COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS", "TOWN NAME", "COUNTRY NAME", "TIME ZONE"};
+
+    private static final int ISO2 = 0;
+    private static final int SWIFT_CODE = 1;
+    private static final int NAME = 3;
+    private static final int ADDRESS = 4;
+    private static final int TOWN_NAME = 5;
+    private static final int COUNTRY_NAME = 6;
+
+    // 26^4 four-letter bank codes
+    private static final int BANK_CODES = 456_976;
+
+    private final List<String[]> rows;
+
+    private SyntheticDataset(List<String[]> rows) {
+        this.rows = rows;
+    }
+
+    public static SyntheticDataset generate(int rowCount) {
+        List<List<String[]>> banks = new ArrayList<>(bundledBanks().values());
+        List<String[]> rows = new ArrayList<>(rowCount);
+        for (int bank = 0; rows.size() < rowCount; bank++) {
+            List<String[]> template = banks.get(bank % banks.size());
+            // Bank code from the counter, location code from the overflow, country of the template
+            String base = bankCode(bank % BANK_CODES) + template.get(0)[SWIFT_CODE].substring(4, 6)
+                    + locationCode(bank / BANK_CODES);
+            for (String[] record : template) {
+                if (rows.size() == rowCount) {
+                    break;
+                }
+                String[] row = record.clone();
+                row[SWIFT_CODE] = base + record[SWIFT_CODE].substring(8);
+                rows.add(row);
+            }
+        }
+        return new SyntheticDataset(rows);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    // Writes the rows in the layout of the bundled file, header included
+    public Path writeCsv(Path file) {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(HEADER).build())) {
+            for (String[] row : rows) {
+                printer.printRecord((Object[]) row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    // The rows as SwiftFileParser returns them
+    public List<SwiftCode> toSwiftCodes() {
+        List<SwiftCode> codes = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            SwiftCode code = new SwiftCode();
+            code.setSwiftCode(row[SWIFT_CODE]);
+            code.setBankName(row[NAME]);
+            code.setAddress(row[ADDRESS]);
+            code.setTownName(row[TOWN_NAME]);
+            code.setCountryISO2(row[ISO2]);
+            code.setCountryName(row[COUNTRY_NAME]);
+            code.setHeadquarter(row[SWIFT_CODE].endsWith("XXX"));
+            codes.add(code);
+        }
+        return codes;
+    }
+
+    // Rows of the bundled file grouped by bank (first 8 characters of the code), in file order
+    private static Map<String, List<String[]>> bundledBanks() {
+        Map<String, List<String[]>> banks = new LinkedHashMap<>();
+        try (InputStream in = SyntheticDataset.class.getClassLoader().getResourceAsStream(BUNDLED)) {
+            if (in == null) {
+                throw new IllegalStateException(BUNDLED + " not found on the classpath");
+            }
+            CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+            for (CSVRecord record : format.parse(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String[] row = record.values();
+                if (row.length < HEADER.length || row[SWIFT_CODE].length() != 11) {
+                    continue;
+                }
+                banks.computeIfAbsent(row[SWIFT_CODE].substring(0, 8), base -> new ArrayList<>()).add(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return banks;
+    }
+
+    private static String bankCode(int n) {
+        char[] code = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            code[i] = (char) ('A' + n % 26);
+            n /= 26;
+        }
+        return new String(code);
+    }
+
+    private static String locationCode(int n) {
+        String digits = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        return "" + digits.charAt(n / 36 % 36) + digits.charAt(n % 36);
+    }
+}
@@ -0,0 +1,78 @@
+package com.swiftcodes.swift_api.benchmarks;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.util.CountryCodeValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Per-request input checks of SwiftCodeController and CountryCodeValidator, over the codes and
+// countries of the bundled dataset with one in eight inputs malformed
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    // Same pattern as SwiftCodeController's batch lookup
+    private static final Pattern SWIFT_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{11}$");
+
+    private static final int INPUTS = 1024;
+
+    private final String[] swiftCodes = new String[INPUTS];
+    private final String[] countries = new String[INPUTS];
+    private CountryCodeValidator countryCodeValidator;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<SwiftCode> codes = SyntheticDataset.generate(INPUTS).toSwiftCodes();
+        for (int i = 0; i < INPUTS; i++) {
+            SwiftCode code = codes.get(i);
+            boolean malformed = i % 8 == 7;
+            swiftCodes[i] = malformed ? code.getSwiftCode().substring(0, 10) + "!" : code.getSwiftCode();
+            countries[i] = malformed ? "Q" + i % 10 : code.getCountryISO2().toLowerCase();
+        }
+        countryCodeValidator = Fixtures.countryCodeValidator();
+    }
+
+    private int next() {
+        return next = (next + 1) & (INPUTS - 1);
+    }
+
+    // GET, POST and DELETE /v1/swift-codes: String.matches compiles the regex on every call
+    @Benchmark
+    public boolean swiftCodeStringMatches() {
+        String code = swiftCodes[next()];
+        return code.length() == 11 && code.matches("^[A-Z0-9]{11}$");
+    }
+
+    @Benchmark
+    public boolean swiftCodeCompiledPattern() {
+        String code = swiftCodes[next()];
+        return code.length() == 11 && SWIFT_CODE_PATTERN.matcher(code).matches();
+    }
+
+    @Benchmark
+    public boolean countryIsValid() {
+        return countryCodeValidator.isValid(countries[next()]);
+    }
+
+    @Benchmark
+    public CountryCodeValidator.Country countryGetByCode() {
+        return countryCodeValidator.getCountryByCode(countries[next()]);
+    }
+}
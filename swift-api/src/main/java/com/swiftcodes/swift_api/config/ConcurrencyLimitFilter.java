@@ -0,0 +1,91 @@
+package com.swiftcodes.swift_api.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caps the /v1 requests in flight. With platform threads Tomcat's pool (200) already does that;
+// with virtual threads every connection gets its own thread, and without a cap thousands of them
+// would queue on the Hikari pool until its connection-timeout and fail with a 500.
+// Requests over the cap wait up to swift.concurrency.max-wait and are then refused with a 503.
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final int maxRequests;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public ConcurrencyLimitFilter(@Value("${swift.concurrency.max-requests:0}") int maxRequests,
+                                  @Value("${swift.concurrency.max-wait:1s}") Duration maxWait) {
+        this.maxRequests = maxRequests;
+        this.maxWaitNanos = maxWait.toNanos();
+        // Fair, so waiting requests are admitted in arrival order
+        this.permits = new Semaphore(Math.max(maxRequests, 0), true);
+    }
+
+    // Requests being served and waiting for a permit, and the ones refused
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("swift.concurrency.in-flight", this, f -> f.inFlight())
+                .description("API requests holding a concurrency permit").register(registry);
+        Gauge.builder("swift.concurrency.queued", permits, Semaphore::getQueueLength)
+                .description("API requests waiting for a concurrency permit").register(registry);
+        FunctionCounter.builder("swift.concurrency.rejected", rejected, LongAdder::sum)
+                .description("API requests refused with 503 after waiting for a permit").register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Actuator endpoints stay reachable, health checks must not be shed under load
+        return maxRequests <= 0 || !request.getRequestURI().startsWith(request.getContextPath() + "/v1/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many concurrent requests, retry later\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private int inFlight() {
+        return Math.max(maxRequests, 0) - permits.availablePermits();
+    }
+}
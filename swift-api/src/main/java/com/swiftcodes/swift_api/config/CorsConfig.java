@@ -16,7 +16,9 @@ public class CorsConfig {
                 registry.addMapping("/**")  // Apply to all endpoints
                         .allowedOrigins("http://localhost:3000")  // Your frontend
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("*");
+                        .allowedHeaders("*")
+                        // Sent back by clients for read-your-writes when reads go to replicas
+                        .exposedHeaders(ReadYourWritesFilter.HEADER);
             }
         };
     }
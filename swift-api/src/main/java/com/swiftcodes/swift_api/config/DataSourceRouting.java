@@ -0,0 +1,55 @@
+package com.swiftcodes.swift_api.config;
+
+import java.util.function.Supplier;
+
+// Which database the current thread may read from when replicas are configured (ReplicaRoutingConfig).
+// Connections go to the primary unless they are taken inside readFromReplica(), which SwiftCodeService
+// wraps around its read-only queries; everything else (writes, imports, index rebuilds, the statistics
+// check) keeps reading the primary. Requests of a client that just wrote are pinned to the primary.
+// Without replicas nothing reads these flags.
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    // Runs a read-only query that may be answered by a replica
+    public static <T> T readFromReplica(Supplier<T> read) {
+        if (REPLICA_READ.get() != null) {
+            return read.get();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+
+    public static void runOnReplica(Runnable read) {
+        readFromReplica(() -> {
+            read.run();
+            return null;
+        });
+    }
+
+    // Pins or unpins the current thread (request) to the primary
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED.set(Boolean.TRUE);
+        } else {
+            PINNED.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+
+    // Whether a connection taken now may come from a replica
+    public static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null && PINNED.get() == null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.swiftcodes.swift_api.config;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// R2DBC access for the reactive read API. Spring Boot's R2DBC auto-configuration is excluded
+// (see SwiftApiApplication) and the connection factory is deliberately not a bean: Boot backs off
+// from the JDBC DataSource, which JPA still needs for the index and imports, as soon as one exists.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+
+    private ConnectionFactory connectionFactory;
+
+    // An r2dbc:pool: URL gives a pooled factory (r2dbc-pool)
+    @Bean
+    public DatabaseClient databaseClient(@Value("${spring.r2dbc.url}") String url,
+                                         @Value("${spring.r2dbc.username:}") String username,
+                                         @Value("${spring.r2dbc.password:}") String password) {
+        ConnectionFactoryBuilder builder = ConnectionFactoryBuilder.withUrl(url);
+        if (!username.isEmpty()) {
+            builder.username(username).password(password);
+        }
+        connectionFactory = builder.build();
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    // Closes the pool's connections
+    @PreDestroy
+    public void close() {
+        if (connectionFactory instanceof Closeable closeable) {
+            Mono.from(closeable.close()).block(Duration.ofSeconds(10));
+        }
+    }
+}
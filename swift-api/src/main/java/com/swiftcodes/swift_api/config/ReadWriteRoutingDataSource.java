@@ -0,0 +1,245 @@
+package com.swiftcodes.swift_api.config;
+
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// The application's DataSource when replicas are configured: connections taken for a replica read
+// (DataSourceRouting) come from the next healthy replica in turn, all others from the primary.
+// A scheduled check marks replicas down when they refuse connections or, with a max-replica-lag,
+// when the heartbeat row the primary keeps rewriting reaches them too late; reads then fall back to
+// the primary until the replica passes the check again.
+// After a write through this instance all reads stay on the primary for the lag window, so the read
+// model's versions, ETags and cached responses are never built from a replica that has not caught up.
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final String CREATE_HEARTBEAT =
+            "CREATE TABLE IF NOT EXISTS swift_replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    private static final String UPDATE_HEARTBEAT = "UPDATE swift_replication_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_HEARTBEAT = "INSERT INTO swift_replication_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String SELECT_HEARTBEAT = "SELECT beat_at FROM swift_replication_heartbeat WHERE id = 1";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long writeWindowMillis;
+    private final Duration checkInterval;
+
+    private final ThreadPoolTaskScheduler scheduler;
+    private final AtomicInteger next = new AtomicInteger();
+    // Until when (epoch millis) reads stay on the primary after a local write
+    private volatile long primaryUntil;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbackConnections = new LongAdder();
+
+    // maxLag zero skips the heartbeat, replicas are then only checked for being reachable
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      Duration maxLag, Duration checkInterval, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLag.toMillis();
+        this.writeWindowMillis = Math.max(maxLagMillis, readYourWritesWindow.toMillis());
+        this.checkInterval = checkInterval;
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("swift-replicas-");
+        scheduler.initialize();
+    }
+
+    // Connections handed out per target, healthy replicas, and the replica pools' own hikaricp_* meters
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            replica.pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        FunctionCounter.builder("swift.datasource.connections", primaryConnections, LongAdder::sum)
+                .tag("target", "primary")
+                .description("Connections taken from the primary for writes and primary reads").register(registry);
+        FunctionCounter.builder("swift.datasource.connections", replicaConnections, LongAdder::sum)
+                .tag("target", "replica")
+                .description("Connections taken from a replica for reads").register(registry);
+        FunctionCounter.builder("swift.datasource.connections", fallbackConnections, LongAdder::sum)
+                .tag("target", "fallback")
+                .description("Replica reads sent to the primary, no replica being healthy").register(registry);
+        Gauge.builder("swift.datasource.replicas.healthy", this, d -> d.healthyReplicas())
+                .description("Replicas currently receiving reads").register(registry);
+    }
+
+    // After bindMetrics, Hikari takes no metrics tracker once a pool has started
+    @PostConstruct
+    public void start() {
+        if (maxLagMillis > 0) {
+            try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_HEARTBEAT);
+            } catch (SQLException e) {
+                log.warn("Could not create the replication heartbeat table, replicas will count as lagging", e);
+            }
+        }
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, checkInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+        // The primary pool is a bean of its own and closed with it
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!DataSourceRouting.isReplicaRead() || System.currentTimeMillis() < primaryUntil) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        Replica replica = nextHealthy();
+        if (replica != null) {
+            try {
+                Connection connection = replica.pool.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown("refused a connection", e);
+            }
+        }
+        fallbackConnections.increment();
+        return primary.getConnection();
+    }
+
+    // Like HikariDataSource, connections only come with the configured credentials
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    public int healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    // Runs before SwiftCodeVersions moves the ETags on, so no read for the new version reaches a replica
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        primaryUntil = System.currentTimeMillis() + writeWindowMillis;
+    }
+
+    // Round robin over the healthy replicas, null when there is none
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void checkReplicas() {
+        long now = System.currentTimeMillis();
+        if (maxLagMillis > 0) {
+            writeHeartbeat(now);
+        }
+        for (Replica replica : replicas) {
+            replica.check(now);
+        }
+    }
+
+    private void writeHeartbeat(long now) {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement update = connection.prepareStatement(UPDATE_HEARTBEAT)) {
+            update.setLong(1, now);
+            if (update.executeUpdate() == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_HEARTBEAT)) {
+                    insert.setLong(1, now);
+                    insert.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not write the replication heartbeat", e);
+        }
+    }
+
+    private final class Replica {
+
+        private final HikariDataSource pool;
+        // Unknown until the first check, reads go to the primary meanwhile
+        private volatile boolean healthy;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        private void check(long now) {
+            try (Connection connection = pool.getConnection()) {
+                if (maxLagMillis <= 0) {
+                    if (!connection.isValid(1)) {
+                        markDown("failed the connection check", null);
+                        return;
+                    }
+                } else {
+                    // The beat is up to one check interval old on the primary already
+                    long lag = lag(connection, now);
+                    if (lag > maxLagMillis + checkInterval.toMillis()) {
+                        markDown(lag == Long.MAX_VALUE ? "has no replication heartbeat" : "lags " + lag + " ms", null);
+                        return;
+                    }
+                }
+                if (!healthy) {
+                    log.info("Replica {} is receiving reads", pool.getPoolName());
+                    healthy = true;
+                }
+            } catch (SQLException e) {
+                markDown("failed the connection check", e);
+            }
+        }
+
+        private long lag(Connection connection, long now) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet heartbeat = statement.executeQuery(SELECT_HEARTBEAT)) {
+                return heartbeat.next() ? now - heartbeat.getLong(1) : Long.MAX_VALUE;
+            }
+        }
+
+        private void markDown(String reason, SQLException cause) {
+            if (healthy) {
+                log.warn("Replica {} {}, reads go to the primary until it recovers", pool.getPoolName(), reason, cause);
+            }
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.swiftcodes.swift_api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Read-your-writes across instances when reads go to replicas: a write answers with the time until which
+// the client's reads should stay on the primary, as a cookie for browsers and as a header other clients
+// can send back. Requests carrying a time still in the future are pinned to the primary
+// (DataSourceRouting), so a client sees its own change even on an instance that did not make it.
+// Registered by ReplicaRoutingConfig only.
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "swift-primary-until";
+    public static final String HEADER = "X-Primary-Until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !isRead(request.getMethod());
+        if (write) {
+            String until = Long.toString(now + window.toMillis());
+            response.setHeader(HEADER, until);
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, until)
+                    .path("/")
+                    .maxAge(Duration.ofSeconds((window.toMillis() + 999) / 1000))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build().toString());
+        }
+        // Times further ahead than one window were not handed out here, they would pin a client for good
+        long until = pinnedUntil(request);
+        DataSourceRouting.pinToPrimary(write || until > now && until <= now + window.toMillis());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.pinToPrimary(false);
+        }
+    }
+
+    private static boolean isRead(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    // The later of the header and the cookie, 0 when neither is there or readable
+    private static long pinnedUntil(HttpServletRequest request) {
+        long until = parse(request.getHeader(HEADER));
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    until = Math.max(until, parse(cookie.getValue()));
+                }
+            }
+        }
+        return until;
+    }
+
+    private static long parse(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.swiftcodes.swift_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Primary and replica DataSources, active once swift.datasource.replicas lists at least one replica.
+// spring.datasource (and spring.datasource.hikari) stays the primary; every replica gets a pool sized
+// like it. JPA, JdbcTemplate and the transaction manager all use the routing DataSource, which only
+// hands out replica connections for SwiftCodeService's read-only queries (DataSourceRouting).
+// Without replicas Spring Boot configures the single DataSource as before.
+@Configuration
+@ConditionalOnProperty("swift.datasource.replicas[0].url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(
+            HikariDataSource primaryDataSource, Environment environment,
+            @Value("${swift.datasource.max-replica-lag:5s}") Duration maxLag,
+            @Value("${swift.datasource.health-check-interval:1s}") Duration checkInterval,
+            @Value("${swift.datasource.replica-connection-timeout:500ms}") Duration connectionTimeout,
+            @Value("${swift.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        List<ReplicaProperties> settings = Binder.get(environment)
+                .bind("swift.datasource.replicas", Bindable.listOf(ReplicaProperties.class))
+                .orElse(List.of());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < settings.size(); i++) {
+            replicas.add(replicaPool(primaryDataSource, settings.get(i), "replica-" + (i + 1), connectionTimeout));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, maxLag, checkInterval, readYourWritesWindow);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${swift.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        return new ReadYourWritesFilter(readYourWritesWindow);
+    }
+
+    // Credentials and driver default to the primary's. A short connection timeout, so a replica that
+    // went away costs a read little before it falls back to the primary; the pool starts on first use,
+    // a replica that is down at startup does not keep the application from starting.
+    private static HikariDataSource replicaPool(HikariDataSource primary, ReplicaProperties replica, String name,
+                                                Duration connectionTimeout) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(replica.getUrl());
+        pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.getUsername());
+        pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.getPassword());
+        pool.setDriverClassName(replica.getDriverClassName() != null
+                ? replica.getDriverClassName() : primary.getDriverClassName());
+        // Unset (-1) sizes mean Hikari's defaults
+        if (primary.getMaximumPoolSize() > 0) {
+            pool.setMaximumPoolSize(primary.getMaximumPoolSize());
+        }
+        if (primary.getMinimumIdle() >= 0) {
+            pool.setMinimumIdle(primary.getMinimumIdle());
+        }
+        pool.setIdleTimeout(primary.getIdleTimeout());
+        pool.setMaxLifetime(primary.getMaxLifetime());
+        pool.setKeepaliveTime(primary.getKeepaliveTime());
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        pool.setInitializationFailTimeout(-1);
+        return pool;
+    }
+
+    // One entry of swift.datasource.replicas
+    public static class ReplicaProperties {
+
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+    }
+}
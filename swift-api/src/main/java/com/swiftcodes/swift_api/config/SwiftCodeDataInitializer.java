@@ -1,5 +1,8 @@
 package com.swiftcodes.swift_api.config;
 
+import com.swiftcodes.swift_api.dto.ImportReport;
+import com.swiftcodes.swift_api.index.SwiftCodeIndex;
+import com.swiftcodes.swift_api.index.SwiftCodeViewRebuilder;
 import com.swiftcodes.swift_api.service.SwiftCodeImportService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -8,14 +11,28 @@ import org.springframework.stereotype.Component;
 public class SwiftCodeDataInitializer implements CommandLineRunner {
 
     private final SwiftCodeImportService importService;
+    private final SwiftCodeIndex swiftCodeIndex;
+    private final SwiftCodeViewRebuilder viewRebuilder;
 
-    public SwiftCodeDataInitializer(SwiftCodeImportService importService) {
+    public SwiftCodeDataInitializer(SwiftCodeImportService importService, SwiftCodeIndex swiftCodeIndex,
+                                    SwiftCodeViewRebuilder viewRebuilder) {
         this.importService = importService;
+        this.swiftCodeIndex = swiftCodeIndex;
+        this.viewRebuilder = viewRebuilder;
     }
 
     @Override
     public void run(String... args) throws Exception {
-        importService.importFromDefaultFile();
-        System.out.println("SWIFT codes imported from CSV.");
+        ImportReport report = importService.importFromDefaultFile();
+        System.out.println("SWIFT codes imported from CSV: " + report.getRowsInserted() + " inserted, "
+                + report.getRowsUpdated() + " updated, " + report.getRowsSkipped() + " skipped ("
+                + report.getRowsPerSecond() + " rows/s).");
+
+        // Build the in-memory read model once the table is populated,
+        // or verify the snapshot file it was mapped from
+        swiftCodeIndex.initialize();
+        // The Bloom filter for lookups that reach the database, the search index and the counts
+        // behind GET /stats, from one scan of the table
+        viewRebuilder.initialize();
     }
 }
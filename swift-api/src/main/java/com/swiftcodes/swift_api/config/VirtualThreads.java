@@ -0,0 +1,28 @@
+package com.swiftcodes.swift_api.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Opt-in virtual threads (spring.threads.virtual.enabled=true, see the virtual-threads profile).
+// Spring Boot moves Tomcat and its own task executors over by itself; this does the same for the
+// executors the application creates. Only active on a Java 21+ runtime, like Spring Boot's switch.
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isActive(Environment environment) {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    // Call before initialize(). Keeps the executor's pool size and queue, so ordering and
+    // rejection behave the same, only its workers become virtual threads named with its prefix.
+    public static void configure(ThreadPoolTaskExecutor executor, Environment environment) {
+        if (isActive(environment)) {
+            executor.setThreadFactory(
+                    new VirtualThreadTaskExecutor(executor.getThreadNamePrefix()).getVirtualThreadFactory());
+        }
+    }
+}
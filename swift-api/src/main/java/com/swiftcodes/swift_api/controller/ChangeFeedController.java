@@ -0,0 +1,29 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.swiftcodes.swift_api.event.SwiftCodeChangeFeed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Server-Sent Events on the servlet stack only
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/v1/swift-codes/changes")
+public class ChangeFeedController {
+
+    @Autowired
+    private SwiftCodeChangeFeed changeFeed;
+
+    // Stream of adds, deletes and imports: a "ready" (or "reset") event with the current position,
+    // then one "change" event per write. EventSource resumes with the Last-Event-ID header on reconnect,
+    // other clients can pass the last id they saw as ?after=.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String after) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
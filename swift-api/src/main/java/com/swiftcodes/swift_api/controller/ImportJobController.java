@@ -0,0 +1,60 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.swiftcodes.swift_api.dto.ImportJobStatus;
+import com.swiftcodes.swift_api.service.ImportJobService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+// Multipart uploads run on the servlet stack only, the reactive profile is read-only
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/v1/swift-codes/import/jobs")
+public class ImportJobController {
+
+    @Autowired
+    private ImportJobService importJobService;
+
+    // Upload a SWIFT file (multipart part "file") and import it in the background
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitImport(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Uploaded file is empty."));
+        }
+
+        try {
+            ImportJobStatus job = importJobService.submit(file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/v1/swift-codes/import/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Too many imports queued, retry later."));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Upload failed: " + e.getMessage()));
+        }
+    }
+
+    // Progress of an import job: rows parsed / written, throughput, errors and ETA
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable String jobId) {
+        ImportJobStatus job = importJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Import job not found: " + jobId));
+        }
+        return ResponseEntity.ok(job);
+    }
+}
@@ -0,0 +1,191 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.swiftcodes.swift_api.dto.CountrySwiftCodeResponse;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.index.SwiftCodeVersions;
+import com.swiftcodes.swift_api.service.ReactiveSwiftCodeService;
+import com.swiftcodes.swift_api.util.CountryCodeValidator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Non-blocking variant of SwiftCodeController's reads for the reactive profile
+// (spring.main.web-application-type=reactive): same paths, validation, messages, ETags and JSON
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@CrossOrigin(origins = "http://localhost:3000")
+@RestController
+@RequestMapping("/v1/swift-codes")
+public class ReactiveSwiftCodeController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Country rows serialised per response buffer; also the demand passed upstream at a time
+    private static final int ROWS_PER_BUFFER = 64;
+
+    @Autowired
+    private ReactiveSwiftCodeService swiftCodeService;
+    @Autowired
+    private CountryCodeValidator countryCodeValidator;
+    @Autowired
+    private SwiftCodeVersions swiftCodeVersions;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Endpoint 1: Retrieve details of a single SWIFT code
+    @GetMapping("/{swiftCode}")
+    public Mono<ResponseEntity<?>> getSwiftCodeByCode(@PathVariable String swiftCode, ServerWebExchange exchange) {
+        String upperCode = swiftCode.toUpperCase();
+
+        // Length check
+        if (upperCode.length() != 11) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", "SWIFT code must be 11 characters long.")));
+        }
+
+        // Regex pattern check
+        if (!upperCode.matches("^[A-Z0-9]{11}$")) {
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("message", "SWIFT code format is invalid.")));
+        }
+
+        // Unchanged since the client's copy: 304 without touching the data
+        SwiftCodeVersions.Version version = swiftCodeVersions.forSwiftCode(upperCode);
+        if (exchange.checkNotModified(version.getETag(), Instant.ofEpochMilli(version.getLastModified()))) {
+            return Mono.empty();
+        }
+
+        return swiftCodeService.getSwiftCodeByCode(upperCode)
+                .flatMap(codeDetails -> {
+                    // If headquarter (ends with XXX), include branches
+                    if (!upperCode.endsWith("XXX")) {
+                        return Mono.just(SwiftCodeViews.codeDetails(codeDetails, null));
+                    }
+                    return swiftCodeService.findBranchesByBaseCode(upperCode.substring(0, 8), upperCode)
+                            .collectList()
+                            .map(branches -> SwiftCodeViews.codeDetails(codeDetails, branches));
+                })
+                .<ResponseEntity<?>>map(response -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "SWIFT code not found.")));
+    }
+
+    // Endpoint 2: Return all SWIFT codes for a specific country
+    // With ?limit= the codes are returned one keyset page at a time (continue with ?after=nextCursor),
+    // without it the whole country is streamed only as fast as the client reads it
+    @GetMapping("/country/{countryISO2code}")
+    public Mono<Void> getSwiftCodesByCountry(@PathVariable String countryISO2code,
+                                             @RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String after,
+                                             ServerWebExchange exchange) {
+        String upperCode = countryISO2code.toUpperCase();
+
+        // Validate country code
+        if (!countryCodeValidator.isValid(upperCode)) {
+            return send(exchange, HttpStatus.BAD_REQUEST, Map.of("message", "Invalid country code."));
+        }
+
+        // Validate page size
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            return send(exchange, HttpStatus.BAD_REQUEST, Map.of("message", "limit must be between 1 and " + MAX_PAGE_SIZE + "."));
+        }
+
+        // Unchanged since the client's copy: 304 without touching the data
+        SwiftCodeVersions.Version version = swiftCodeVersions.forCountry(upperCode);
+        if (exchange.checkNotModified(version.getETag(), Instant.ofEpochMilli(version.getLastModified()))) {
+            return exchange.getResponse().setComplete();
+        }
+
+        // Set country name if available
+        CountryCodeValidator.Country country = countryCodeValidator.getCountryByCode(upperCode);
+        String countryName = country != null ? country.getName() : "Unknown";
+
+        if (limit == null) {
+            // Check if no swift codes are found
+            return swiftCodeService.hasSwiftCodesInCountry(upperCode)
+                    .flatMap(found -> found
+                            ? writeCountry(exchange, upperCode, countryName, swiftCodeService.getSwiftCodesByCountry(upperCode))
+                            : send(exchange, HttpStatus.NOT_FOUND, SwiftCodeViews.countryNotFound(upperCode)));
+        }
+
+        String cursor = after != null ? after.toUpperCase() : null;
+        // Fetch one row more than requested to know whether another page follows
+        return swiftCodeService.getSwiftCodesByCountry(upperCode, cursor, limit + 1)
+                .flatMap(result -> {
+                    // Check if no swift codes are found
+                    if (result.isEmpty() && cursor == null) {
+                        return send(exchange, HttpStatus.NOT_FOUND, SwiftCodeViews.countryNotFound(upperCode));
+                    }
+                    boolean hasMore = result.size() > limit;
+                    List<SwiftCode> page = hasMore ? result.subList(0, limit) : result;
+
+                    CountrySwiftCodeResponse responseDto = new CountrySwiftCodeResponse();
+                    responseDto.setCountryISO2(upperCode);
+                    responseDto.setCountryName(countryName);
+                    responseDto.setSwiftCodes(page.stream().map(SwiftCodeViews::detail).collect(Collectors.toList()));
+                    if (hasMore) {
+                        responseDto.setNextCursor(page.get(page.size() - 1).getSwiftCode());
+                    }
+                    return send(exchange, HttpStatus.OK, responseDto);
+                });
+    }
+
+    // Writes the same JSON as CountrySwiftCodeResponse, ROWS_PER_BUFFER rows per buffer. The server
+    // requests buffers as the connection drains, and that demand travels up to the read model walk
+    // or the R2DBC result, so a slow client never makes the whole country pile up in memory.
+    private Mono<Void> writeCountry(ServerWebExchange exchange, String countryISO2, String countryName, Flux<SwiftCode> rows) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBufferFactory buffers = response.bufferFactory();
+        ObjectWriter detailWriter = objectMapper.writerFor(CountrySwiftCodeResponse.SwiftCodeDetail.class);
+
+        Mono<DataBuffer> head = Mono.fromCallable(() -> buffers.wrap((
+                "{\"countryISO2\":" + objectMapper.writeValueAsString(countryISO2)
+                        + ",\"countryName\":" + objectMapper.writeValueAsString(countryName)
+                        + ",\"swiftCodes\":[").getBytes(StandardCharsets.UTF_8)));
+        Flux<DataBuffer> body = rows
+                .buffer(ROWS_PER_BUFFER)
+                .index()
+                .map(chunk -> {
+                    ByteArrayOutputStream json = new ByteArrayOutputStream(ROWS_PER_BUFFER * 160);
+                    try {
+                        for (int i = 0; i < chunk.getT2().size(); i++) {
+                            if (chunk.getT1() > 0 || i > 0) {
+                                json.write(',');
+                            }
+                            json.write(detailWriter.writeValueAsBytes(SwiftCodeViews.detail(chunk.getT2().get(i))));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return buffers.wrap(json.toByteArray());
+                });
+        Mono<DataBuffer> tail = Mono.fromSupplier(() -> buffers.wrap("]}".getBytes(StandardCharsets.UTF_8)));
+
+        return response.writeWith(Flux.concat(head, body, tail));
+    }
+
+    private Mono<Void> send(ServerWebExchange exchange, HttpStatus status, Object body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromCallable(() -> response.bufferFactory().wrap(objectMapper.writeValueAsBytes(body))));
+    }
+}
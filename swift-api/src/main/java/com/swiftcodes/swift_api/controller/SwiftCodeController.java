@@ -1,40 +1,102 @@
 package com.swiftcodes.swift_api.controller;
 
 import com.swiftcodes.swift_api.dto.CountrySwiftCodeResponse;
+import com.swiftcodes.swift_api.dto.ImportReport;
+import com.swiftcodes.swift_api.dto.SwiftCodeBulkCreateRequest;
+import com.swiftcodes.swift_api.dto.SwiftCodeBulkDeleteRequest;
+import com.swiftcodes.swift_api.dto.SwiftCodeBulkResponse;
+import com.swiftcodes.swift_api.dto.SwiftCodeLookupRequest;
+import com.swiftcodes.swift_api.dto.SwiftCodeSearchResponse;
 import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.index.SwiftCodeAggregates;
+import com.swiftcodes.swift_api.index.SwiftCodeResponseCache;
+import com.swiftcodes.swift_api.index.SwiftCodeTextIndex;
+import com.swiftcodes.swift_api.index.SwiftCodeVersions;
 import com.swiftcodes.swift_api.service.SwiftCodeImportService;
 import com.swiftcodes.swift_api.service.SwiftCodeService;
 import com.swiftcodes.swift_api.util.CountryCodeValidator;
+import com.swiftcodes.swift_api.util.SwiftCodeValidator;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+// Servlet stack only, the reactive profile serves reads through ReactiveSwiftCodeController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @CrossOrigin(origins = "http://localhost:3000")
 @RestController
 @RequestMapping("/v1/swift-codes")
 public class SwiftCodeController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // Batch lookups: codes accepted per request, and codes resolved and written per step
+    private static final int MAX_LOOKUP_CODES = 100_000;
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final Pattern SWIFT_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{11}$");
+
+    // Bulk writes: codes accepted per request, all written in one transaction
+    private static final int MAX_BULK_CODES = 10_000;
+    private static final String DUPLICATE_CODE = "SWIFT code appears more than once in the request.";
+
+    // Search: query length, page size, and how deep into the ranking a page may start
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_OFFSET = 10_000;
+
+    // Top towns listed by the stats endpoints
+    private static final int MAX_STATS_TOWNS = 100;
+
+    // The servlet container owns the response stream, generators must not close it
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
     @Autowired
     private SwiftCodeService swiftCodeService;
     @Autowired
     private CountryCodeValidator countryCodeValidator;
     @Autowired
+    private SwiftCodeValidator swiftCodeValidator;
+    @Autowired
     private SwiftCodeImportService swiftCodeImportService;
+    @Autowired
+    private SwiftCodeVersions swiftCodeVersions;
+    @Autowired
+    private SwiftCodeResponseCache responseCache;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     // Endpoint 1: Retrieve details of a single SWIFT code
     @GetMapping("/{swiftCode}")
-    public ResponseEntity<?> getSwiftCodeByCode(@PathVariable String swiftCode) {
+    public ResponseEntity<?> getSwiftCodeByCode(@PathVariable String swiftCode, WebRequest webRequest,
+                                                HttpServletResponse servletResponse) throws IOException {
         String upperCode = swiftCode.toUpperCase();
 
         // Length check
@@ -47,140 +109,126 @@ public class SwiftCodeController {
             return ResponseEntity.badRequest().body(Map.of("message", "SWIFT code format is invalid."));
         }
 
-        Optional<SwiftCode> swiftCodeOpt = swiftCodeService.getSwiftCodeByCode(upperCode);
+        // Unchanged since the client's copy: 304 without touching the data
+        SwiftCodeVersions.Version version = swiftCodeVersions.forSwiftCode(upperCode);
+        if (webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        String cacheKey = SwiftCodeResponseCache.codeKey(upperCode);
+        if (sendCached(cacheKey, version, webRequest, servletResponse)) {
+            return null;
+        }
+
+        // Headquarters (ending with XXX) come with their branches, read together
+        Optional<SwiftCodeService.SwiftCodeWithBranches> swiftCodeOpt = swiftCodeService.getSwiftCodeWithBranches(upperCode);
 
         if (swiftCodeOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("message", "SWIFT code not found."));
         }
 
-        SwiftCode codeDetails = swiftCodeOpt.get();
-        Map<String, Object> response = new LinkedHashMap<>();
-        response.put("address", codeDetails.getAddress());
-        response.put("bankName", codeDetails.getBankName());
-        response.put("countryISO2", codeDetails.getCountryISO2());
-        response.put("countryName", codeDetails.getCountryName());
-        response.put("isHeadquarter", codeDetails.isHeadquarter());
-        response.put("swiftCode", codeDetails.getSwiftCode());
-
-        // If headquarter (ends with XXX), include branches
-        if (upperCode.endsWith("XXX")) {
-            String baseCode = upperCode.substring(0, 8);
-            List<SwiftCode> branches = swiftCodeService.findBranchesByBaseCode(baseCode, upperCode);
-
-            if (branches.isEmpty()) {
-                response.put("message", "No branches found for this headquarter.");
-                response.put("branches", Collections.emptyList());
-            } else {
-                List<Map<String, Object>> branchList = branches.stream()
-                        .map(this::mapBranch)
-                        .collect(Collectors.toList());
-                response.put("branches", branchList);
-            }
-        }
+        SwiftCodeService.SwiftCodeWithBranches codeDetails = swiftCodeOpt.get();
+        Map<String, Object> response = SwiftCodeViews.codeDetails(codeDetails.getSwiftCode(), codeDetails.getBranches());
 
-        return ResponseEntity.ok(response);
+        writeCached(cacheKey, version, response, webRequest, servletResponse);
+        return null;
     }
 
     // Endpoint 2: Return all SWIFT codes for a specific country
+    // With ?limit= the codes are returned one keyset page at a time (continue with ?after=nextCursor),
+    // without it the whole country is streamed as it is read
     @GetMapping("/country/{countryISO2code}")
-    public ResponseEntity<?> getSwiftCodesByCountry(@PathVariable String countryISO2code) {
+    public ResponseEntity<?> getSwiftCodesByCountry(@PathVariable String countryISO2code,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) String after,
+                                                    WebRequest webRequest,
+                                                    HttpServletResponse response) throws IOException {
         String upperCode = countryISO2code.toUpperCase();
 
         // Validate country code
         if (!countryCodeValidator.isValid(upperCode)) {
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "Invalid country code.");
-            return ResponseEntity.badRequest().body(response);
+            Map<String, String> body = new HashMap<>();
+            body.put("message", "Invalid country code.");
+            return ResponseEntity.badRequest().body(body);
         }
 
-        // Fetch swift codes for the given country ISO code
-        List<SwiftCode> result = swiftCodeService.getSwiftCodesByCountry(upperCode);
-
-        // Check if no swift codes are found
-        if (result.isEmpty()) {
-            Map<String, String> response = new HashMap<>();
-            response.put("message", "No SWIFT codes found for country code " + upperCode);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        // Validate page size
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "limit must be between 1 and " + MAX_PAGE_SIZE + "."));
         }
 
-        // Prepare the response DTO
-        CountrySwiftCodeResponse responseDto = new CountrySwiftCodeResponse();
-        responseDto.setCountryISO2(upperCode);
+        // Unchanged since the client's copy: 304 without touching the data
+        SwiftCodeVersions.Version version = swiftCodeVersions.forCountry(upperCode);
+        if (webRequest.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        String cursor = after != null ? after.toUpperCase() : null;
+        String cacheKey = limit != null ? SwiftCodeResponseCache.countryPageKey(upperCode, cursor, limit) : null;
+        if (cacheKey != null && sendCached(cacheKey, version, webRequest, response)) {
+            return null;
+        }
 
         // Set country name if available
         CountryCodeValidator.Country country = countryCodeValidator.getCountryByCode(upperCode);
-        responseDto.setCountryName(country != null ? country.getName() : "Unknown");
+        String countryName = country != null ? country.getName() : "Unknown";
 
-        // Map the result to SwiftCodeDetail
-        List<CountrySwiftCodeResponse.SwiftCodeDetail> swiftCodeDetails = result.stream().map(swiftCode -> {
-            CountrySwiftCodeResponse.SwiftCodeDetail detail = new CountrySwiftCodeResponse.SwiftCodeDetail();
-            detail.setSwiftCode(swiftCode.getSwiftCode());
-            detail.setBankName(swiftCode.getBankName());
-            detail.setAddress(swiftCode.getAddress());
-            detail.setCountryISO2(swiftCode.getCountryISO2());
-            detail.setHeadquarter(swiftCode.isHeadquarter());
-            return detail;
-        }).collect(Collectors.toList());
-
-        responseDto.setSwiftCodes(swiftCodeDetails);
-
-        return ResponseEntity.ok(responseDto);
-    }
-
-    // Endpoint 3: Add a new SWIFT code 
-    @PostMapping
-public ResponseEntity<?> addSwiftCode(@RequestBody SwiftCode swiftCode) {
-    String swift = swiftCode.getSwiftCode().toUpperCase();
-    String iso2 = swiftCode.getCountryISO2().toUpperCase();
+        if (limit == null) {
+            // Check if no swift codes are found
+            if (!swiftCodeService.hasSwiftCodesInCountry(upperCode)) {
+                return countryNotFound(upperCode);
+            }
+            // Streamed in constant memory every time, not cached: a copy would hold the whole country
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            writeCountry(response.getOutputStream(), upperCode, countryName);
+            // Already written to the response
+            return null;
+        }
 
-    // Validate SWIFT code format (11 characters, proper pattern) 
-    if ((swift.length() != 11) ||
-            !swift.matches("^[A-Z0-9]{11}$")) {
-        return ResponseEntity.badRequest().body(Map.of("message", "Invalid SWIFT code format."));
-    }
+        // Fetch one row more than requested to know whether another page follows
+        List<SwiftCode> result = swiftCodeService.getSwiftCodesByCountry(upperCode, cursor, limit + 1);
 
-    // Validate country ISO2 code
-    if (!countryCodeValidator.isValid(iso2)) {
-        return ResponseEntity.badRequest().body(Map.of("message", "Invalid country ISO2 code."));
-    }
+        // Check if no swift codes are found
+        if (result.isEmpty() && cursor == null) {
+            return countryNotFound(upperCode);
+        }
+        boolean hasMore = result.size() > limit;
+        if (hasMore) {
+            result = result.subList(0, limit);
+        }
 
-    // Validate country name matches ISO2 code
-    CountryCodeValidator.Country country = countryCodeValidator.getCountryByCode(iso2);
-    if (country == null || !country.getName().equalsIgnoreCase(swiftCode.getCountryName())) {
-        return ResponseEntity.badRequest().body(Map.of("message", "Country name does not match the ISO2 code."));
-    }
+        // Prepare the response DTO
+        CountrySwiftCodeResponse responseDto = new CountrySwiftCodeResponse();
+        responseDto.setCountryISO2(upperCode);
+        responseDto.setCountryName(countryName);
+        responseDto.setSwiftCodes(result.stream().map(SwiftCodeViews::detail).collect(Collectors.toList()));
+        if (hasMore) {
+            responseDto.setNextCursor(result.get(result.size() - 1).getSwiftCode());
+        }
 
-    // Check if SWIFT code already exists
-    if (swiftCodeService.existsBySwiftCode(swift)) {
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "SWIFT code already exists."));
+        writeCached(cacheKey, version, responseDto, webRequest, response);
+        return null;
     }
 
-    // ✅ Validate headquarter consistency
-    boolean endsWithXXX = swift.endsWith("XXX");
-    boolean isHQ = swiftCode.isHeadquarter(); 
+    // Endpoint 3: Add a new SWIFT code 
+    @PostMapping
+    public ResponseEntity<?> addSwiftCode(@RequestBody SwiftCode swiftCode) {
+        // Validate format, country and headquarter consistency
+        SwiftCodeValidator.normalize(swiftCode);
+        String invalid = swiftCodeValidator.validate(swiftCode);
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", invalid));
+        }
 
-    if (endsWithXXX && !isHQ) {
-        return ResponseEntity.badRequest().body(Map.of(
-            "message", "SWIFT code ending with 'XXX' indicates a headquarter. Please set headquarter = true."
-        ));
-    }
+        // Check if SWIFT code already exists
+        if (swiftCodeService.existsBySwiftCode(swiftCode.getSwiftCode())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "SWIFT code already exists."));
+        }
 
-    if (!endsWithXXX && isHQ) {
-        return ResponseEntity.badRequest().body(Map.of(
-            "message", "SWIFT code not ending with 'XXX' indicates a branch. Please set headquarter = false."
-        ));
+        // All good — save the SWIFT code
+        SwiftCode savedSwiftCode = swiftCodeService.addSwiftCode(swiftCode);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSwiftCode);
     }
 
-    // All good — save the SWIFT code
-    swiftCode.setSwiftCode(swift);
-    swiftCode.setCountryISO2(iso2);
-    SwiftCode savedSwiftCode = swiftCodeService.addSwiftCode(swiftCode);
-
-    return ResponseEntity.status(HttpStatus.CREATED).body(savedSwiftCode);
-}
-
-
     // Endpoint 4: Delete a SWIFT code
     @DeleteMapping("/{swiftCode}")
     public ResponseEntity<?> deleteSwiftCode(@PathVariable String swiftCode) {
@@ -192,39 +240,386 @@ public ResponseEntity<?> addSwiftCode(@RequestBody SwiftCode swiftCode) {
             return ResponseEntity.badRequest().body(Map.of("message", "Invalid SWIFT code format."));
         }
 
-        // Check if SWIFT code exists
-        boolean exists = swiftCodeService.existsBySwiftCode(upperSwift);
-        if (!exists) {
+        // Delete it, unless it does not exist
+        if (!swiftCodeService.deleteSwiftCode(upperSwift)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("message", "SWIFT code not found: " + upperSwift));
         }
-
-        // Proceed to delete
-        swiftCodeService.deleteSwiftCode(upperSwift);
         return ResponseEntity.ok(Map.of("message", "SWIFT code deleted successfully."));
     }
 
     // Endpoint 5: Import SWIFT codes from a CSV file
+    // Only changed records are written unless force=true
     @PostMapping("/import")
-    public ResponseEntity<?> importSwiftCodes() {
+    public ResponseEntity<?> importSwiftCodes(@RequestParam(defaultValue = "false") boolean force) {
         try {
-            swiftCodeImportService.importFromDefaultFile();
-            return ResponseEntity.ok("SWIFT codes imported from CSV.");
+            ImportReport report = swiftCodeImportService.importFromDefaultFile(force);
+            return ResponseEntity.ok(report);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Import failed: " + e.getMessage());
         }
     }
 
-    // Helper method to map a SwiftCode object to a branch map
-    private Map<String, Object> mapBranch(SwiftCode branch) {
-        Map<String, Object> branchMap = new HashMap<>();
-        branchMap.put("address", branch.getAddress());
-        branchMap.put("bankName", branch.getBankName());
-        branchMap.put("countryISO2", branch.getCountryISO2());
-        branchMap.put("isHeadquarter", branch.isHeadquarter());
-        branchMap.put("swiftCode", branch.getSwiftCode());
-        return branchMap;
+    // Endpoint 6: Resolve many SWIFT codes in one call
+    // Codes are upper-cased and deduplicated, then resolved and streamed back in request order,
+    // LOOKUP_CHUNK at a time, each with a FOUND, NOT_FOUND or INVALID status
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupSwiftCodes(@RequestBody SwiftCodeLookupRequest request,
+                                              HttpServletResponse response) throws IOException {
+        List<String> requested = request.getSwiftCodes();
+        if (requested == null || requested.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "swiftCodes must not be empty."));
+        }
+        if (requested.size() > MAX_LOOKUP_CODES) {
+            return ResponseEntity.badRequest().body(Map.of("message", "At most " + MAX_LOOKUP_CODES + " SWIFT codes per lookup."));
+        }
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (String code : requested) {
+            codes.add(code == null ? "" : code.trim().toUpperCase());
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        writeLookup(response.getOutputStream(), new ArrayList<>(codes), request.isIncludeBranches());
+        // Already written to the response
+        return null;
+    }
+
+    // Endpoint 7: Search bank names, towns and addresses
+    // Every word of q must match a word of the code, whole, as a prefix or (fuzzy=true) with a typo;
+    // matches in the bank name rank above the town and the address. Paginated with offset/limit.
+    @GetMapping("/search")
+    public ResponseEntity<?> searchSwiftCodes(@RequestParam(required = false) String q,
+                                              @RequestParam(required = false) String country,
+                                              @RequestParam(defaultValue = "true") boolean fuzzy,
+                                              @RequestParam(defaultValue = "0") int offset,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Query parameter q is required."));
+        }
+        if (q.length() > MAX_SEARCH_QUERY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("message", "q must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters."));
+        }
+        String countryISO2 = country != null ? country.toUpperCase() : null;
+        if (countryISO2 != null && !countryCodeValidator.isValid(countryISO2)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid country code."));
+        }
+        if (limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("message", "limit must be between 1 and " + MAX_SEARCH_PAGE_SIZE + "."));
+        }
+        if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+            return ResponseEntity.badRequest().body(Map.of("message", "offset must be between 0 and " + MAX_SEARCH_OFFSET + "."));
+        }
+
+        SwiftCodeTextIndex.Result result = swiftCodeService.searchSwiftCodes(q, countryISO2, fuzzy, offset, limit);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", "Search index is being built, retry shortly."));
+        }
+
+        SwiftCodeSearchResponse responseDto = new SwiftCodeSearchResponse();
+        responseDto.setQuery(q);
+        responseDto.setCountryISO2(countryISO2);
+        responseDto.setTotal(result.getTotal());
+        responseDto.setOffset(offset);
+        responseDto.setLimit(limit);
+        responseDto.setResults(result.getHits().stream().map(this::mapSearchResult).collect(Collectors.toList()));
+        return ResponseEntity.ok(responseDto);
+    }
+
+    // Endpoint 8: Dataset statistics: totals, codes and headquarters per country, busiest towns
+    // Served from counters kept up to date by every write, so it costs the same at any dataset size
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(@RequestParam(defaultValue = "10") int towns) {
+        if (towns < 0 || towns > MAX_STATS_TOWNS) {
+            return ResponseEntity.badRequest().body(Map.of("message", "towns must be between 0 and " + MAX_STATS_TOWNS + "."));
+        }
+        SwiftCodeAggregates.Summary summary = swiftCodeService.getStats(towns);
+        if (summary == null) {
+            return statsNotReady();
+        }
+        return ResponseEntity.ok(summary);
+    }
+
+    // Endpoint 9: Compare the statistics with counts made by the database
+    // Reads every group of the table, meant for operators and scheduled checks rather than dashboards
+    @GetMapping("/stats/check")
+    public ResponseEntity<?> checkStats() {
+        SwiftCodeAggregates.Comparison comparison = swiftCodeService.checkStats();
+        if (comparison == null) {
+            return statsNotReady();
+        }
+        return ResponseEntity.ok(comparison);
+    }
+
+    // Endpoint 10: Statistics of one country, with the branches-per-headquarter distribution and top towns
+    @GetMapping("/stats/{countryISO2code}")
+    public ResponseEntity<?> getCountryStats(@PathVariable String countryISO2code,
+                                             @RequestParam(defaultValue = "10") int towns) {
+        String countryISO2 = countryISO2code.toUpperCase();
+        if (!countryCodeValidator.isValid(countryISO2)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid country code."));
+        }
+        if (towns < 0 || towns > MAX_STATS_TOWNS) {
+            return ResponseEntity.badRequest().body(Map.of("message", "towns must be between 0 and " + MAX_STATS_TOWNS + "."));
+        }
+        if (!swiftCodeService.isStatsReady()) {
+            return statsNotReady();
+        }
+        Optional<SwiftCodeAggregates.CountryStats> stats = swiftCodeService.getCountryStats(countryISO2, towns);
+        if (stats.isEmpty()) {
+            return countryNotFound(countryISO2);
+        }
+        return ResponseEntity.ok(stats.get());
+    }
+
+    // Endpoint 11: Add many SWIFT codes in one transaction
+    // Every code is checked like in POST /v1/swift-codes before anything is written; the existing ones
+    // are found with set-based queries and the new ones inserted in batches. Results per code, in
+    // request order: CREATED, EXISTS or INVALID
+    @PostMapping("/bulk")
+    public ResponseEntity<?> addSwiftCodes(@RequestBody SwiftCodeBulkCreateRequest request) {
+        List<SwiftCode> requested = request.getSwiftCodes();
+        if (requested == null || requested.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "swiftCodes must not be empty."));
+        }
+        if (requested.size() > MAX_BULK_CODES) {
+            return ResponseEntity.badRequest().body(Map.of("message", "At most " + MAX_BULK_CODES + " SWIFT codes per request."));
+        }
+
+        String[] invalid = new String[requested.size()];
+        Map<String, SwiftCode> valid = new LinkedHashMap<>();
+        for (int i = 0; i < requested.size(); i++) {
+            SwiftCode swiftCode = requested.get(i);
+            if (swiftCode == null) {
+                invalid[i] = "Invalid SWIFT code format.";
+                continue;
+            }
+            SwiftCodeValidator.normalize(swiftCode);
+            invalid[i] = swiftCodeValidator.validate(swiftCode);
+            if (invalid[i] == null && valid.putIfAbsent(swiftCode.getSwiftCode(), swiftCode) != null) {
+                invalid[i] = DUPLICATE_CODE;
+            }
+        }
+
+        Set<String> existing = Set.of();
+        if (!valid.isEmpty()) {
+            try {
+                existing = swiftCodeService.addSwiftCodes(new ArrayList<>(valid.values()));
+            } catch (DataIntegrityViolationException e) {
+                // Another request added one of the codes after they were checked; the transaction rolled back
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "SWIFT codes were added concurrently, nothing was written. Please retry."));
+            }
+        }
+
+        SwiftCodeBulkResponse response = new SwiftCodeBulkResponse();
+        for (int i = 0; i < requested.size(); i++) {
+            String code = requested.get(i) == null ? null : requested.get(i).getSwiftCode();
+            if (invalid[i] != null) {
+                response.failed(code, "INVALID", invalid[i]);
+            } else if (existing.contains(code)) {
+                response.failed(code, "EXISTS", "SWIFT code already exists.");
+            } else {
+                response.succeeded(code, "CREATED");
+            }
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Endpoint 12: Delete many SWIFT codes in one transaction
+    // Codes are upper-cased; results per code, in request order: DELETED, NOT_FOUND or INVALID
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<?> deleteSwiftCodes(@RequestBody SwiftCodeBulkDeleteRequest request) {
+        List<String> requested = request.getSwiftCodes();
+        if (requested == null || requested.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "swiftCodes must not be empty."));
+        }
+        if (requested.size() > MAX_BULK_CODES) {
+            return ResponseEntity.badRequest().body(Map.of("message", "At most " + MAX_BULK_CODES + " SWIFT codes per request."));
+        }
+
+        List<String> codes = new ArrayList<>(requested.size());
+        String[] invalid = new String[requested.size()];
+        Set<String> valid = new LinkedHashSet<>();
+        for (int i = 0; i < requested.size(); i++) {
+            String code = requested.get(i) == null ? "" : requested.get(i).trim().toUpperCase();
+            codes.add(code);
+            invalid[i] = invalidReason(code);
+            if (invalid[i] == null && !valid.add(code)) {
+                invalid[i] = DUPLICATE_CODE;
+            }
+        }
+
+        Set<String> deleted = valid.isEmpty() ? Set.of() : swiftCodeService.deleteSwiftCodes(valid);
+
+        SwiftCodeBulkResponse response = new SwiftCodeBulkResponse();
+        for (int i = 0; i < codes.size(); i++) {
+            String code = codes.get(i);
+            if (invalid[i] != null) {
+                response.failed(code, "INVALID", invalid[i]);
+            } else if (deleted.contains(code)) {
+                response.succeeded(code, "DELETED");
+            } else {
+                response.failed(code, "NOT_FOUND", "SWIFT code not found: " + code);
+            }
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Sends the body cached for this version of the data, if there is one
+    private boolean sendCached(String cacheKey, SwiftCodeVersions.Version version,
+                               WebRequest webRequest, HttpServletResponse response) throws IOException {
+        SwiftCodeResponseCache.Entry cached = responseCache.get(cacheKey, version);
+        if (cached == null) {
+            return false;
+        }
+        responseCache.write(cached, webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), response);
+        return true;
+    }
+
+    // Serialises body once, caches it and sends it
+    private void writeCached(String cacheKey, SwiftCodeVersions.Version version, Object body,
+                             WebRequest webRequest, HttpServletResponse response) throws IOException {
+        SwiftCodeResponseCache.Entry entry = responseCache.put(cacheKey, version, objectMapper.writeValueAsBytes(body));
+        responseCache.write(entry, webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), response);
+    }
+
+    private static ResponseEntity<?> statsNotReady() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("message", "Statistics are being counted, retry shortly."));
+    }
+
+    private ResponseEntity<?> countryNotFound(String countryISO2) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(SwiftCodeViews.countryNotFound(countryISO2));
+    }
+
+    // Writes the same JSON as CountrySwiftCodeResponse, row by row while the codes are read,
+    // so neither the entities nor the DTOs of the whole country are ever held at once
+    private void writeCountry(OutputStream outputStream, String countryISO2, String countryName) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(outputStream)) {
+            json.writeStartObject();
+            json.writeStringField("countryISO2", countryISO2);
+            json.writeStringField("countryName", countryName);
+            json.writeArrayFieldStart("swiftCodes");
+            swiftCodeService.forEachSwiftCodeInCountry(countryISO2, swiftCode -> {
+                try {
+                    json.writeStartObject();
+                    json.writeStringField("swiftCode", swiftCode.getSwiftCode());
+                    json.writeStringField("bankName", swiftCode.getBankName());
+                    json.writeStringField("address", swiftCode.getAddress());
+                    json.writeStringField("countryISO2", swiftCode.getCountryISO2());
+                    json.writeBooleanField("isHeadquarter", swiftCode.isHeadquarter());
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private void writeLookup(OutputStream outputStream, List<String> codes, boolean includeBranches) throws IOException {
+        long found = 0;
+        long notFound = 0;
+        long invalid = 0;
+        try (JsonGenerator json = JSON.createGenerator(outputStream)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("results");
+            for (int from = 0; from < codes.size(); from += LOOKUP_CHUNK) {
+                List<String> chunk = codes.subList(from, Math.min(from + LOOKUP_CHUNK, codes.size()));
+
+                List<String> valid = new ArrayList<>(chunk.size());
+                for (String code : chunk) {
+                    if (invalidReason(code) == null) {
+                        valid.add(code);
+                    }
+                }
+                Map<String, SwiftCode> resolved = swiftCodeService.getSwiftCodesByCodes(valid);
+                Map<String, List<SwiftCode>> branches = Collections.emptyMap();
+                if (includeBranches) {
+                    List<String> headquarters = resolved.keySet().stream()
+                            .filter(code -> code.endsWith("XXX"))
+                            .collect(Collectors.toList());
+                    if (!headquarters.isEmpty()) {
+                        branches = swiftCodeService.findBranchesByHeadquarters(headquarters);
+                    }
+                }
+
+                for (String code : chunk) {
+                    json.writeStartObject();
+                    json.writeStringField("swiftCode", code);
+                    SwiftCode swiftCode = resolved.get(code);
+                    String reason = invalidReason(code);
+                    if (reason != null) {
+                        invalid++;
+                        json.writeStringField("status", "INVALID");
+                        json.writeStringField("message", reason);
+                    } else if (swiftCode == null) {
+                        notFound++;
+                        json.writeStringField("status", "NOT_FOUND");
+                    } else {
+                        found++;
+                        json.writeStringField("status", "FOUND");
+                        json.writeStringField("address", swiftCode.getAddress());
+                        json.writeStringField("bankName", swiftCode.getBankName());
+                        json.writeStringField("countryISO2", swiftCode.getCountryISO2());
+                        json.writeStringField("countryName", swiftCode.getCountryName());
+                        json.writeBooleanField("isHeadquarter", swiftCode.isHeadquarter());
+                        if (branches.containsKey(code)) {
+                            json.writeArrayFieldStart("branches");
+                            for (SwiftCode branch : branches.get(code)) {
+                                json.writeStartObject();
+                                json.writeStringField("address", branch.getAddress());
+                                json.writeStringField("bankName", branch.getBankName());
+                                json.writeStringField("countryISO2", branch.getCountryISO2());
+                                json.writeBooleanField("isHeadquarter", branch.isHeadquarter());
+                                json.writeStringField("swiftCode", branch.getSwiftCode());
+                                json.writeEndObject();
+                            }
+                            json.writeEndArray();
+                        }
+                    }
+                    json.writeEndObject();
+                }
+                // Let the client start on this chunk while the next one is resolved
+                json.flush();
+            }
+            json.writeEndArray();
+            json.writeNumberField("found", found);
+            json.writeNumberField("notFound", notFound);
+            json.writeNumberField("invalid", invalid);
+            json.writeEndObject();
+        }
+    }
+
+    private SwiftCodeSearchResponse.SearchResult mapSearchResult(SwiftCodeTextIndex.Hit hit) {
+        SwiftCode swiftCode = hit.getSwiftCode();
+        SwiftCodeSearchResponse.SearchResult result = new SwiftCodeSearchResponse.SearchResult();
+        result.setSwiftCode(swiftCode.getSwiftCode());
+        result.setBankName(swiftCode.getBankName());
+        result.setAddress(swiftCode.getAddress());
+        result.setTownName(swiftCode.getTownName());
+        result.setCountryISO2(swiftCode.getCountryISO2());
+        result.setCountryName(swiftCode.getCountryName());
+        result.setHeadquarter(swiftCode.isHeadquarter());
+        result.setScore(hit.getScore());
+        return result;
+    }
+
+    // Same messages as GET /{swiftCode}, null for a well-formed code
+    private static String invalidReason(String code) {
+        if (code.length() != 11) {
+            return "SWIFT code must be 11 characters long.";
+        }
+        if (!SWIFT_CODE_PATTERN.matcher(code).matches()) {
+            return "SWIFT code format is invalid.";
+        }
+        return null;
     }
 
 }
@@ -0,0 +1,72 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.swiftcodes.swift_api.dto.CountrySwiftCodeResponse;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Response bodies shared by SwiftCodeController and ReactiveSwiftCodeController,
+// so both read APIs return exactly the same JSON
+final class SwiftCodeViews {
+
+    private SwiftCodeViews() {
+    }
+
+    // Body of GET /{swiftCode}, branches is null for a branch code
+    static Map<String, Object> codeDetails(SwiftCode codeDetails, List<SwiftCode> branches) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("address", codeDetails.getAddress());
+        response.put("bankName", codeDetails.getBankName());
+        response.put("countryISO2", codeDetails.getCountryISO2());
+        response.put("countryName", codeDetails.getCountryName());
+        response.put("isHeadquarter", codeDetails.isHeadquarter());
+        response.put("swiftCode", codeDetails.getSwiftCode());
+
+        // Headquarters (ending with XXX) include their branches
+        if (branches != null) {
+            if (branches.isEmpty()) {
+                response.put("message", "No branches found for this headquarter.");
+                response.put("branches", Collections.emptyList());
+            } else {
+                List<Map<String, Object>> branchList = branches.stream()
+                        .map(SwiftCodeViews::branch)
+                        .collect(Collectors.toList());
+                response.put("branches", branchList);
+            }
+        }
+        return response;
+    }
+
+    // Helper method to map a SwiftCode object to a branch map
+    static Map<String, Object> branch(SwiftCode branch) {
+        Map<String, Object> branchMap = new HashMap<>();
+        branchMap.put("address", branch.getAddress());
+        branchMap.put("bankName", branch.getBankName());
+        branchMap.put("countryISO2", branch.getCountryISO2());
+        branchMap.put("isHeadquarter", branch.isHeadquarter());
+        branchMap.put("swiftCode", branch.getSwiftCode());
+        return branchMap;
+    }
+
+    // Helper method to map a SwiftCode object to a SwiftCodeDetail
+    static CountrySwiftCodeResponse.SwiftCodeDetail detail(SwiftCode swiftCode) {
+        CountrySwiftCodeResponse.SwiftCodeDetail detail = new CountrySwiftCodeResponse.SwiftCodeDetail();
+        detail.setSwiftCode(swiftCode.getSwiftCode());
+        detail.setBankName(swiftCode.getBankName());
+        detail.setAddress(swiftCode.getAddress());
+        detail.setCountryISO2(swiftCode.getCountryISO2());
+        detail.setHeadquarter(swiftCode.isHeadquarter());
+        return detail;
+    }
+
+    static Map<String, String> countryNotFound(String countryISO2) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "No SWIFT codes found for country code " + countryISO2);
+        return response;
+    }
+}
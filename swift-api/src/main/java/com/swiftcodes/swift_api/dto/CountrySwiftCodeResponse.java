@@ -2,6 +2,7 @@ package com.swiftcodes.swift_api.dto;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class CountrySwiftCodeResponse {
@@ -10,6 +11,10 @@ public class CountrySwiftCodeResponse {
     private String countryName;
     private List<SwiftCodeDetail> swiftCodes;
 
+    // Pass as ?after= to get the next page, absent on the last page and when not paginated
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     // Getters and Setters
     public String getCountryISO2() {
         return countryISO2;
@@ -35,6 +40,14 @@ public class CountrySwiftCodeResponse {
         this.swiftCodes = swiftCodes;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     // Inner class for SwiftCode details
     public static class SwiftCodeDetail {
 
@@ -0,0 +1,140 @@
+package com.swiftcodes.swift_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live state of a background import job, returned by the /v1/swift-codes/import/jobs endpoints.
+// Counters are written by the import thread and read by request threads.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobStatus {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final String fileName;
+    private final long fileSizeBytes;
+    private final Instant submittedAt = Instant.now();
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile ImportReport report;
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    public ImportJobStatus(String jobId, String fileName, long fileSizeBytes) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.fileSizeBytes = fileSizeBytes;
+    }
+
+    public void markRunning() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    public void markCompleted(ImportReport report) {
+        this.report = report;
+        finishedAt = Instant.now();
+        state = State.COMPLETED;
+    }
+
+    public void markFailed(String error) {
+        errors.add(error);
+        finishedAt = Instant.now();
+        state = State.FAILED;
+    }
+
+    public void addParsed(long rows, long bytes) {
+        rowsParsed.addAndGet(rows);
+        bytesParsed.addAndGet(bytes);
+    }
+
+    public void addWritten(long rows) {
+        rowsWritten.addAndGet(rows);
+    }
+
+    // Getters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getFileSizeBytes() {
+        return fileSizeBytes;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getBytesParsed() {
+        return bytesParsed.get();
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // Final report, once the job has completed
+    public ImportReport getReport() {
+        return report;
+    }
+
+    public long getRowsPerSecond() {
+        long millis = elapsedMillis();
+        return millis == 0 ? 0 : rowsWritten.get() * 1000 / millis;
+    }
+
+    // Extrapolated from the share of the file parsed so far, null until it can be estimated
+    public Long getEtaSeconds() {
+        long parsed = bytesParsed.get();
+        if (state != State.RUNNING || parsed == 0 || fileSizeBytes == 0) {
+            return null;
+        }
+        long remaining = Math.max(0, fileSizeBytes - parsed);
+        return elapsedMillis() * remaining / parsed / 1000;
+    }
+
+    private long elapsedMillis() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return end.toEpochMilli() - start.toEpochMilli();
+    }
+}
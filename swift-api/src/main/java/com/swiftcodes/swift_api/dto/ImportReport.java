@@ -0,0 +1,87 @@
+package com.swiftcodes.swift_api.dto;
+
+// Outcome of a bulk import, returned by POST /v1/swift-codes/import
+public class ImportReport {
+
+    private String message;
+    private long rowsRead;
+    private long rowsInserted;
+    private long rowsUpdated;
+    private long rowsSkipped;
+    private long rowsDeleted;
+    private long rowsRejected;
+    private long durationMillis;
+
+    // Getters and Setters
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted;
+    }
+
+    public void setRowsInserted(long rowsInserted) {
+        this.rowsInserted = rowsInserted;
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated;
+    }
+
+    public void setRowsUpdated(long rowsUpdated) {
+        this.rowsUpdated = rowsUpdated;
+    }
+
+    // Unchanged rows (same content hash as the previous import, or same as the stored row) and duplicate codes
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public void setRowsSkipped(long rowsSkipped) {
+        this.rowsSkipped = rowsSkipped;
+    }
+
+    // Codes removed because they are no longer in the source file (delta imports only)
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public void setRowsDeleted(long rowsDeleted) {
+        this.rowsDeleted = rowsDeleted;
+    }
+
+    // Rows failing validation (unknown country, country name mismatch, missing columns),
+    // or in a batch the database kept refusing
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return durationMillis == 0 ? rowsRead * 1000 : rowsRead * 1000 / durationMillis;
+    }
+}
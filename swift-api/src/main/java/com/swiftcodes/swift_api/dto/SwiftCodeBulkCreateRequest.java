@@ -0,0 +1,20 @@
+package com.swiftcodes.swift_api.dto;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.List;
+
+// Body of POST /v1/swift-codes/bulk: codes in the shape POST /v1/swift-codes takes
+public class SwiftCodeBulkCreateRequest {
+
+    private List<SwiftCode> swiftCodes;
+
+    // Getters and Setters
+    public List<SwiftCode> getSwiftCodes() {
+        return swiftCodes;
+    }
+
+    public void setSwiftCodes(List<SwiftCode> swiftCodes) {
+        this.swiftCodes = swiftCodes;
+    }
+}
@@ -0,0 +1,18 @@
+package com.swiftcodes.swift_api.dto;
+
+import java.util.List;
+
+// Body of POST /v1/swift-codes/bulk-delete
+public class SwiftCodeBulkDeleteRequest {
+
+    private List<String> swiftCodes;
+
+    // Getters and Setters
+    public List<String> getSwiftCodes() {
+        return swiftCodes;
+    }
+
+    public void setSwiftCodes(List<String> swiftCodes) {
+        this.swiftCodes = swiftCodes;
+    }
+}
@@ -0,0 +1,66 @@
+package com.swiftcodes.swift_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Body of the bulk create and delete endpoints: one result per requested code, in request order
+public class SwiftCodeBulkResponse {
+
+    private final List<ItemResult> results = new ArrayList<>();
+    // Codes created or deleted
+    private int succeeded;
+    private int failed;
+
+    public void succeeded(String swiftCode, String status) {
+        results.add(new ItemResult(swiftCode, status, null));
+        succeeded++;
+    }
+
+    public void failed(String swiftCode, String status, String message) {
+        results.add(new ItemResult(swiftCode, status, message));
+        failed++;
+    }
+
+    // Getters
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public static class ItemResult {
+
+        private final String swiftCode;
+        private final String status;
+
+        // Why the code was rejected, absent on success
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private final String message;
+
+        public ItemResult(String swiftCode, String status, String message) {
+            this.swiftCode = swiftCode;
+            this.status = status;
+            this.message = message;
+        }
+
+        public String getSwiftCode() {
+            return swiftCode;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.swiftcodes.swift_api.dto;
+
+import java.util.List;
+
+// Body of POST /v1/swift-codes/lookup
+public class SwiftCodeLookupRequest {
+
+    private List<String> swiftCodes;
+    // Whether found headquarters are returned with their branches
+    private boolean includeBranches;
+
+    // Getters and Setters
+    public List<String> getSwiftCodes() {
+        return swiftCodes;
+    }
+
+    public void setSwiftCodes(List<String> swiftCodes) {
+        this.swiftCodes = swiftCodes;
+    }
+
+    public boolean isIncludeBranches() {
+        return includeBranches;
+    }
+
+    public void setIncludeBranches(boolean includeBranches) {
+        this.includeBranches = includeBranches;
+    }
+}
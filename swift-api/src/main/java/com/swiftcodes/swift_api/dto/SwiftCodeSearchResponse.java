@@ -0,0 +1,154 @@
+package com.swiftcodes.swift_api.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Body of GET /v1/swift-codes/search: one page of matches, best first
+public class SwiftCodeSearchResponse {
+
+    private String query;
+
+    // Only present when the search was limited to a country
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String countryISO2;
+
+    // Matches in total, across all pages
+    private int total;
+    private int offset;
+    private int limit;
+    private List<SearchResult> results;
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getCountryISO2() {
+        return countryISO2;
+    }
+
+    public void setCountryISO2(String countryISO2) {
+        this.countryISO2 = countryISO2;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public List<SearchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<SearchResult> results) {
+        this.results = results;
+    }
+
+    // Inner class for a matching SWIFT code and its relevance
+    public static class SearchResult {
+
+        private String swiftCode;
+        private String bankName;
+        private String address;
+        private String townName;
+        private String countryISO2;
+        private String countryName;
+
+        @JsonProperty("isHeadquarter")
+        private boolean isHeadquarter;
+
+        private double score;
+
+        // Getters and Setters
+        public String getSwiftCode() {
+            return swiftCode;
+        }
+
+        public void setSwiftCode(String swiftCode) {
+            this.swiftCode = swiftCode;
+        }
+
+        public String getBankName() {
+            return bankName;
+        }
+
+        public void setBankName(String bankName) {
+            this.bankName = bankName;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public String getTownName() {
+            return townName;
+        }
+
+        public void setTownName(String townName) {
+            this.townName = townName;
+        }
+
+        public String getCountryISO2() {
+            return countryISO2;
+        }
+
+        public void setCountryISO2(String countryISO2) {
+            this.countryISO2 = countryISO2;
+        }
+
+        public String getCountryName() {
+            return countryName;
+        }
+
+        public void setCountryName(String countryName) {
+            this.countryName = countryName;
+        }
+
+        @JsonProperty("isHeadquarter")
+        public boolean isHeadquarter() {
+            return isHeadquarter;
+        }
+
+        @JsonProperty("isHeadquarter")
+        public void setHeadquarter(boolean isHeadquarter) {
+            this.isHeadquarter = isHeadquarter;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.swiftcodes.swift_api.entity;
+
+import jakarta.persistence.*;
+
+// One row of swift_change_log: a code added or deleted by one instance, or an import (no code), for the
+// other instances sharing the database to apply. Written and read with JDBC by SwiftCodeChangeLog.
+@Entity
+@Table(name = "swift_change_log", indexes = {
+        @Index(name = "idx_swift_change_log_logged_at", columnList = "logged_at")
+})
+public class ChangeLogEntry {
+
+    // Taken from ChangeLogSequence in the writing transaction, not generated by the database
+    @Id
+    private Long id;
+
+    @Column(name = "instance_id", nullable = false, length = 36)
+    private String instanceId;
+
+    // SwiftCodeChangeEvent.Type
+    @Column(name = "change_type", nullable = false, length = 16)
+    private String changeType;
+
+    // Epoch milliseconds
+    @Column(name = "logged_at", nullable = false)
+    private long loggedAt;
+
+    @Column(name = "swift_code")
+    private String swiftCode;
+
+    @Column(name = "bank_name")
+    private String bankName;
+
+    @Column(name = "address")
+    private String address;
+
+    @Column(name = "town_name")
+    private String townName;
+
+    @Column(name = "is_headquarter")
+    private Boolean headquarter;
+
+    @Column(name = "country_iso2")
+    private String countryISO2;
+
+    @Column(name = "country_name")
+    private String countryName;
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public long getLoggedAt() {
+        return loggedAt;
+    }
+
+    public String getSwiftCode() {
+        return swiftCode;
+    }
+
+    public String getBankName() {
+        return bankName;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getTownName() {
+        return townName;
+    }
+
+    public Boolean getHeadquarter() {
+        return headquarter;
+    }
+
+    public String getCountryISO2() {
+        return countryISO2;
+    }
+
+    public String getCountryName() {
+        return countryName;
+    }
+}
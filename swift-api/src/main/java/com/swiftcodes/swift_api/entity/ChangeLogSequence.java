@@ -0,0 +1,28 @@
+package com.swiftcodes.swift_api.entity;
+
+import jakarta.persistence.*;
+
+// The single row handing out swift_change_log ids. A writer increments it in its own transaction and
+// holds the row lock until it commits, so ids are taken in commit order and a rollback gives its ids back.
+@Entity
+@Table(name = "swift_change_log_sequence")
+public class ChangeLogSequence {
+
+    // Always 1
+    @Id
+    private Integer id;
+
+    // Last swift_change_log id handed out
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    // Getters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,73 @@
+package com.swiftcodes.swift_api.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// What was imported from a source file last time: a fingerprint of the whole
+// file plus a hash of every record, used to skip or narrow the next import.
+@Entity
+@Table(name = "import_manifests")
+public class ImportManifest {
+
+    @Id
+    @Column(name = "source", length = 255)
+    private String source;
+
+    // SHA-256 of the file content, hex encoded
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "record_count", nullable = false)
+    private int recordCount;
+
+    @Column(name = "imported_at", nullable = false)
+    private Instant importedAt;
+
+    // RecordHashes.encode() of the imported records
+    @Lob
+    @Column(name = "record_hashes", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] recordHashes;
+
+    // Getters and setters
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public void setRecordCount(int recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public Instant getImportedAt() {
+        return importedAt;
+    }
+
+    public void setImportedAt(Instant importedAt) {
+        this.importedAt = importedAt;
+    }
+
+    public byte[] getRecordHashes() {
+        return recordHashes;
+    }
+
+    public void setRecordHashes(byte[] recordHashes) {
+        this.recordHashes = recordHashes;
+    }
+}
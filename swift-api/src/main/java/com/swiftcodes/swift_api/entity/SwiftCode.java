@@ -1,11 +1,15 @@
 package com.swiftcodes.swift_api.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "swift_codes")
+@Table(name = "swift_codes", indexes = {
+        @Index(name = "idx_swift_codes_base_code", columnList = "base_code"),
+        @Index(name = "idx_swift_codes_country_code", columnList = "country_iso2, swift_code")
+})
 public class SwiftCode {
 
     @Id
@@ -15,6 +19,12 @@ public class SwiftCode {
     @Column(name = "swift_code", nullable = false, unique = true)
     private String swiftCode;
 
+    // First 8 characters of the SWIFT code, shared by a headquarter and all of its branches.
+    // Derived from swiftCode so every write path (CSV import, POST) keeps it in sync.
+    @JsonIgnore
+    @Column(name = "base_code", length = 8)
+    private String baseCode;
+
     @Column(name = "bank_name", nullable = false)
     private String bankName;
 
@@ -34,6 +44,22 @@ public class SwiftCode {
     @Column(name = "country_name", nullable = false)
     private String countryName;
 
+    public SwiftCode() {
+    }
+
+    // Read-only copy holding the columns the API responses show, built by SwiftCodeRepository's
+    // projection queries: no id or town name, and never managed by a persistence context
+    public SwiftCode(String swiftCode, String bankName, String address, boolean isHeadquarter,
+                     String countryISO2, String countryName) {
+        this.swiftCode = swiftCode;
+        this.baseCode = baseCodeOf(swiftCode);
+        this.bankName = bankName;
+        this.address = address;
+        this.isHeadquarter = isHeadquarter;
+        this.countryISO2 = countryISO2;
+        this.countryName = countryName;
+    }
+
     // Getters and setters
 
     public Long getId() {
@@ -46,6 +72,15 @@ public class SwiftCode {
 
     public void setSwiftCode(String swiftCode) {
         this.swiftCode = swiftCode.toUpperCase();
+        this.baseCode = baseCodeOf(this.swiftCode);
+    }
+
+    public String getBaseCode() {
+        return baseCode;
+    }
+
+    public static String baseCodeOf(String swiftCode) {
+        return swiftCode.length() >= 8 ? swiftCode.substring(0, 8) : swiftCode;
     }
 
     public String getBankName() {
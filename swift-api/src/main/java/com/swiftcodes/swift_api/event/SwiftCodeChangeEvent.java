@@ -0,0 +1,68 @@
+package com.swiftcodes.swift_api.event;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.List;
+
+// Published by the service layer whenever the SWIFT code dataset changes.
+// Listeners that keep derived state (read model, caches, ...) should use
+// @TransactionalEventListener so they only see committed changes.
+public class SwiftCodeChangeEvent {
+
+    public enum Type {
+        ADDED,
+        DELETED,
+        IMPORTED
+    }
+
+    private final Type type;
+    private final List<SwiftCode> swiftCodes;
+    private final boolean remote;
+
+    private SwiftCodeChangeEvent(Type type, List<SwiftCode> swiftCodes, boolean remote) {
+        this.type = type;
+        this.swiftCodes = swiftCodes;
+        this.remote = remote;
+    }
+
+    public static SwiftCodeChangeEvent added(SwiftCode swiftCode) {
+        return new SwiftCodeChangeEvent(Type.ADDED, List.of(swiftCode), false);
+    }
+
+    // Rows written together by a bulk create, applied by listeners as one change
+    public static SwiftCodeChangeEvent added(List<SwiftCode> swiftCodes) {
+        return new SwiftCodeChangeEvent(Type.ADDED, List.copyOf(swiftCodes), false);
+    }
+
+    public static SwiftCodeChangeEvent deleted(SwiftCode swiftCode) {
+        return new SwiftCodeChangeEvent(Type.DELETED, List.of(swiftCode), false);
+    }
+
+    public static SwiftCodeChangeEvent deleted(List<SwiftCode> swiftCodes) {
+        return new SwiftCodeChangeEvent(Type.DELETED, List.copyOf(swiftCodes), false);
+    }
+
+    // A bulk import replaced an unknown part of the dataset
+    public static SwiftCodeChangeEvent imported() {
+        return new SwiftCodeChangeEvent(Type.IMPORTED, List.of(), false);
+    }
+
+    // A change another instance committed, read back from swift_change_log (SwiftCodeChangeLog).
+    // Published outside any transaction, so listeners run at once.
+    public static SwiftCodeChangeEvent remote(Type type, List<SwiftCode> swiftCodes) {
+        return new SwiftCodeChangeEvent(type, List.copyOf(swiftCodes), true);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // The added or deleted rows, empty for IMPORTED
+    public List<SwiftCode> getSwiftCodes() {
+        return swiftCodes;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
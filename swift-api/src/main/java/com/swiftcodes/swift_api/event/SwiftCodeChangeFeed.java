@@ -0,0 +1,306 @@
+package com.swiftcodes.swift_api.event;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Every committed change to the dataset as an ordered feed, for clients that keep their own copy of the
+// codes (GET /v1/swift-codes/changes, Server-Sent Events). Each add, delete, bulk write and import is one
+// event with the next sequence number, serialised once and kept in a ring of swift.change-feed.capacity.
+// A client resumes after the last event id it saw while that event is still in the ring; one that fell
+// further behind, or comes back after a restart, gets a reset event and must reload before applying more.
+// Sequences restart with the process, so event ids carry the boot epoch like SwiftCodeVersions' tags.
+@Component
+public class SwiftCodeChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeChangeFeed.class);
+
+    // Events sent to one subscriber per turn of its sender, before others get a go
+    private static final int SEND_STEP = 256;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    // Guarded by this: slot sequence % length holds that event while it is among the last length ones
+    private final Entry[] ring;
+    private long lastSequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Sends run off the committing thread, a slow client only holds up its own sender
+    private final ThreadPoolTaskScheduler senders;
+
+    private final LongAdder resets = new LongAdder();
+
+    @Autowired
+    public SwiftCodeChangeFeed(ObjectMapper objectMapper,
+                               @Value("${swift.change-feed.capacity:10000}") int capacity,
+                               @Value("${swift.change-feed.sender-threads:4}") int senderThreads,
+                               @Value("${swift.change-feed.heartbeat-interval:15s}") Duration heartbeatInterval,
+                               @Value("${swift.change-feed.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.ring = new Entry[Math.max(capacity, 1)];
+
+        senders = new ThreadPoolTaskScheduler();
+        senders.setPoolSize(Math.max(senderThreads, 1));
+        senders.setThreadNamePrefix("swift-feed-");
+        senders.initialize();
+        // Comment lines keep idle connections open through proxies and find clients that went away
+        senders.scheduleWithFixedDelay(this::heartbeat, heartbeatInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdown();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    // swift.feed.subscribers, swift.feed.sequence, and swift.feed.resets for clients sent back to reload
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("swift.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed connections").register(registry);
+        Gauge.builder("swift.feed.sequence", this, SwiftCodeChangeFeed::lastSequence)
+                .description("Sequence number of the last change feed event").register(registry);
+        FunctionCounter.builder("swift.feed.resets", resets, LongAdder::sum)
+                .description("Change feed clients told to reload, behind the ring or after a restart").register(registry);
+    }
+
+    // Runs after SwiftCodeResponseCache, a client reacting to an event reads the data it describes
+    @Order(3)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        synchronized (this) {
+            long sequence = lastSequence + 1;
+            ring[(int) (sequence % ring.length)] = new Entry(sequence, toJson(sequence, event));
+            lastSequence = sequence;
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    // Id of the event with the given sequence, as sent in the SSE id field
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // Opens a feed that continues after lastEventId, or from now on when it is null.
+    // An id from another process, or one that left the ring, starts the feed with a reset.
+    public SseEmitter subscribe(String lastEventId) {
+        long last = lastSequence();
+        long after = last;
+        boolean reset = false;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            Long sequence = parseSequence(lastEventId.trim());
+            if (sequence == null || sequence > last || sequence < last - ring.length) {
+                reset = true;
+            } else {
+                after = sequence;
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, after + 1);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Tells the client where the feed starts, so it can load the data as of that point. Events
+        // appended meanwhile are in the ring and go out once the subscriber is registered.
+        subscriber.sendFirst(reset, last);
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return emitter;
+    }
+
+    private Long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash <= 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // The events after next - 1, at most SEND_STEP of them; null once the first of them left the ring
+    private synchronized List<Entry> from(long next) {
+        if (next <= lastSequence - ring.length) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (long sequence = next; sequence <= lastSequence && entries.size() < SEND_STEP; sequence++) {
+            entries.add(ring[(int) (sequence % ring.length)]);
+        }
+        return entries;
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    // {"sequence":1,"type":"ADDED","timestamp":...,"swiftCodes":[{...}]}, no codes for IMPORTED
+    private String toJson(long sequence, SwiftCodeChangeEvent event) {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeNumberField("sequence", sequence);
+            generator.writeStringField("type", event.getType().name());
+            generator.writeNumberField("timestamp", System.currentTimeMillis());
+            generator.writeArrayFieldStart("swiftCodes");
+            for (SwiftCode code : event.getSwiftCodes()) {
+                generator.writeStartObject();
+                generator.writeStringField("swiftCode", code.getSwiftCode());
+                generator.writeStringField("bankName", code.getBankName());
+                generator.writeStringField("address", code.getAddress());
+                generator.writeStringField("countryISO2", code.getCountryISO2());
+                generator.writeStringField("countryName", code.getCountryName());
+                generator.writeBooleanField("isHeadquarter", code.isHeadquarter());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
+    }
+
+    private static final class Entry {
+
+        private final long sequence;
+        private final String json;
+
+        private Entry(long sequence, String json) {
+            this.sequence = sequence;
+            this.json = json;
+        }
+    }
+
+    // One open connection and the sequence of the next event it is owed
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Guarded by this, which also keeps sends to one emitter from interleaving
+        private long next;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, long next) {
+            this.emitter = emitter;
+            this.next = next;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        private synchronized void sendFirst(boolean reset, long last) {
+            try {
+                if (reset) {
+                    resets.increment();
+                    emitter.send(SseEmitter.event().id(eventId(last)).name("reset")
+                            .data("{\"sequence\":" + last + "}", MediaType.APPLICATION_JSON));
+                } else {
+                    emitter.send(SseEmitter.event().id(eventId(next - 1)).name("ready")
+                            .data("{\"sequence\":" + (next - 1) + "}", MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private synchronized void send() {
+            // Cleared first: an event appended from here on schedules another turn
+            scheduled.set(false);
+            if (closed) {
+                return;
+            }
+            try {
+                List<Entry> entries = from(next);
+                if (entries == null) {
+                    // Fell behind the ring: start over from the latest event
+                    long last = lastSequence();
+                    resets.increment();
+                    emitter.send(SseEmitter.event().id(eventId(last)).name("reset")
+                            .data("{\"sequence\":" + last + "}", MediaType.APPLICATION_JSON));
+                    next = last + 1;
+                    schedule();
+                    return;
+                }
+                for (Entry entry : entries) {
+                    emitter.send(SseEmitter.event().id(eventId(entry.sequence)).name("change")
+                            .data(entry.json, MediaType.APPLICATION_JSON));
+                    next = entry.sequence + 1;
+                }
+                if (entries.size() == SEND_STEP) {
+                    schedule();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private synchronized void heartbeat() {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Change feed connection already gone", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.swiftcodes.swift_api.event;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps the in-memory state of several instances sharing one database in step, without a broker.
+// Every change event is also written to swift_change_log, in the transaction that made the change, and
+// each instance tails the table every poll-interval and republishes the rows other instances wrote as
+// remote change events. The read model, filters, ETags and response cache then patch themselves exactly
+// as for a local write.
+// Rows are read in id order. The ids come from swift_change_log_sequence, whose row lock the writing
+// transaction holds until it commits: ids are handed out in commit order, and a rolled back write gives
+// its ids back. The log has no holes and no row can commit behind one already read, so a missing id
+// means the row was pruned before this instance read it (its polls failed for longer than retention):
+// the instance then rebuilds everything from swift_codes, as after an import.
+// The tables are mapped as ChangeLogEntry and ChangeLogSequence and created with the rest of the schema.
+@Component
+@DependsOn("entityManagerFactory")
+public class SwiftCodeChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeChangeLog.class);
+
+    // Locks the sequence row until the writing transaction ends
+    private static final String RESERVE_IDS =
+            "UPDATE swift_change_log_sequence SET last_id = last_id + :count WHERE id = 1";
+
+    private static final String SELECT_RESERVED = "SELECT last_id FROM swift_change_log_sequence WHERE id = 1";
+
+    private static final String COUNT_SEQUENCE = "SELECT COUNT(*) FROM swift_change_log_sequence WHERE id = 1";
+
+    private static final String CREATE_SEQUENCE =
+            "INSERT INTO swift_change_log_sequence (id, last_id) SELECT 1, COALESCE(MAX(id), 0) FROM swift_change_log";
+
+    private static final String INSERT =
+            "INSERT INTO swift_change_log (id, instance_id, change_type, logged_at, swift_code, bank_name, address, "
+                    + "town_name, is_headquarter, country_iso2, country_name) VALUES (:id, :instanceId, :type, :loggedAt, "
+                    + ":swiftCode, :bankName, :address, :townName, :headquarter, :countryISO2, :countryName)";
+
+    private static final String SELECT_AFTER =
+            "SELECT id, instance_id, change_type, logged_at, swift_code, bank_name, address, town_name, "
+                    + "is_headquarter, country_iso2, country_name FROM swift_change_log WHERE id > :after ORDER BY id LIMIT :limit";
+
+    private static final String DELETE_BEFORE = "DELETE FROM swift_change_log WHERE logged_at < :before";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> {
+        SwiftCode code = null;
+        if (rs.getString("swift_code") != null) {
+            code = new SwiftCode(rs.getString("swift_code"), rs.getString("bank_name"), rs.getString("address"),
+                    rs.getBoolean("is_headquarter"), rs.getString("country_iso2"), rs.getString("country_name"));
+            code.setTownName(rs.getString("town_name"));
+        }
+        return new Row(rs.getLong("id"), rs.getString("instance_id"),
+                SwiftCodeChangeEvent.Type.valueOf(rs.getString("change_type")), rs.getLong("logged_at"), code);
+    };
+
+    // Tells this instance's rows apart from the others'
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Joins the publisher's transaction, or starts one for the imports, which publish outside any
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final int batchSize;
+
+    private final ThreadPoolTaskScheduler scheduler;
+
+    // Only touched by the poll, which never runs concurrently with itself
+    private long lastId;
+
+    // Start of the last poll that left nothing behind: every change committed before it has been applied
+    private volatile long caughtUpAt = System.currentTimeMillis();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private Timer delay;
+
+    @Autowired
+    public SwiftCodeChangeLog(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${swift.change-log.enabled:true}") boolean enabled,
+                              @Value("${swift.change-log.poll-interval:500ms}") Duration pollInterval,
+                              @Value("${swift.change-log.retention:1h}") Duration retention,
+                              @Value("${swift.change-log.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.batchSize = Math.max(batchSize, 1);
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("swift-changelog-");
+        scheduler.initialize();
+    }
+
+    // swift.changelog.staleness bounds how far behind the other instances' writes this one may be,
+    // swift.changelog.delay is the time from a remote commit to its rows being applied here
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("swift.changelog.staleness", this,
+                        l -> (System.currentTimeMillis() - l.caughtUpAt) / 1000.0)
+                .baseUnit("seconds")
+                .description("Time since the change log was last read to the end").register(registry);
+        delay = Timer.builder("swift.changelog.delay")
+                .description("From another instance logging a change to this one applying it").register(registry);
+        FunctionCounter.builder("swift.changelog.applied", applied, LongAdder::sum)
+                .description("Change log rows from other instances applied here").register(registry);
+        FunctionCounter.builder("swift.changelog.resyncs", resyncs, LongAdder::sum)
+                .description("Rebuilds after change log rows were pruned before being read").register(registry);
+    }
+
+    // Changes logged before startup are already in the table the caches are built from
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        createSequence();
+        lastId = jdbcTemplate.queryForObject(SELECT_RESERVED, Map.of(), Long.class);
+        scheduler.scheduleWithFixedDelay(this::poll, pollInterval);
+        scheduler.scheduleWithFixedDelay(this::prune, Duration.ofMinutes(1));
+    }
+
+    // The first instance on an empty schema creates the row, continuing from any ids already logged
+    private void createSequence() {
+        if (jdbcTemplate.queryForObject(COUNT_SEQUENCE, Map.of(), Integer.class) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(CREATE_SEQUENCE, Map.of());
+        } catch (DuplicateKeyException e) {
+            // Another instance starting at the same time created it
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    // A plain listener runs inside the publisher's transaction: the rows commit or roll back with the change.
+    // The publishers make their own writes first, so the sequence row is the last lock they take.
+    @EventListener
+    public void onChange(SwiftCodeChangeEvent event) {
+        if (!enabled || event.isRemote()) {
+            return;
+        }
+        // IMPORTED carries no codes and is logged as one row without one
+        List<SwiftCode> codes = event.getSwiftCodes().isEmpty()
+                ? Collections.singletonList(null) : event.getSwiftCodes();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update(RESERVE_IDS, new MapSqlParameterSource("count", codes.size()));
+            long id = jdbcTemplate.queryForObject(SELECT_RESERVED, Map.of(), Long.class) - codes.size();
+            long now = System.currentTimeMillis();
+            SqlParameterSource[] batch = new SqlParameterSource[codes.size()];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = parameters(++id, event.getType(), now, codes.get(i));
+            }
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        });
+    }
+
+    private MapSqlParameterSource parameters(long id, SwiftCodeChangeEvent.Type type, long loggedAt, SwiftCode code) {
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("instanceId", instanceId)
+                .addValue("type", type.name())
+                .addValue("loggedAt", loggedAt)
+                .addValue("swiftCode", code != null ? code.getSwiftCode() : null)
+                .addValue("bankName", code != null ? code.getBankName() : null)
+                .addValue("address", code != null ? code.getAddress() : null)
+                .addValue("townName", code != null ? code.getTownName() : null)
+                .addValue("headquarter", code != null ? code.isHeadquarter() : null)
+                .addValue("countryISO2", code != null ? code.getCountryISO2() : null)
+                .addValue("countryName", code != null ? code.getCountryName() : null);
+    }
+
+    // Package-private so tests can poll an instance whose schedule is too slow to wait for
+    synchronized void poll() {
+        try {
+            long start = System.currentTimeMillis();
+            // Read before the rows: every id up to it has committed, and is in the table unless pruned
+            long logged = jdbcTemplate.queryForObject(SELECT_RESERVED, Map.of(), Long.class);
+            boolean more = logged > lastId;
+            while (more) {
+                more = readBatch(logged);
+            }
+            caughtUpAt = start;
+        } catch (RuntimeException e) {
+            // The staleness gauge keeps growing until the database answers again
+            log.warn("Could not read the change log", e);
+        }
+    }
+
+    // Applies the next rows after lastId, true when a full batch was read
+    private boolean readBatch(long logged) {
+        List<Row> rows = jdbcTemplate.query(SELECT_AFTER,
+                new MapSqlParameterSource("after", lastId).addValue("limit", batchSize), ROW_MAPPER);
+        if (rows.isEmpty() ? lastId < logged : rows.get(0).id != lastId + 1) {
+            long missingTo = rows.isEmpty() ? logged : rows.get(0).id - 1;
+            resync(missingTo);
+        }
+        List<Row> group = new ArrayList<>();
+        for (Row row : rows) {
+            lastId = row.id;
+            if (row.instanceId.equals(instanceId)) {
+                continue;
+            }
+            // Consecutive rows of one kind go out as one event, as the bulk write that logged them did
+            if (!group.isEmpty() && (group.get(0).type != row.type || !group.get(0).instanceId.equals(row.instanceId))) {
+                publish(group);
+            }
+            group.add(row);
+        }
+        publish(group);
+        return rows.size() == batchSize;
+    }
+
+    // The rows up to missingTo were pruned unread. Every instance-local cache rebuilds from swift_codes,
+    // which has all of them; the rows after are still applied, again if the rebuild saw them already.
+    private void resync(long missingTo) {
+        log.warn("Change log rows {} to {} were pruned before this instance read them, rebuilding from the database",
+                lastId + 1, missingTo);
+        eventPublisher.publishEvent(SwiftCodeChangeEvent.remote(SwiftCodeChangeEvent.Type.IMPORTED, List.of()));
+        resyncs.increment();
+        lastId = missingTo;
+    }
+
+    private void publish(List<Row> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        List<SwiftCode> codes = new ArrayList<>(group.size());
+        for (Row row : group) {
+            if (row.code != null) {
+                codes.add(row.code);
+            }
+        }
+        eventPublisher.publishEvent(SwiftCodeChangeEvent.remote(group.get(0).type, codes));
+        applied.add(group.size());
+        if (delay != null) {
+            long now = System.currentTimeMillis();
+            for (Row row : group) {
+                delay.record(Math.max(now - row.loggedAt, 0), TimeUnit.MILLISECONDS);
+            }
+        }
+        group.clear();
+    }
+
+    // Every instance prunes, the deletes are idempotent
+    private void prune() {
+        try {
+            jdbcTemplate.update(DELETE_BEFORE,
+                    new MapSqlParameterSource("before", System.currentTimeMillis() - retention.toMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Could not prune the change log", e);
+        }
+    }
+
+    private static final class Row {
+
+        private final long id;
+        private final String instanceId;
+        private final SwiftCodeChangeEvent.Type type;
+        private final long loggedAt;
+        // null for IMPORTED
+        private final SwiftCode code;
+
+        private Row(long id, String instanceId, SwiftCodeChangeEvent.Type type, long loggedAt, SwiftCode code) {
+            this.id = id;
+            this.instanceId = instanceId;
+            this.type = type;
+            this.loggedAt = loggedAt;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.util.RecordHashes;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Read model served straight from a memory-mapped snapshot file.
+// Nothing is loaded on open: lookups binary search the mapped records and only
+// materialise the SwiftCode rows they return, so a large directory is usable
+// as soon as the file is mapped.
+//
+// File layout, big-endian, all offsets absolute:
+//   header    64 bytes, see the HEADER_* / *_AT constants
+//   records   RECORD_SIZE bytes each, sorted by SWIFT code:
+//             code (11 bytes ASCII, zero padded), flags (1 byte, bit 0 = headquarter),
+//             bank name, address, town name, country name (int string ids, -1 = null),
+//             country ISO2 (2 bytes ASCII)
+//   by country  int record number per record, grouped by country, sorted by code within a country
+//   countries   COUNTRY_SIZE bytes each, sorted by ISO2: ISO2 (2 bytes), first position, count
+//   strings   int offset per string plus one end offset, then the UTF-8 string pool
+public final class MappedSwiftCodeSnapshot implements SwiftCodeReadModel {
+
+    static final int VERSION = 1;
+    static final int CODE_LENGTH = 11;
+
+    private static final byte[] MAGIC = "SWIFTSNP".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 30;
+    private static final int COUNTRY_SIZE = 10;
+    private static final int NO_STRING = -1;
+
+    private static final int VERSION_AT = 8;
+    private static final int RECORD_COUNT_AT = 12;
+    private static final int COUNTRY_COUNT_AT = 16;
+    private static final int STRING_COUNT_AT = 20;
+    private static final int CONTENT_HASH_AT = 24;
+    private static final int CREATED_AT = 32;
+    private static final int RECORDS_AT = 40;
+    private static final int BY_COUNTRY_AT = 44;
+    private static final int COUNTRIES_AT = 48;
+    private static final int STRING_OFFSETS_AT = 52;
+    private static final int STRING_DATA_AT = 56;
+    private static final int FILE_LENGTH_AT = 60;
+
+    // Offsets of the fields within a record
+    private static final int FLAGS = 11;
+    private static final int BANK_NAME = 12;
+    private static final int ADDRESS = 16;
+    private static final int TOWN_NAME = 20;
+    private static final int COUNTRY_NAME = 24;
+    private static final int ISO2 = 28;
+
+    private final MappedByteBuffer buffer;
+    private final int recordCount;
+    private final int countryCount;
+    private final long contentHash;
+    private final long createdAt;
+    private final int records;
+    private final int byCountry;
+    private final int countries;
+    private final int stringOffsets;
+    private final int stringData;
+
+    private MappedSwiftCodeSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IOException("Not a SWIFT code snapshot");
+            }
+        }
+        int version = buffer.getInt(VERSION_AT);
+        if (version != VERSION) {
+            throw new IOException("Unsupported SWIFT code snapshot version " + version);
+        }
+        this.recordCount = buffer.getInt(RECORD_COUNT_AT);
+        this.countryCount = buffer.getInt(COUNTRY_COUNT_AT);
+        int stringCount = buffer.getInt(STRING_COUNT_AT);
+        this.contentHash = buffer.getLong(CONTENT_HASH_AT);
+        this.createdAt = buffer.getLong(CREATED_AT);
+        this.records = buffer.getInt(RECORDS_AT);
+        this.byCountry = buffer.getInt(BY_COUNTRY_AT);
+        this.countries = buffer.getInt(COUNTRIES_AT);
+        this.stringOffsets = buffer.getInt(STRING_OFFSETS_AT);
+        this.stringData = buffer.getInt(STRING_DATA_AT);
+
+        // A truncated or partially written file must not be served
+        if (buffer.getInt(FILE_LENGTH_AT) != buffer.capacity()
+                || recordCount < 0 || countryCount < 0 || stringCount < 0
+                || stringData < 0 || stringData > buffer.capacity()
+                || records != HEADER_SIZE
+                || byCountry != records + recordCount * RECORD_SIZE
+                || countries != byCountry + recordCount * 4
+                || stringOffsets != countries + countryCount * COUNTRY_SIZE
+                || stringData != stringOffsets + (stringCount + 1) * 4
+                || stringData + buffer.getInt(stringOffsets + stringCount * 4) != buffer.capacity()) {
+            throw new IOException("Corrupt SWIFT code snapshot");
+        }
+    }
+
+    // Maps an existing snapshot file, only the header is read
+    public static MappedSwiftCodeSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a SWIFT code snapshot: " + file);
+            }
+            return new MappedSwiftCodeSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt SWIFT code snapshot: " + file, e);
+        }
+    }
+
+    // Writes the rows as a snapshot file. The file is built in a temporary file of its own next to
+    // the target and moved over it, so a mapped previous version stays valid, readers never see a
+    // partial file, and processes writing the same target never share a half-written one.
+    public static void write(Path file, Collection<SwiftCode> codes) throws IOException {
+        List<SwiftCode> sorted = new ArrayList<>(codes);
+        sorted.sort(Comparator.comparing(SwiftCode::getSwiftCode));
+
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        Map<String, List<Integer>> byCountry = new TreeMap<>();
+        int[][] stringRefs = new int[sorted.size()][];
+        long poolSize = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            SwiftCode code = sorted.get(i);
+            checkAscii(code.getSwiftCode(), CODE_LENGTH, false);
+            checkAscii(code.getCountryISO2(), 2, true);
+            String[] values = {code.getBankName(), code.getAddress(), code.getTownName(), code.getCountryName()};
+            int[] refs = new int[values.length];
+            for (int v = 0; v < values.length; v++) {
+                if (values[v] == null) {
+                    refs[v] = NO_STRING;
+                    continue;
+                }
+                Integer id = stringIds.get(values[v]);
+                if (id == null) {
+                    byte[] bytes = values[v].getBytes(StandardCharsets.UTF_8);
+                    id = strings.size();
+                    strings.add(bytes);
+                    stringIds.put(values[v], id);
+                    poolSize += bytes.length;
+                }
+                refs[v] = id;
+            }
+            stringRefs[i] = refs;
+            byCountry.computeIfAbsent(code.getCountryISO2(), k -> new ArrayList<>()).add(i);
+        }
+
+        int records = HEADER_SIZE;
+        long countryIndex = records + (long) sorted.size() * RECORD_SIZE;
+        long countries = countryIndex + (long) sorted.size() * 4;
+        long stringOffsets = countries + (long) byCountry.size() * COUNTRY_SIZE;
+        long stringData = stringOffsets + (strings.size() + 1L) * 4;
+        long size = stringData + poolSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Dataset too large for a SWIFT code snapshot: " + size + " bytes");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName() + ".", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            out.put(0, MAGIC);
+            out.putInt(VERSION_AT, VERSION);
+            out.putInt(RECORD_COUNT_AT, sorted.size());
+            out.putInt(COUNTRY_COUNT_AT, byCountry.size());
+            out.putInt(STRING_COUNT_AT, strings.size());
+            out.putLong(CONTENT_HASH_AT, contentHash(sorted));
+            out.putLong(CREATED_AT, System.currentTimeMillis());
+            out.putInt(RECORDS_AT, records);
+            out.putInt(BY_COUNTRY_AT, (int) countryIndex);
+            out.putInt(COUNTRIES_AT, (int) countries);
+            out.putInt(STRING_OFFSETS_AT, (int) stringOffsets);
+            out.putInt(STRING_DATA_AT, (int) stringData);
+            out.putInt(FILE_LENGTH_AT, (int) size);
+
+            for (int i = 0; i < sorted.size(); i++) {
+                SwiftCode code = sorted.get(i);
+                int at = records + i * RECORD_SIZE;
+                String swiftCode = code.getSwiftCode();
+                for (int c = 0; c < swiftCode.length(); c++) {
+                    out.put(at + c, (byte) swiftCode.charAt(c));
+                }
+                out.put(at + FLAGS, (byte) (code.isHeadquarter() ? 1 : 0));
+                out.putInt(at + BANK_NAME, stringRefs[i][0]);
+                out.putInt(at + ADDRESS, stringRefs[i][1]);
+                out.putInt(at + TOWN_NAME, stringRefs[i][2]);
+                out.putInt(at + COUNTRY_NAME, stringRefs[i][3]);
+                out.put(at + ISO2, (byte) code.getCountryISO2().charAt(0));
+                out.put(at + ISO2 + 1, (byte) code.getCountryISO2().charAt(1));
+            }
+
+            int position = 0;
+            int entry = (int) countries;
+            for (Map.Entry<String, List<Integer>> country : byCountry.entrySet()) {
+                out.put(entry, (byte) country.getKey().charAt(0));
+                out.put(entry + 1, (byte) country.getKey().charAt(1));
+                out.putInt(entry + 2, position);
+                out.putInt(entry + 6, country.getValue().size());
+                for (int record : country.getValue()) {
+                    out.putInt((int) countryIndex + position * 4, record);
+                    position++;
+                }
+                entry += COUNTRY_SIZE;
+            }
+
+            int offset = 0;
+            for (int s = 0; s < strings.size(); s++) {
+                byte[] bytes = strings.get(s);
+                out.putInt((int) stringOffsets + s * 4, offset);
+                out.put((int) stringData + offset, bytes);
+                offset += bytes.length;
+            }
+            out.putInt((int) stringOffsets + strings.size() * 4, offset);
+            out.force();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Order-independent hash of a whole dataset, compared against the database to validate a snapshot
+    public static long contentHash(Iterable<SwiftCode> codes) {
+        long hash = 0;
+        for (SwiftCode code : codes) {
+            hash += RecordHashes.hash(code);
+        }
+        return hash;
+    }
+
+    public long contentHash() {
+        return contentHash;
+    }
+
+    // Epoch millis at which the file was written
+    public long createdAt() {
+        return createdAt;
+    }
+
+    @Override
+    public SwiftCode findByCode(String swiftCode) {
+        int record = find(swiftCode);
+        return record < 0 ? null : read(record);
+    }
+
+    @Override
+    public List<SwiftCode> findByCountry(String countryISO2) {
+        return findByCountry(countryISO2, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<SwiftCode> findByCountry(String countryISO2, String after, int limit) {
+        int entry = countryEntry(countryISO2);
+        if (entry < 0) {
+            return Collections.emptyList();
+        }
+        int first = buffer.getInt(entry + 2);
+        int end = first + buffer.getInt(entry + 6);
+        if (after != null) {
+            // Positions within a country are in code order: skip to the first code greater than after
+            int low = first;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(buffer.getInt(byCountry + mid * 4), after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            first = low;
+        }
+        end = (int) Math.min(end, (long) first + limit);
+        List<SwiftCode> rows = new ArrayList<>(end - first);
+        for (int i = first; i < end; i++) {
+            rows.add(read(buffer.getInt(byCountry + i * 4)));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    // Records sharing the 8-char base code are adjacent in code order, so the branches are one contiguous run
+    @Override
+    public List<SwiftCode> findBranches(String baseCode, String excludeSwiftCode) {
+        if (baseCode == null || baseCode.length() != 8) {
+            return Collections.emptyList();
+        }
+        List<SwiftCode> branches = new ArrayList<>();
+        for (int record = lowerBound(baseCode); record < recordCount && hasPrefix(record, baseCode); record++) {
+            String code = codeAt(record);
+            if (!code.endsWith("XXX") && !code.equals(excludeSwiftCode)) {
+                branches.add(read(record));
+            }
+        }
+        return Collections.unmodifiableList(branches);
+    }
+
+    @Override
+    public int size() {
+        return recordCount;
+    }
+
+    // Offset of the country table entry, or -1
+    private int countryEntry(String countryISO2) {
+        if (countryISO2 == null || countryISO2.length() != 2) {
+            return -1;
+        }
+        int low = 0;
+        int high = countryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = countries + mid * COUNTRY_SIZE;
+            int cmp = Character.compare((char) (buffer.get(entry) & 0xFF), countryISO2.charAt(0));
+            if (cmp == 0) {
+                cmp = Character.compare((char) (buffer.get(entry + 1) & 0xFF), countryISO2.charAt(1));
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    // Record number of the code, or -1
+    private int find(String swiftCode) {
+        if (swiftCode == null || swiftCode.length() > CODE_LENGTH) {
+            return -1;
+        }
+        int record = lowerBound(swiftCode);
+        return record < recordCount && compare(record, swiftCode) == 0 ? record : -1;
+    }
+
+    // First record whose code is >= key
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = recordCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Compares the zero padded code of a record with key, as String.compareTo would
+    private int compare(int record, String key) {
+        int at = records + record * RECORD_SIZE;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char stored = (char) (buffer.get(at + i) & 0xFF);
+            char wanted = i < key.length() ? key.charAt(i) : 0;
+            if (stored != wanted) {
+                return stored - wanted;
+            }
+        }
+        return key.length() > CODE_LENGTH ? -1 : 0;
+    }
+
+    private boolean hasPrefix(int record, String prefix) {
+        int at = records + record * RECORD_SIZE;
+        for (int i = 0; i < prefix.length(); i++) {
+            if ((buffer.get(at + i) & 0xFF) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String codeAt(int record) {
+        int at = records + record * RECORD_SIZE;
+        int length = 0;
+        while (length < CODE_LENGTH && buffer.get(at + length) != 0) {
+            length++;
+        }
+        byte[] code = new byte[length];
+        buffer.get(at, code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    private SwiftCode read(int record) {
+        int at = records + record * RECORD_SIZE;
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(codeAt(record));
+        code.setHeadquarter((buffer.get(at + FLAGS) & 1) != 0);
+        code.setBankName(string(buffer.getInt(at + BANK_NAME)));
+        code.setAddress(string(buffer.getInt(at + ADDRESS)));
+        code.setTownName(string(buffer.getInt(at + TOWN_NAME)));
+        code.setCountryName(string(buffer.getInt(at + COUNTRY_NAME)));
+        byte[] iso2 = new byte[2];
+        buffer.get(at + ISO2, iso2);
+        code.setCountryISO2(new String(iso2, StandardCharsets.US_ASCII));
+        return code;
+    }
+
+    private String string(int id) {
+        if (id == NO_STRING) {
+            return null;
+        }
+        int from = buffer.getInt(stringOffsets + id * 4);
+        int to = buffer.getInt(stringOffsets + (id + 1) * 4);
+        byte[] bytes = new byte[to - from];
+        buffer.get(stringData + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void checkAscii(String value, int maxLength, boolean exact) throws IOException {
+        if (value == null || value.length() > maxLength || (exact && value.length() != maxLength)) {
+            throw new IOException("Value cannot be stored in a SWIFT code snapshot: " + value);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == 0 || value.charAt(i) > 0x7F) {
+                throw new IOException("Value cannot be stored in a SWIFT code snapshot: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// A mapped snapshot file plus the changes made since it was mapped, served while SwiftCodeIndex
+// loads the table into the heap. A changed code is answered from the changes only: its row in the
+// file is hidden, and the changes hold it again unless it was deleted. Meant for a handful of
+// changes, lookups touching a changed country or bank merge the two sides.
+final class PatchedSwiftCodeReadModel implements SwiftCodeReadModel {
+
+    private static final Comparator<SwiftCode> BY_CODE = Comparator.comparing(SwiftCode::getSwiftCode);
+
+    private final MappedSwiftCodeSnapshot file;
+    // Current rows of the changed codes that exist
+    private final SwiftCodeSnapshot changes;
+    // Every code added or deleted since the file was mapped
+    private final Set<String> changed;
+    private final int size;
+
+    private PatchedSwiftCodeReadModel(MappedSwiftCodeSnapshot file, SwiftCodeSnapshot changes, Set<String> changed) {
+        this.file = file;
+        this.changes = changes;
+        this.changed = changed;
+        int hidden = 0;
+        for (String swiftCode : changed) {
+            if (file.findByCode(swiftCode) != null) {
+                hidden++;
+            }
+        }
+        this.size = file.size() - hidden + changes.size();
+    }
+
+    static PatchedSwiftCodeReadModel of(MappedSwiftCodeSnapshot file) {
+        return new PatchedSwiftCodeReadModel(file, SwiftCodeSnapshot.empty(), Set.of());
+    }
+
+    PatchedSwiftCodeReadModel withAll(Collection<SwiftCode> codes) {
+        return new PatchedSwiftCodeReadModel(file, changes.withAll(codes), changedWith(codes));
+    }
+
+    PatchedSwiftCodeReadModel withoutAll(Collection<SwiftCode> codes) {
+        return new PatchedSwiftCodeReadModel(file, changes.withoutAll(codes), changedWith(codes));
+    }
+
+    MappedSwiftCodeSnapshot file() {
+        return file;
+    }
+
+    @Override
+    public SwiftCode findByCode(String swiftCode) {
+        return changed.contains(swiftCode) ? changes.findByCode(swiftCode) : file.findByCode(swiftCode);
+    }
+
+    @Override
+    public List<SwiftCode> findByCountry(String countryISO2) {
+        return findByCountry(countryISO2, null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<SwiftCode> findByCountry(String countryISO2, String after, int limit) {
+        // At most changed.size() rows of the file are hidden, reading that many more still fills the page
+        int fileLimit = (int) Math.min(Integer.MAX_VALUE, (long) limit + changed.size());
+        List<SwiftCode> rows = merge(file.findByCountry(countryISO2, after, fileLimit),
+                changes.findByCountry(countryISO2, after, limit));
+        return rows.size() > limit ? Collections.unmodifiableList(rows.subList(0, limit)) : rows;
+    }
+
+    @Override
+    public List<SwiftCode> findBranches(String baseCode, String excludeSwiftCode) {
+        return merge(file.findBranches(baseCode, excludeSwiftCode), changes.findBranches(baseCode, excludeSwiftCode));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private Set<String> changedWith(Collection<SwiftCode> codes) {
+        Set<String> all = new HashSet<>(changed);
+        codes.forEach(code -> all.add(code.getSwiftCode()));
+        return all;
+    }
+
+    // Rows of the file that were not changed plus the changed rows, in code order
+    private List<SwiftCode> merge(List<SwiftCode> fromFile, List<SwiftCode> fromChanges) {
+        if (fromChanges.isEmpty() && changed.isEmpty()) {
+            return fromFile;
+        }
+        List<SwiftCode> rows = new ArrayList<>(fromFile.size() + fromChanges.size());
+        for (SwiftCode row : fromFile) {
+            if (!changed.contains(row.getSwiftCode())) {
+                rows.add(row);
+            }
+        }
+        rows.addAll(fromChanges);
+        rows.sort(BY_CODE);
+        return Collections.unmodifiableList(rows);
+    }
+}
@@ -0,0 +1,506 @@
+package com.swiftcodes.swift_api.index;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository.GroupCount;
+import com.swiftcodes.swift_api.util.CountRanking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Counts over the SWIFT codes, served by SwiftCodeStats: codes and headquarters per country, codes per
+// town, and branches per headquarter (codes sharing a base code). Adding or removing a code touches a
+// fixed number of counters, and reading them never looks at individual codes, so both take the same
+// time at any dataset size. Each bank remembers which of its codes it counted, so adding a code twice or
+// removing one that was never added changes nothing. All methods lock the instance.
+public class SwiftCodeAggregates {
+
+    // Mismatches listed by compare, beyond that they are only counted
+    private static final int MAX_MISMATCHES = 100;
+
+    private final Map<String, Country> countries = new TreeMap<>();
+    private final CountRanking<Town> towns = new CountRanking<>();
+    private long codes;
+    private long headquarters;
+
+    public static SwiftCodeAggregates of(Iterable<SwiftCode> swiftCodes) {
+        SwiftCodeAggregates aggregates = new SwiftCodeAggregates();
+        for (SwiftCode swiftCode : swiftCodes) {
+            aggregates.add(swiftCode);
+        }
+        return aggregates;
+    }
+
+    // Counts the code, unless it is counted already
+    public synchronized void add(SwiftCode swiftCode) {
+        String baseCode = baseCode(swiftCode.getSwiftCode());
+        Country country = countries.computeIfAbsent(swiftCode.getCountryISO2(), key -> new Country());
+        Bank bank = country.banks.computeIfAbsent(baseCode, key -> new Bank());
+        if (bank.addMember(memberKey(swiftCode.getSwiftCode()))) {
+            update(country, bank, swiftCode, 1);
+        } else if (bank.size == 0) {
+            country.banks.remove(baseCode);
+        }
+        if (country.codes == 0) {
+            countries.remove(swiftCode.getCountryISO2());
+        }
+    }
+
+    // Takes the code (the row as it was counted) back out, unless it is not counted
+    public synchronized void remove(SwiftCode swiftCode) {
+        Country country = countries.get(swiftCode.getCountryISO2());
+        Bank bank = country != null ? country.banks.get(baseCode(swiftCode.getSwiftCode())) : null;
+        if (bank == null || !bank.removeMember(memberKey(swiftCode.getSwiftCode()))) {
+            return;
+        }
+        update(country, bank, swiftCode, -1);
+        if (bank.size == 0) {
+            country.banks.remove(baseCode(swiftCode.getSwiftCode()));
+        }
+        if (country.codes == 0) {
+            countries.remove(swiftCode.getCountryISO2());
+        }
+    }
+
+    // Codes counted
+    public synchronized long size() {
+        return codes;
+    }
+
+    // Dataset totals, a line per country, and the towns with the most codes
+    public synchronized Summary summary(int topTowns) {
+        List<CountryStats> perCountry = new ArrayList<>(countries.size());
+        countries.forEach((countryISO2, country) -> perCountry.add(country.stats(countryISO2, 0, false)));
+        return new Summary(codes, headquarters, perCountry, topTowns(towns, topTowns));
+    }
+
+    // Everything kept for the country, null when it has no codes
+    public synchronized CountryStats country(String countryISO2, int topTowns) {
+        Country country = countries.get(countryISO2);
+        return country != null ? country.stats(countryISO2, topTowns, true) : null;
+    }
+
+    // Differences with the same counts made by the database (GROUP BY country and town, and country
+    // and base code), the first MAX_MISMATCHES of them listed
+    public synchronized Comparison compare(List<GroupCount> byTown, List<GroupCount> byBank) {
+        Comparison comparison = new Comparison();
+        Map<String, long[]> expectedTotals = new HashMap<>();
+        Map<String, Map<String, Integer>> expectedTowns = new HashMap<>();
+        for (GroupCount row : byTown) {
+            long[] totals = expectedTotals.computeIfAbsent(row.getCountryISO2(), key -> new long[2]);
+            totals[0] += row.getCodes();
+            totals[1] += row.getHeadquarters();
+            if (row.getGroup() != null && !row.getGroup().isBlank()) {
+                expectedTowns.computeIfAbsent(row.getCountryISO2(), key -> new HashMap<>())
+                        .merge(row.getGroup(), row.getCodes(), Integer::sum);
+            }
+        }
+        Map<String, Map<String, int[]>> expectedBanks = new HashMap<>();
+        for (GroupCount row : byBank) {
+            expectedBanks.computeIfAbsent(row.getCountryISO2(), key -> new HashMap<>())
+                    .put(row.getGroup(), new int[]{row.getHeadquarters(), row.getCodes() - row.getHeadquarters()});
+        }
+
+        long expectedCodes = 0;
+        long expectedHeadquarters = 0;
+        for (long[] totals : expectedTotals.values()) {
+            expectedCodes += totals[0];
+            expectedHeadquarters += totals[1];
+        }
+        comparison.check(null, "codes", expectedCodes, codes);
+        comparison.check(null, "headquarters", expectedHeadquarters, headquarters);
+
+        Set<String> countryCodes = new HashSet<>(expectedTotals.keySet());
+        countryCodes.addAll(countries.keySet());
+        for (String countryISO2 : sorted(countryCodes)) {
+            Country country = countries.getOrDefault(countryISO2, new Country());
+            long[] totals = expectedTotals.getOrDefault(countryISO2, new long[2]);
+            comparison.check(countryISO2, "codes", totals[0], country.codes);
+            comparison.check(countryISO2, "headquarters", totals[1], country.headquarters);
+
+            Map<String, Integer> townCounts = country.towns.toMap();
+            Map<String, Integer> expectedTownCounts = expectedTowns.getOrDefault(countryISO2, Collections.emptyMap());
+            Set<String> townNames = new HashSet<>(expectedTownCounts.keySet());
+            townNames.addAll(townCounts.keySet());
+            for (String town : sorted(townNames)) {
+                comparison.check(countryISO2, "town " + town,
+                        expectedTownCounts.getOrDefault(town, 0), townCounts.getOrDefault(town, 0));
+            }
+
+            Map<String, int[]> expectedBankCounts = expectedBanks.getOrDefault(countryISO2, Collections.emptyMap());
+            Set<String> baseCodes = new HashSet<>(expectedBankCounts.keySet());
+            baseCodes.addAll(country.banks.keySet());
+            Map<Integer, Integer> histogram = new HashMap<>();
+            for (String baseCode : sorted(baseCodes)) {
+                int[] expected = expectedBankCounts.getOrDefault(baseCode, new int[2]);
+                Bank bank = country.banks.getOrDefault(baseCode, new Bank());
+                comparison.check(countryISO2, "bank " + baseCode + " headquarters", expected[0], bank.headquarters);
+                comparison.check(countryISO2, "bank " + baseCode + " branches", expected[1], bank.branches);
+                if (bank.headquarters > 0) {
+                    histogram.merge(bank.branches, 1, Integer::sum);
+                }
+            }
+            // The branch distribution is kept apart from the banks, so it is checked against them too
+            Set<Integer> branchCounts = new HashSet<>(histogram.keySet());
+            branchCounts.addAll(country.branchHistogram.keySet());
+            for (Integer branches : sorted(branchCounts)) {
+                comparison.check(countryISO2, "headquarters with " + branches + " branches",
+                        histogram.getOrDefault(branches, 0), country.branchHistogram.getOrDefault(branches, 0));
+            }
+        }
+        return comparison;
+    }
+
+    private void update(Country country, Bank bank, SwiftCode swiftCode, int delta) {
+        String countryISO2 = swiftCode.getCountryISO2();
+        if (swiftCode.getCountryName() != null) {
+            country.countryName = swiftCode.getCountryName();
+        }
+        boolean headquarter = swiftCode.isHeadquarter();
+        codes += delta;
+        country.codes += delta;
+        if (headquarter) {
+            headquarters += delta;
+            country.headquarters += delta;
+        }
+
+        String town = swiftCode.getTownName();
+        if (town != null && !town.isBlank()) {
+            if (delta > 0) {
+                country.towns.increment(town);
+                towns.increment(new Town(town, countryISO2));
+            } else {
+                country.towns.decrement(town);
+                towns.decrement(new Town(town, countryISO2));
+            }
+        }
+
+        // The bank's place in the branch distribution is taken back, updated, and put back
+        country.countBank(bank, -1);
+        if (headquarter) {
+            bank.headquarters += delta;
+        } else {
+            bank.branches += delta;
+        }
+        country.countBank(bank, 1);
+    }
+
+    private static String baseCode(String swiftCode) {
+        return swiftCode.substring(0, Math.min(8, swiftCode.length()));
+    }
+
+    // The characters after the base code (the branch code, "XXX" for a headquarter) packed in a long,
+    // or for longer non-standard codes a hash of them, flagged by the top bit
+    private static long memberKey(String swiftCode) {
+        String suffix = swiftCode.substring(Math.min(8, swiftCode.length()));
+        if (suffix.length() > 3) {
+            return Long.MIN_VALUE | suffix.hashCode() & 0xFFFFFFFFL;
+        }
+        long key = suffix.length();
+        for (int i = 0; i < suffix.length(); i++) {
+            key = key << 16 | suffix.charAt(i);
+        }
+        return key;
+    }
+
+    private static List<TownCount> topTowns(CountRanking<Town> ranking, int n) {
+        List<TownCount> top = new ArrayList<>();
+        ranking.top(n).forEach(entry -> top.add(new TownCount(entry.getKey().name, entry.getKey().countryISO2, entry.getValue())));
+        return top;
+    }
+
+    private static <T extends Comparable<T>> List<T> sorted(Set<T> values) {
+        List<T> list = new ArrayList<>(values);
+        Collections.sort(list);
+        return list;
+    }
+
+    private static final class Country {
+
+        private String countryName;
+        private long codes;
+        private long headquarters;
+        private final CountRanking<String> towns = new CountRanking<>();
+        // By base code
+        private final Map<String, Bank> banks = new HashMap<>();
+        // Banks with a headquarter, by their number of branches
+        private final Map<Integer, Integer> branchHistogram = new HashMap<>();
+        private long banksWithHeadquarter;
+        private long branchesOfHeadquarters;
+
+        // Adds (sign 1) or takes back (sign -1) the bank's share of the distribution
+        private void countBank(Bank bank, int sign) {
+            if (bank.headquarters <= 0) {
+                return;
+            }
+            banksWithHeadquarter += sign;
+            branchesOfHeadquarters += (long) sign * bank.branches;
+            if (branchHistogram.merge(bank.branches, sign, Integer::sum) == 0) {
+                branchHistogram.remove(bank.branches);
+            }
+        }
+
+        private CountryStats stats(String countryISO2, int topTowns, boolean details) {
+            List<TownCount> top = new ArrayList<>();
+            if (details) {
+                towns.top(topTowns).forEach(entry -> top.add(new TownCount(entry.getKey(), countryISO2, entry.getValue())));
+            }
+            return new CountryStats(countryISO2, countryName, codes, headquarters,
+                    details ? banksWithHeadquarter : null,
+                    details ? codes - headquarters - branchesOfHeadquarters : null,
+                    details ? new TreeMap<>(branchHistogram) : null,
+                    details ? top : null);
+        }
+    }
+
+    private static final class Bank {
+
+        private int headquarters;
+        private int branches;
+        // memberKey of its codes, ascending. Banks have a handful of codes, a few thousand at most.
+        private long[] members = new long[1];
+        private int size;
+
+        private boolean addMember(long key) {
+            int i = Arrays.binarySearch(members, 0, size, key);
+            if (i >= 0) {
+                return false;
+            }
+            i = -i - 1;
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+            }
+            System.arraycopy(members, i, members, i + 1, size - i);
+            members[i] = key;
+            size++;
+            return true;
+        }
+
+        private boolean removeMember(long key) {
+            int i = Arrays.binarySearch(members, 0, size, key);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(members, i + 1, members, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private static final class Town {
+
+        private final String name;
+        private final String countryISO2;
+
+        private Town(String name, String countryISO2) {
+            this.name = name;
+            this.countryISO2 = countryISO2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Town other && name.equals(other.name) && Objects.equals(countryISO2, other.countryISO2);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + Objects.hashCode(countryISO2);
+        }
+    }
+
+    public static final class Summary {
+
+        private final long codes;
+        private final long headquarters;
+        private final List<CountryStats> countries;
+        private final List<TownCount> topTowns;
+
+        private Summary(long codes, long headquarters, List<CountryStats> countries, List<TownCount> topTowns) {
+            this.codes = codes;
+            this.headquarters = headquarters;
+            this.countries = countries;
+            this.topTowns = topTowns;
+        }
+
+        public long getCodes() {
+            return codes;
+        }
+
+        public long getHeadquarters() {
+            return headquarters;
+        }
+
+        public List<CountryStats> getCountries() {
+            return countries;
+        }
+
+        public List<TownCount> getTopTowns() {
+            return topTowns;
+        }
+    }
+
+    // Counts of one country, serialised as is by GET /stats. The branch figures and top towns are only
+    // filled in by country().
+    public static final class CountryStats {
+
+        private final String countryISO2;
+        private final String countryName;
+        private final long codes;
+        private final long headquarters;
+        private final Long banksWithHeadquarter;
+        private final Long branchesWithoutHeadquarter;
+        private final SortedMap<Integer, Integer> branchesPerHeadquarter;
+        private final List<TownCount> topTowns;
+
+        private CountryStats(String countryISO2, String countryName, long codes, long headquarters,
+                             Long banksWithHeadquarter, Long branchesWithoutHeadquarter,
+                             SortedMap<Integer, Integer> branchesPerHeadquarter, List<TownCount> topTowns) {
+            this.countryISO2 = countryISO2;
+            this.countryName = countryName;
+            this.codes = codes;
+            this.headquarters = headquarters;
+            this.banksWithHeadquarter = banksWithHeadquarter;
+            this.branchesWithoutHeadquarter = branchesWithoutHeadquarter;
+            this.branchesPerHeadquarter = branchesPerHeadquarter;
+            this.topTowns = topTowns;
+        }
+
+        public String getCountryISO2() {
+            return countryISO2;
+        }
+
+        public String getCountryName() {
+            return countryName;
+        }
+
+        public long getCodes() {
+            return codes;
+        }
+
+        public long getHeadquarters() {
+            return headquarters;
+        }
+
+        public long getBranches() {
+            return codes - headquarters;
+        }
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Long getBanksWithHeadquarter() {
+            return banksWithHeadquarter;
+        }
+
+        // Branches whose base code has no headquarter in the dataset
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Long getBranchesWithoutHeadquarter() {
+            return branchesWithoutHeadquarter;
+        }
+
+        // Number of headquarters by how many branches they have
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public SortedMap<Integer, Integer> getBranchesPerHeadquarter() {
+            return branchesPerHeadquarter;
+        }
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public List<TownCount> getTopTowns() {
+            return topTowns;
+        }
+    }
+
+    public static final class TownCount {
+
+        private final String town;
+        private final String countryISO2;
+        private final int codes;
+
+        private TownCount(String town, String countryISO2, int codes) {
+            this.town = town;
+            this.countryISO2 = countryISO2;
+            this.codes = codes;
+        }
+
+        public String getTown() {
+            return town;
+        }
+
+        public String getCountryISO2() {
+            return countryISO2;
+        }
+
+        public int getCodes() {
+            return codes;
+        }
+    }
+
+    // Outcome of compare: every count that differs, as (country or null for the totals, what, database, memory)
+    public static final class Comparison {
+
+        private final List<Mismatch> mismatches = new ArrayList<>();
+        private int mismatchCount;
+
+        private void check(String countryISO2, String item, long database, long memory) {
+            if (database == memory) {
+                return;
+            }
+            mismatchCount++;
+            if (mismatches.size() < MAX_MISMATCHES) {
+                mismatches.add(new Mismatch(countryISO2, item, database, memory));
+            }
+        }
+
+        public boolean isConsistent() {
+            return mismatchCount == 0;
+        }
+
+        public int getMismatchCount() {
+            return mismatchCount;
+        }
+
+        public List<Mismatch> getMismatches() {
+            return mismatches;
+        }
+    }
+
+    public static final class Mismatch {
+
+        private final String countryISO2;
+        private final String item;
+        private final long database;
+        private final long memory;
+
+        private Mismatch(String countryISO2, String item, long database, long memory) {
+            this.countryISO2 = countryISO2;
+            this.item = item;
+            this.database = database;
+            this.memory = memory;
+        }
+
+        // null for the dataset totals
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public String getCountryISO2() {
+            return countryISO2;
+        }
+
+        public String getItem() {
+            return item;
+        }
+
+        public long getDatabase() {
+            return database;
+        }
+
+        public long getMemory() {
+            return memory;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.swiftcodes.swift_api.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository;
+import com.swiftcodes.swift_api.util.BloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// Answers "certainly not a SWIFT code we have" without a query, for the lookups SwiftCodeService
+// sends to the database: a Bloom filter over every code in the table, plus a small TTL cache of
+// recent misses that got through it (typos and stale codes tend to be retried).
+// Until the first build, and from an import until the filter is rebuilt (SwiftCodeViewRebuilder),
+// every lookup goes to the database.
+@Component
+public class SwiftCodeFilter implements SwiftCodeViewRebuilder.View {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeFilter.class);
+
+    private final SwiftCodeBulkRepository bulkRepository;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final double headroom;
+
+    private final Cache<String, Boolean> misses;
+
+    // Written under this; codes put into it are visible to lookups without the lock (BloomFilter is atomic)
+    private volatile BloomFilter filter;
+
+    // Guarded by this
+    private long entries;
+    private long deleted;
+    private long changes;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @Autowired
+    public SwiftCodeFilter(SwiftCodeBulkRepository bulkRepository,
+                           @Value("${swift.bloom-filter.enabled:true}") boolean enabled,
+                           @Value("${swift.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${swift.bloom-filter.headroom:0.25}") double headroom,
+                           @Value("${swift.negative-cache.max-size:100000}") long negativeCacheSize,
+                           @Value("${swift.negative-cache.ttl:5m}") Duration negativeCacheTtl) {
+        this.bulkRepository = bulkRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.headroom = headroom;
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(negativeCacheSize)
+                .expireAfterWrite(negativeCacheTtl)
+                .recordStats()
+                .build();
+    }
+
+    // Lookups rejected and let through by the filter, misses among the latter (its false positives),
+    // its size and expected false-positive rate, and the negative cache as swift.negative-lookups
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("swift.bloom.rejected", rejected, LongAdder::sum)
+                .description("Lookups answered as not found by the Bloom filter").register(registry);
+        FunctionCounter.builder("swift.bloom.passed", passed, LongAdder::sum)
+                .description("Lookups the Bloom filter let through to the database").register(registry);
+        FunctionCounter.builder("swift.bloom.false-positives", falsePositives, LongAdder::sum)
+                .description("Lookups let through by the Bloom filter that found nothing").register(registry);
+        Gauge.builder("swift.bloom.bytes", this, f -> f.filter != null ? f.filter.sizeInBytes() : 0)
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("swift.bloom.expected-false-positive-rate", this,
+                        f -> f.filter != null ? f.filter.expectedFalsePositiveRate() : 0)
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, misses, "swift.negative-lookups");
+    }
+
+    // Changes whenever a code may have appeared, pass it back to recordMiss
+    public synchronized long version() {
+        return changes;
+    }
+
+    // True when the code is certainly not in the table
+    public boolean isKnownAbsent(String swiftCode) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return false;
+        }
+        if (!current.mightContain(swiftCode)) {
+            rejected.increment();
+            return true;
+        }
+        if (misses.getIfPresent(swiftCode) != null) {
+            return true;
+        }
+        passed.increment();
+        return false;
+    }
+
+    // Remembers a code the database did not have, unless codes were added since version was read
+    public synchronized void recordMiss(String swiftCode, long version) {
+        if (filter == null) {
+            return;
+        }
+        falsePositives.increment();
+        if (version == changes) {
+            misses.put(swiftCode, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public boolean isBuilt() {
+        return filter != null;
+    }
+
+    // Sized from a count of the table, with headroom for the codes added until the next rebuild
+    @Override
+    public SwiftCodeViewRebuilder.Build startBuild() {
+        if (!enabled) {
+            return null;
+        }
+        long count = bulkRepository.count();
+        BloomFilter rebuilt = new BloomFilter((long) Math.ceil(count * (1 + headroom)) + 1, falsePositiveRate);
+        return new SwiftCodeViewRebuilder.Build() {
+
+            private long added;
+
+            @Override
+            public void add(SwiftCode row) {
+                rebuilt.put(row.getSwiftCode());
+            }
+
+            // A deleted code stays in the filter as a false positive
+            @Override
+            public void replay(SwiftCodeChangeEvent change) {
+                if (change.getType() == SwiftCodeChangeEvent.Type.ADDED) {
+                    change.getSwiftCodes().forEach(code -> rebuilt.put(code.getSwiftCode()));
+                    added += change.getSwiftCodes().size();
+                }
+            }
+
+            @Override
+            public void install() {
+                synchronized (SwiftCodeFilter.this) {
+                    entries = count + added;
+                    deleted = 0;
+                    filter = rebuilt;
+                }
+                log.info("Bloom filter over {} SWIFT codes: {} KB, {} expected false positives",
+                        count, rebuilt.sizeInBytes() / 1024, String.format("%.4f", rebuilt.expectedFalsePositiveRate()));
+            }
+        };
+    }
+
+    // Wants a rebuild after an import, once over capacity, or once a tenth of it is deleted codes
+    @Override
+    public synchronized boolean apply(SwiftCodeChangeEvent event) {
+        switch (event.getType()) {
+            case ADDED -> {
+                changes++;
+                for (SwiftCode swiftCode : event.getSwiftCodes()) {
+                    String code = swiftCode.getSwiftCode();
+                    misses.invalidate(code);
+                    if (filter != null) {
+                        filter.put(code);
+                        entries++;
+                    }
+                }
+            }
+            // Bits cannot be cleared, the codes just become false positives
+            case DELETED -> deleted += event.getSwiftCodes().size();
+            case IMPORTED -> {
+                // Codes of the import are not in the filter yet, stop using it until rebuilt
+                changes++;
+                filter = null;
+                misses.invalidateAll();
+            }
+        }
+        if (!enabled) {
+            return false;
+        }
+        return filter == null
+                ? event.getType() == SwiftCodeChangeEvent.Type.IMPORTED
+                : entries > filter.capacity() || deleted > filter.capacity() / 10;
+    }
+}
@@ -0,0 +1,241 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.config.VirtualThreads;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// In-process read model of the swift_codes table.
+// Readers only dereference a volatile field, writers publish a fresh
+// SwiftCodeSnapshot (copy-on-write) once their transaction has committed.
+// Every new snapshot is also written to swift.read-model.snapshot-file; on the next
+// start that file is memory-mapped and served before the database has been touched,
+// while the heap snapshot is loaded in the background. Changes made in the meantime
+// are served on top of the file (PatchedSwiftCodeReadModel).
+@Component
+public class SwiftCodeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeIndex.class);
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${swift.read-model.enabled:true}")
+    private boolean enabled;
+
+    // Empty to keep the read model in memory only
+    @Value("${swift.read-model.snapshot-file:}")
+    private String snapshotFile;
+
+    // null until the first reload(), callers then fall back to the database
+    private volatile SwiftCodeReadModel snapshot;
+
+    // Changes committed while the background load reads the table, non-null only during the load
+    private List<SwiftCodeChangeEvent> changedDuringLoad;
+
+    // Set while a snapshot file write is queued, so bursts of changes are written once
+    private final AtomicBoolean writePending = new AtomicBoolean();
+
+    // Snapshot file writes and the load behind a mapped file, off the request and import threads
+    private ThreadPoolTaskExecutor background;
+
+    @PostConstruct
+    public void start() {
+        background = new ThreadPoolTaskExecutor();
+        background.setCorePoolSize(1);
+        background.setMaxPoolSize(1);
+        background.setThreadNamePrefix("swift-snapshot-");
+        // Let a queued snapshot file write finish on shutdown
+        background.setWaitForTasksToCompleteOnShutdown(true);
+        background.setAwaitTerminationSeconds(10);
+        VirtualThreads.configure(background, environment);
+        background.initialize();
+
+        if (!enabled || snapshotFile.isBlank() || !Files.exists(Paths.get(snapshotFile))) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            MappedSwiftCodeSnapshot mapped = MappedSwiftCodeSnapshot.open(Paths.get(snapshotFile));
+            snapshot = mapped;
+            log.info("Serving {} SWIFT codes from snapshot {} (mapped in {} ms)",
+                    mapped.size(), snapshotFile, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Ignoring SWIFT code snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        background.shutdown();
+    }
+
+    // Returns the current snapshot, or null when the read model is disabled or not built yet
+    public SwiftCodeReadModel current() {
+        return snapshot;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    // Called by SwiftCodeDataInitializer once the table is populated. A snapshot mapped from
+    // disk keeps serving while the table is loaded into the heap in the background.
+    public synchronized void initialize() {
+        if (snapshot instanceof MappedSwiftCodeSnapshot) {
+            background.execute(this::load);
+        } else if (snapshot == null) {
+            reload();
+        }
+    }
+
+    // Rebuilds the whole snapshot from the database
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        snapshot = SwiftCodeSnapshot.of(swiftCodeRepository.findAll());
+        scheduleWrite();
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        synchronized (this) {
+            // The initial build is done by SwiftCodeDataInitializer
+            if (snapshot == null) {
+                return;
+            }
+            if (event.getType() == SwiftCodeChangeEvent.Type.IMPORTED) {
+                reload();
+                return;
+            }
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(event);
+            }
+            // A mapped file cannot be patched in place, the changes are served on top of it until
+            // the background load replaces both
+            if (snapshot instanceof MappedSwiftCodeSnapshot file) {
+                snapshot = apply(PatchedSwiftCodeReadModel.of(file), event);
+                return;
+            }
+            if (snapshot instanceof PatchedSwiftCodeReadModel patched) {
+                snapshot = apply(patched, event);
+                return;
+            }
+            snapshot = apply((SwiftCodeSnapshot) snapshot, event);
+            scheduleWrite();
+        }
+    }
+
+    // Loads the table into the heap behind a mapped snapshot and swaps it in. The file is rewritten
+    // if the database had moved on since it was written.
+    private void load() {
+        MappedSwiftCodeSnapshot file;
+        synchronized (this) {
+            file = mappedFile();
+            if (file == null) {
+                return;
+            }
+            changedDuringLoad = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        List<SwiftCode> rows;
+        try {
+            rows = swiftCodeRepository.findAll();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+            log.warn("Could not load the SWIFT codes behind the snapshot file, serving the file", e);
+            return;
+        }
+        SwiftCodeSnapshot loaded = SwiftCodeSnapshot.of(rows);
+        boolean current = MappedSwiftCodeSnapshot.contentHash(rows) == file.contentHash();
+        synchronized (this) {
+            List<SwiftCodeChangeEvent> changes = changedDuringLoad;
+            changedDuringLoad = null;
+            // An import reloaded the index meanwhile
+            if (mappedFile() != file) {
+                return;
+            }
+            // Replayed in order, adding a loaded code and removing a missing one change nothing
+            for (SwiftCodeChangeEvent change : changes) {
+                loaded = apply(loaded, change);
+            }
+            snapshot = loaded;
+            if (!current || !changes.isEmpty()) {
+                scheduleWrite();
+            }
+        }
+        if (current) {
+            log.info("SWIFT code snapshot matches the database, {} codes loaded in {} ms",
+                    loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            log.warn("SWIFT code snapshot was out of date, replaced by the {} codes of the database", loaded.size());
+        }
+    }
+
+    // The file behind the current read model, null once it is served from the heap
+    private MappedSwiftCodeSnapshot mappedFile() {
+        if (snapshot instanceof MappedSwiftCodeSnapshot file) {
+            return file;
+        }
+        return snapshot instanceof PatchedSwiftCodeReadModel patched ? patched.file() : null;
+    }
+
+    private static SwiftCodeSnapshot apply(SwiftCodeSnapshot target, SwiftCodeChangeEvent event) {
+        return switch (event.getType()) {
+            case ADDED -> target.withAll(event.getSwiftCodes());
+            case DELETED -> target.withoutAll(event.getSwiftCodes());
+            default -> target;
+        };
+    }
+
+    private static PatchedSwiftCodeReadModel apply(PatchedSwiftCodeReadModel target, SwiftCodeChangeEvent event) {
+        return switch (event.getType()) {
+            case ADDED -> target.withAll(event.getSwiftCodes());
+            case DELETED -> target.withoutAll(event.getSwiftCodes());
+            default -> target;
+        };
+    }
+
+    private void scheduleWrite() {
+        if (snapshotFile.isBlank() || !writePending.compareAndSet(false, true)) {
+            return;
+        }
+        background.execute(() -> {
+            writePending.set(false);
+            if (snapshot instanceof SwiftCodeSnapshot current) {
+                Path file = Paths.get(snapshotFile);
+                try {
+                    MappedSwiftCodeSnapshot.write(file, current.all());
+                } catch (IOException e) {
+                    log.warn("Could not write SWIFT code snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        });
+    }
+}
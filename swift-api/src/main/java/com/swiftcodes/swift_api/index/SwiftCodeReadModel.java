@@ -0,0 +1,23 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.List;
+
+// Read-only lookups served by SwiftCodeIndex, either from the heap (SwiftCodeSnapshot)
+// or straight from a memory-mapped snapshot file (MappedSwiftCodeSnapshot)
+public interface SwiftCodeReadModel {
+
+    SwiftCode findByCode(String swiftCode);
+
+    // Rows of the country sorted by SWIFT code
+    List<SwiftCode> findByCountry(String countryISO2);
+
+    // Keyset page of a country: at most limit rows with a code greater than after (null for the first page)
+    List<SwiftCode> findByCountry(String countryISO2, String after, int limit);
+
+    // Same contract as SwiftCodeRepository.findBySwiftCodeStartingWithAndSwiftCodeNot
+    List<SwiftCode> findBranches(String baseCode, String excludeSwiftCode);
+
+    int size();
+}
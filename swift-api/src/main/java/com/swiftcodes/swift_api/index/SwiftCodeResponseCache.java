@@ -0,0 +1,229 @@
+package com.swiftcodes.swift_api.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swiftcodes.swift_api.config.VirtualThreads;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Finished JSON bodies of the GET endpoints, keyed by SWIFT code and by country page, each with a gzip
+// copy made once in the background after it is stored. A repeated lookup is then a map hit and a byte
+// copy: no entity mapping, no Jackson, no compression on the request thread.
+// Whole countries are streamed instead (SwiftCodeController.writeCountry) and never copied in here.
+// Entries remember the SwiftCodeVersions ETag they were built for and are never served once it moved on;
+// changes also evict the affected keys right away. Bounded by the total size of the bodies.
+@Component
+public class SwiftCodeResponseCache {
+
+    // Smaller bodies are sent as they are, gzip would barely shrink them
+    private static final int MIN_GZIP_BYTES = 512;
+
+    private final Cache<String, Entry> cache;
+
+    private final int maxEntryBytes;
+
+    // Makes the gzip copies; a full queue leaves the entry uncompressed rather than block a request
+    private final Executor compressor;
+    private final ThreadPoolTaskExecutor background;
+
+    @Autowired
+    public SwiftCodeResponseCache(@Value("${swift.response-cache.max-bytes:67108864}") long maxBytes,
+                                  @Value("${swift.response-cache.max-entry-bytes:4194304}") int maxEntryBytes,
+                                  Environment environment) {
+        this(maxBytes, maxEntryBytes, compressorThread(environment));
+    }
+
+    // Compresses on the given executor, e.g. the calling thread in tests
+    public SwiftCodeResponseCache(long maxBytes, int maxEntryBytes, Executor compressor) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.compressor = compressor;
+        this.background = compressor instanceof ThreadPoolTaskExecutor executor ? executor : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+    }
+
+    private static ThreadPoolTaskExecutor compressorThread(Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("swift-gzip-");
+        VirtualThreads.configure(executor, environment);
+        executor.initialize();
+        return executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (background != null) {
+            background.shutdown();
+        }
+    }
+
+    // Hit, miss and eviction counters plus the bytes held, as swift.responses.*
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "swift.responses");
+        Gauge.builder("swift.responses.bytes", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Size of the cached response bodies, gzip copies included")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public static String codeKey(String swiftCode) {
+        return "code:" + swiftCode;
+    }
+
+    private static String countryKey(String countryISO2) {
+        return "country:" + countryISO2;
+    }
+
+    public static String countryPageKey(String countryISO2, String after, int limit) {
+        return countryKey(countryISO2) + "?after=" + (after == null ? "" : after) + "&limit=" + limit;
+    }
+
+    // Returns the body cached for key, or null if there is none for this version of the data
+    public Entry get(String key, SwiftCodeVersions.Version version) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null && entry.eTag.equals(version.getETag()) ? entry : null;
+    }
+
+    // Caches a body built for version, bodies over max-entry-bytes are only returned.
+    // The gzip copy replaces the entry once it is made, unless the entry was evicted or replaced meanwhile.
+    public Entry put(String key, SwiftCodeVersions.Version version, byte[] json) {
+        Entry entry = new Entry(version.getETag(), json, null);
+        if (json.length > maxEntryBytes) {
+            return entry;
+        }
+        cache.put(key, entry);
+        if (json.length >= MIN_GZIP_BYTES) {
+            try {
+                compressor.execute(() -> cache.asMap().replace(key, entry, new Entry(entry.eTag, json, gzip(json))));
+            } catch (TaskRejectedException e) {
+                // Served uncompressed until the key is cached again
+            }
+        }
+        return entry;
+    }
+
+    // Writes entry as the whole response body, the gzip copy when the client accepts it
+    public void write(Entry entry, String acceptEncoding, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = entry.json;
+        if (entry.gzip != null && acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = entry.gzip;
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Runs after SwiftCodeVersions, nothing cached from here on can carry a tag from before the change
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        switch (event.getType()) {
+            case ADDED, DELETED -> {
+                Set<String> countries = new HashSet<>();
+                for (SwiftCode swiftCode : event.getSwiftCodes()) {
+                    String code = swiftCode.getSwiftCode();
+                    cache.invalidate(codeKey(code));
+                    // Headquarters list their branches
+                    cache.invalidate(codeKey(code.substring(0, 8) + "XXX"));
+                    countries.add(swiftCode.getCountryISO2());
+                    countries.add(code.substring(4, 6));
+                }
+                countries.forEach(this::evictCountry);
+            }
+            case IMPORTED -> cache.invalidateAll();
+        }
+    }
+
+    // The whole country and every cached page of it
+    private void evictCountry(String countryISO2) {
+        if (countryISO2 == null) {
+            return;
+        }
+        String key = countryKey(countryISO2.toUpperCase());
+        cache.asMap().keySet().removeIf(cached -> cached.equals(key) || cached.startsWith(key + "?"));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            String name = coding[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            // gzip;q=0 means "not gzip"
+            boolean refused = coding.length > 1 && coding[1].trim().matches("q=0(\\.0*)?");
+            return !refused;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        // Compressed once per entry, so the best ratio is worth its CPU
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // A cached response body
+    public static final class Entry {
+
+        private final String eTag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Entry(String eTag, byte[] json, byte[] gzip) {
+            this.eTag = eTag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        private int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+// Name, town and address search over the swift_codes table (SwiftCodeTextIndex), so GET /search
+// never scans the table with LIKE '%...%'. Single-code writes are applied to the word lists in place;
+// after an import SwiftCodeViewRebuilder builds a new index while the previous one keeps answering.
+@Component
+public class SwiftCodeSearchIndex implements SwiftCodeViewRebuilder.View {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeSearchIndex.class);
+
+    private final boolean enabled;
+
+    // null until the first build, replaced whole by a rebuild. SwiftCodeTextIndex is thread-safe,
+    // single-code changes are applied to it in place.
+    private volatile SwiftCodeTextIndex index;
+
+    @Autowired
+    public SwiftCodeSearchIndex(@Value("${swift.search.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Codes and distinct words in the index
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("swift.search.codes", this, s -> s.index != null ? s.index.size() : 0)
+                .description("SWIFT codes in the search index").register(registry);
+        Gauge.builder("swift.search.words", this, s -> s.index != null ? s.index.dictionarySize() : 0)
+                .description("Distinct words in the search index").register(registry);
+    }
+
+    // One page of the ranked matches, or null while the index has not been built
+    public SwiftCodeTextIndex.Result search(String query, String countryISO2, boolean fuzzy, int offset, int limit) {
+        SwiftCodeTextIndex current = index;
+        return current != null ? current.search(query, countryISO2, fuzzy, offset, limit) : null;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @Override
+    public boolean isBuilt() {
+        return index != null;
+    }
+
+    @Override
+    public SwiftCodeViewRebuilder.Build startBuild() {
+        if (!enabled) {
+            return null;
+        }
+        long start = System.nanoTime();
+        SwiftCodeTextIndex rebuilt = new SwiftCodeTextIndex();
+        return new SwiftCodeViewRebuilder.Build() {
+
+            @Override
+            public void add(SwiftCode row) {
+                rebuilt.add(row);
+            }
+
+            // Adding an indexed code replaces its words, removing an unknown one does nothing
+            @Override
+            public void replay(SwiftCodeChangeEvent change) {
+                apply(rebuilt, change);
+            }
+
+            @Override
+            public void install() {
+                index = rebuilt;
+                log.info("Search index over {} SWIFT codes, {} distinct words, built in {} ms",
+                        rebuilt.size(), rebuilt.dictionarySize(), (System.nanoTime() - start) / 1_000_000);
+            }
+        };
+    }
+
+    // Only an import needs a new index
+    @Override
+    public boolean apply(SwiftCodeChangeEvent event) {
+        SwiftCodeTextIndex current = index;
+        if (current != null) {
+            apply(current, event);
+        }
+        return enabled && event.getType() == SwiftCodeChangeEvent.Type.IMPORTED;
+    }
+
+    private static void apply(SwiftCodeTextIndex target, SwiftCodeChangeEvent event) {
+        for (SwiftCode swiftCode : event.getSwiftCodes()) {
+            switch (event.getType()) {
+                case ADDED -> target.add(swiftCode);
+                case DELETED -> target.remove(swiftCode.getSwiftCode());
+                default -> {
+                }
+            }
+        }
+    }
+}
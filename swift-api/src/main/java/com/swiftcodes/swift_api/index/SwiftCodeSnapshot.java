@@ -0,0 +1,308 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Immutable view of the whole SWIFT code dataset.
+// A snapshot is never modified once built: with()/without() return a new
+// snapshot that shares every untouched list with the previous one.
+public final class SwiftCodeSnapshot implements SwiftCodeReadModel {
+
+    private static final Comparator<SwiftCode> BY_CODE = Comparator.comparing(SwiftCode::getSwiftCode);
+
+    private static final SwiftCodeSnapshot EMPTY =
+            new SwiftCodeSnapshot(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    // Primary index: 11-char SWIFT code -> row
+    private final Map<String, SwiftCode> byCode;
+    // Secondary index: country ISO2 -> rows sorted by SWIFT code
+    private final Map<String, List<SwiftCode>> byCountry;
+    // Secondary index: 8-char base code -> branch rows (codes not ending with XXX) sorted by SWIFT code
+    private final Map<String, List<SwiftCode>> branchesByBaseCode;
+
+    private SwiftCodeSnapshot(Map<String, SwiftCode> byCode,
+                              Map<String, List<SwiftCode>> byCountry,
+                              Map<String, List<SwiftCode>> branchesByBaseCode) {
+        this.byCode = byCode;
+        this.byCountry = byCountry;
+        this.branchesByBaseCode = branchesByBaseCode;
+    }
+
+    public static SwiftCodeSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static SwiftCodeSnapshot of(Collection<SwiftCode> codes) {
+        Map<String, SwiftCode> byCode = new HashMap<>(capacityFor(codes.size()));
+        Map<String, List<SwiftCode>> byCountry = new HashMap<>();
+        Map<String, List<SwiftCode>> branches = new HashMap<>();
+
+        for (SwiftCode code : codes) {
+            byCode.put(code.getSwiftCode(), code);
+        }
+        for (SwiftCode code : byCode.values()) {
+            byCountry.computeIfAbsent(code.getCountryISO2(), k -> new ArrayList<>()).add(code);
+            if (isBranch(code.getSwiftCode())) {
+                branches.computeIfAbsent(baseCodeOf(code.getSwiftCode()), k -> new ArrayList<>()).add(code);
+            }
+        }
+
+        return new SwiftCodeSnapshot(
+                Collections.unmodifiableMap(byCode),
+                freeze(byCountry),
+                freeze(branches));
+    }
+
+    @Override
+    public SwiftCode findByCode(String swiftCode) {
+        return byCode.get(swiftCode);
+    }
+
+    @Override
+    public List<SwiftCode> findByCountry(String countryISO2) {
+        return byCountry.getOrDefault(countryISO2, Collections.emptyList());
+    }
+
+    @Override
+    public List<SwiftCode> findByCountry(String countryISO2, String after, int limit) {
+        List<SwiftCode> rows = findByCountry(countryISO2);
+        int from = 0;
+        if (after != null) {
+            // First row with a code greater than after
+            int low = 0;
+            int high = rows.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (rows.get(mid).getSwiftCode().compareTo(after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        // A view of the immutable country list, nothing is copied
+        return rows.subList(from, (int) Math.min(rows.size(), (long) from + limit));
+    }
+
+    @Override
+    public List<SwiftCode> findBranches(String baseCode, String excludeSwiftCode) {
+        List<SwiftCode> branches = branchesByBaseCode.getOrDefault(baseCode, Collections.emptyList());
+        if (!isBranch(excludeSwiftCode) || branches.isEmpty()) {
+            // Headquarter lookups never need filtering, which keeps the hot path allocation free
+            return branches;
+        }
+        List<SwiftCode> filtered = new ArrayList<>(branches.size());
+        for (SwiftCode branch : branches) {
+            if (!branch.getSwiftCode().equals(excludeSwiftCode)) {
+                filtered.add(branch);
+            }
+        }
+        return Collections.unmodifiableList(filtered);
+    }
+
+    @Override
+    public int size() {
+        return byCode.size();
+    }
+
+    public Collection<SwiftCode> all() {
+        return byCode.values();
+    }
+
+    // Copy-on-write insert (or replace) of a single row
+    public SwiftCodeSnapshot with(SwiftCode code) {
+        SwiftCode previous = byCode.get(code.getSwiftCode());
+        SwiftCodeSnapshot base = previous == null ? this : without(previous.getSwiftCode());
+
+        Map<String, SwiftCode> newByCode = new HashMap<>(base.byCode);
+        newByCode.put(code.getSwiftCode(), code);
+
+        Map<String, List<SwiftCode>> newByCountry = new HashMap<>(base.byCountry);
+        newByCountry.put(code.getCountryISO2(), insertSorted(base.findByCountry(code.getCountryISO2()), code));
+
+        Map<String, List<SwiftCode>> newBranches = base.branchesByBaseCode;
+        if (isBranch(code.getSwiftCode())) {
+            String baseCode = baseCodeOf(code.getSwiftCode());
+            newBranches = new HashMap<>(base.branchesByBaseCode);
+            newBranches.put(baseCode, insertSorted(base.branchesByBaseCode.getOrDefault(baseCode, Collections.emptyList()), code));
+            newBranches = Collections.unmodifiableMap(newBranches);
+        }
+
+        return new SwiftCodeSnapshot(
+                Collections.unmodifiableMap(newByCode),
+                Collections.unmodifiableMap(newByCountry),
+                newBranches);
+    }
+
+    // Copy-on-write removal of a single row, returns this snapshot if the code is unknown
+    public SwiftCodeSnapshot without(String swiftCode) {
+        SwiftCode removed = byCode.get(swiftCode);
+        if (removed == null) {
+            return this;
+        }
+
+        Map<String, SwiftCode> newByCode = new HashMap<>(byCode);
+        newByCode.remove(swiftCode);
+
+        Map<String, List<SwiftCode>> newByCountry = new HashMap<>(byCountry);
+        putOrRemove(newByCountry, removed.getCountryISO2(), remove(findByCountry(removed.getCountryISO2()), swiftCode));
+
+        Map<String, List<SwiftCode>> newBranches = branchesByBaseCode;
+        if (isBranch(swiftCode)) {
+            String baseCode = baseCodeOf(swiftCode);
+            newBranches = new HashMap<>(branchesByBaseCode);
+            putOrRemove(newBranches, baseCode, remove(branchesByBaseCode.getOrDefault(baseCode, Collections.emptyList()), swiftCode));
+            newBranches = Collections.unmodifiableMap(newBranches);
+        }
+
+        return new SwiftCodeSnapshot(
+                Collections.unmodifiableMap(newByCode),
+                Collections.unmodifiableMap(newByCountry),
+                newBranches);
+    }
+
+    // Copy-on-write insert (or replace) of many rows at once: every map is copied once and only the
+    // country and branch lists they touch are rebuilt, rather than one full copy per row
+    public SwiftCodeSnapshot withAll(Collection<SwiftCode> codes) {
+        if (codes.size() == 1) {
+            return with(codes.iterator().next());
+        }
+        return change(codes, Collections.emptyList());
+    }
+
+    // Copy-on-write removal of many rows at once, unknown codes are ignored
+    public SwiftCodeSnapshot withoutAll(Collection<SwiftCode> codes) {
+        if (codes.size() == 1) {
+            return without(codes.iterator().next().getSwiftCode());
+        }
+        return change(Collections.emptyList(), codes);
+    }
+
+    private SwiftCodeSnapshot change(Collection<SwiftCode> added, Collection<SwiftCode> removed) {
+        Map<String, SwiftCode> newByCode = new HashMap<>(byCode);
+        Set<String> countries = new HashSet<>();
+        Set<String> baseCodes = new HashSet<>();
+        for (SwiftCode code : removed) {
+            SwiftCode previous = newByCode.remove(code.getSwiftCode());
+            if (previous != null) {
+                touch(previous, countries, baseCodes);
+            }
+        }
+        for (SwiftCode code : added) {
+            SwiftCode previous = newByCode.put(code.getSwiftCode(), code);
+            if (previous != null) {
+                touch(previous, countries, baseCodes);
+            }
+            touch(code, countries, baseCodes);
+        }
+
+        // A touched list keeps its rows that are still current and gains the added ones
+        Map<String, List<SwiftCode>> countryRows = new HashMap<>();
+        Map<String, List<SwiftCode>> branchRows = new HashMap<>();
+        for (String country : countries) {
+            countryRows.put(country, current(findByCountry(country), newByCode));
+        }
+        for (String baseCode : baseCodes) {
+            branchRows.put(baseCode, current(branchesByBaseCode.getOrDefault(baseCode, Collections.emptyList()), newByCode));
+        }
+        for (SwiftCode code : added) {
+            if (newByCode.get(code.getSwiftCode()) == code) {
+                countryRows.get(code.getCountryISO2()).add(code);
+                if (isBranch(code.getSwiftCode())) {
+                    branchRows.get(baseCodeOf(code.getSwiftCode())).add(code);
+                }
+            }
+        }
+
+        Map<String, List<SwiftCode>> newByCountry = new HashMap<>(byCountry);
+        for (Map.Entry<String, List<SwiftCode>> entry : countryRows.entrySet()) {
+            entry.getValue().sort(BY_CODE);
+            putOrRemove(newByCountry, entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        Map<String, List<SwiftCode>> newBranches = branchesByBaseCode;
+        if (!branchRows.isEmpty()) {
+            newBranches = new HashMap<>(branchesByBaseCode);
+            for (Map.Entry<String, List<SwiftCode>> entry : branchRows.entrySet()) {
+                entry.getValue().sort(BY_CODE);
+                putOrRemove(newBranches, entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
+            newBranches = Collections.unmodifiableMap(newBranches);
+        }
+
+        return new SwiftCodeSnapshot(
+                Collections.unmodifiableMap(newByCode),
+                Collections.unmodifiableMap(newByCountry),
+                newBranches);
+    }
+
+    private static void touch(SwiftCode code, Set<String> countries, Set<String> baseCodes) {
+        countries.add(code.getCountryISO2());
+        if (isBranch(code.getSwiftCode())) {
+            baseCodes.add(baseCodeOf(code.getSwiftCode()));
+        }
+    }
+
+    private static List<SwiftCode> current(List<SwiftCode> rows, Map<String, SwiftCode> byCode) {
+        List<SwiftCode> kept = new ArrayList<>(rows.size());
+        for (SwiftCode row : rows) {
+            if (byCode.get(row.getSwiftCode()) == row) {
+                kept.add(row);
+            }
+        }
+        return kept;
+    }
+
+    private static boolean isBranch(String swiftCode) {
+        return swiftCode.length() >= 8 && !swiftCode.endsWith("XXX");
+    }
+
+    private static String baseCodeOf(String swiftCode) {
+        return SwiftCode.baseCodeOf(swiftCode);
+    }
+
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static Map<String, List<SwiftCode>> freeze(Map<String, List<SwiftCode>> index) {
+        Map<String, List<SwiftCode>> frozen = new HashMap<>(capacityFor(index.size()));
+        for (Map.Entry<String, List<SwiftCode>> entry : index.entrySet()) {
+            List<SwiftCode> rows = entry.getValue();
+            rows.sort(BY_CODE);
+            frozen.put(entry.getKey(), Collections.unmodifiableList(rows));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static List<SwiftCode> insertSorted(List<SwiftCode> rows, SwiftCode code) {
+        List<SwiftCode> copy = new ArrayList<>(rows.size() + 1);
+        copy.addAll(rows);
+        int pos = Collections.binarySearch(copy, code, BY_CODE);
+        copy.add(pos < 0 ? -pos - 1 : pos, code);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<SwiftCode> remove(List<SwiftCode> rows, String swiftCode) {
+        List<SwiftCode> copy = new ArrayList<>(rows);
+        copy.removeIf(row -> row.getSwiftCode().equals(swiftCode));
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static void putOrRemove(Map<String, List<SwiftCode>> index, String key, List<SwiftCode> rows) {
+        if (rows.isEmpty()) {
+            index.remove(key);
+        } else {
+            index.put(key, rows);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository.GroupCount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Statistics over the swift_codes table (SwiftCodeAggregates) for GET /stats. Single-code writes
+// update the counters in place; an import has them recounted by SwiftCodeViewRebuilder while the
+// previous counts keep answering. check() compares them with counts made by the database.
+@Component
+public class SwiftCodeStats implements SwiftCodeViewRebuilder.View {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeStats.class);
+
+    // Counts compared by check() before concluding; a write committed while the database counted may
+    // not have reached the aggregates yet
+    private static final int CHECK_ATTEMPTS = 3;
+
+    private final SwiftCodeBulkRepository bulkRepository;
+    private final SwiftCodeViewRebuilder rebuilder;
+    // A new transaction per check attempt: both GROUP BY queries read one snapshot, and on MySQL's
+    // REPEATABLE READ each retry reads a newer one, with the writes the aggregates have taken in since
+    private final TransactionTemplate countTransaction;
+    private final boolean enabled;
+
+    // One check at a time
+    private final Object checkLock = new Object();
+
+    // null until the first build
+    private volatile SwiftCodeAggregates aggregates;
+    private volatile int lastCheckMismatches;
+
+    // Guarded by this
+    private long changes;
+    private long imports;
+    // Imports seen when the counts being served were started
+    private long importsCounted;
+
+    @Autowired
+    public SwiftCodeStats(SwiftCodeBulkRepository bulkRepository, SwiftCodeViewRebuilder rebuilder,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${swift.stats.enabled:true}") boolean enabled) {
+        this.bulkRepository = bulkRepository;
+        this.rebuilder = rebuilder;
+        countTransaction = new TransactionTemplate(transactionManager);
+        countTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        countTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    // Mismatches found by the last consistency check, for alerting on drift
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("swift.stats.check.mismatches", this, s -> s.lastCheckMismatches)
+                .description("Counts that differed from the database in the last statistics check").register(registry);
+    }
+
+    // The counters, or null while they have not been built
+    public SwiftCodeAggregates current() {
+        return aggregates;
+    }
+
+    @Override
+    public boolean isBuilt() {
+        return aggregates != null;
+    }
+
+    @Override
+    public SwiftCodeViewRebuilder.Build startBuild() {
+        if (!enabled) {
+            return null;
+        }
+        long importsAtStart;
+        synchronized (this) {
+            importsAtStart = imports;
+        }
+        long start = System.nanoTime();
+        SwiftCodeAggregates rebuilt = new SwiftCodeAggregates();
+        return new SwiftCodeViewRebuilder.Build() {
+
+            @Override
+            public void add(SwiftCode row) {
+                rebuilt.add(row);
+            }
+
+            // Replayed in order, adding a counted code and removing an uncounted one change nothing
+            @Override
+            public void replay(SwiftCodeChangeEvent change) {
+                apply(rebuilt, change);
+            }
+
+            @Override
+            public void install() {
+                synchronized (SwiftCodeStats.this) {
+                    importsCounted = importsAtStart;
+                    aggregates = rebuilt;
+                }
+                log.info("Statistics over {} SWIFT codes counted in {} ms",
+                        rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+        };
+    }
+
+    // Compares the counters with the database, recounting them first if an import is not counted yet.
+    // Null when statistics are disabled or could not be counted.
+    public SwiftCodeAggregates.Comparison check() {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (checkLock) {
+            SwiftCodeAggregates.Comparison comparison = null;
+            for (int attempt = 0; attempt < CHECK_ATTEMPTS; attempt++) {
+                boolean stale;
+                synchronized (this) {
+                    stale = aggregates == null || importsCounted != imports;
+                }
+                if (stale) {
+                    rebuilder.rebuild(List.of(this));
+                }
+                long changesAtStart;
+                synchronized (this) {
+                    changesAtStart = changes;
+                }
+                List<List<GroupCount>> counts = countTransaction.execute(status ->
+                        List.of(bulkRepository.countByTown(), bulkRepository.countByBank()));
+                synchronized (this) {
+                    // Another import may have interrupted the recount
+                    if (aggregates == null) {
+                        continue;
+                    }
+                    comparison = aggregates.compare(counts.get(0), counts.get(1));
+                    if (comparison.isConsistent() && changes == changesAtStart) {
+                        break;
+                    }
+                }
+            }
+            if (comparison == null) {
+                return null;
+            }
+            lastCheckMismatches = comparison.getMismatchCount();
+            if (!comparison.isConsistent()) {
+                log.warn("Statistics differ from the database in {} counts, first: {} {} (database {}, memory {})",
+                        comparison.getMismatchCount(), comparison.getMismatches().get(0).getCountryISO2(),
+                        comparison.getMismatches().get(0).getItem(), comparison.getMismatches().get(0).getDatabase(),
+                        comparison.getMismatches().get(0).getMemory());
+            }
+            return comparison;
+        }
+    }
+
+    // Only an import needs a recount
+    @Override
+    public synchronized boolean apply(SwiftCodeChangeEvent event) {
+        changes++;
+        if (event.getType() != SwiftCodeChangeEvent.Type.IMPORTED) {
+            if (aggregates != null) {
+                apply(aggregates, event);
+            }
+            return false;
+        }
+        imports++;
+        return enabled;
+    }
+
+    private static void apply(SwiftCodeAggregates target, SwiftCodeChangeEvent event) {
+        for (SwiftCode swiftCode : event.getSwiftCodes()) {
+            switch (event.getType()) {
+                case ADDED -> target.add(swiftCode);
+                case DELETED -> target.remove(swiftCode);
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,604 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over the bank name, town name and address of SWIFT codes, served by SwiftCodeSearchIndex.
+// Words go into a sorted dictionary (exact and prefix matches) and their trigrams into a second index
+// (typo-tolerant matches, confirmed by edit distance). Every code keeps the list of its words, so a
+// query only walks the postings of its rarest word, or of the country it is filtered by, and scores
+// those candidates against the other words, keeping just the requested page's worth of best hits.
+// Searches run concurrently, add and remove take an exclusive lock.
+public class SwiftCodeTextIndex {
+
+    // Fields, in the low two bits of a code's word entries, and how much a match in each counts
+    private static final int BANK_NAME = 0;
+    private static final int TOWN_NAME = 1;
+    private static final int ADDRESS = 2;
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.0, 1.0};
+
+    // Weight of a query word matching a word of the code exactly, or with one or two typos.
+    // Prefix matches get 0.5 to 0.9 depending on how much of the word the prefix covers.
+    private static final double EXACT = 1.0;
+    private static final double ONE_TYPO = 0.6;
+    private static final double TWO_TYPOS = 0.35;
+
+    // Shorter query words are only matched whole, and a prefix expands to at most this many words
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 1000;
+
+    // Ties are broken by SWIFT code, through its packed key first so walking candidates stays in the index's arrays
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::getScore).reversed()
+            .thenComparingLong(hit -> hit.key)
+            .thenComparing(hit -> hit.getSwiftCode().getSwiftCode());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Dictionary: word -> id, and by id the word and the codes containing it (ascending code ids)
+    private final TreeMap<String, Integer> wordIds = new TreeMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<IntList> postings = new ArrayList<>();
+    // Trigram of "$word$" -> ids of the words containing it (ascending)
+    private final Map<String, IntList> trigrams = new HashMap<>();
+
+    // By code id: the code (null once removed), its sort key, and where its words (wordId << 2 | field,
+    // ascending) start in entries and how many there are. Entries of removed codes stay until compacted.
+    private final List<SwiftCode> codes = new ArrayList<>();
+    private long[] codeKeys = new long[16];
+    private final IntList entryStart = new IntList();
+    private final IntList entryCount = new IntList();
+    private IntList entries = new IntList();
+    private int staleEntries;
+    private final Map<String, Integer> codeIds = new HashMap<>();
+    // Country ISO2 -> ids of its codes (ascending)
+    private final Map<String, IntList> countries = new HashMap<>();
+
+    public static SwiftCodeTextIndex of(Iterable<SwiftCode> swiftCodes) {
+        SwiftCodeTextIndex index = new SwiftCodeTextIndex();
+        for (SwiftCode swiftCode : swiftCodes) {
+            index.add(swiftCode);
+        }
+        return index;
+    }
+
+    // Indexes the code, replacing an earlier version of it
+    public void add(SwiftCode swiftCode) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(swiftCode.getSwiftCode());
+            int id = codes.size();
+            codes.add(swiftCode);
+            if (id == codeKeys.length) {
+                codeKeys = Arrays.copyOf(codeKeys, id * 2);
+            }
+            codeKeys[id] = key(swiftCode.getSwiftCode());
+            codeIds.put(swiftCode.getSwiftCode(), id);
+            countries.computeIfAbsent(swiftCode.getCountryISO2(), key -> new IntList()).add(id);
+
+            IntList words = new IntList();
+            addWords(words, BANK_NAME, swiftCode.getBankName());
+            addWords(words, TOWN_NAME, swiftCode.getTownName());
+            addWords(words, ADDRESS, swiftCode.getAddress());
+            int previousWord = -1;
+            int[] sorted = words.toArray();
+            Arrays.sort(sorted);
+            for (int entry : sorted) {
+                // Sorted, so the entries of one word are adjacent and the code is posted once per word
+                int word = entry >>> 2;
+                if (word != previousWord) {
+                    postings.get(word).add(id);
+                    previousWord = word;
+                }
+            }
+            entryStart.add(entries.size);
+            entryCount.add(sorted.length);
+            for (int entry : sorted) {
+                entries.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String swiftCode) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(swiftCode);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return codeIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int dictionarySize() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Codes matching every word of the query, best first: each query word counts with its best match
+    // among the code's words (exact, prefix or, when fuzzy, up to two typos) times the field weight.
+    // countryISO2 may be null. Ties are broken by SWIFT code, so pages are stable.
+    public Result search(String query, String countryISO2, boolean fuzzy, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(words(query)));
+        if (terms.isEmpty()) {
+            return Result.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            TermMatches[] matches = new TermMatches[terms.size()];
+            int driver = 0;
+            for (int t = 0; t < terms.size(); t++) {
+                matches[t] = match(terms.get(t), fuzzy);
+                if (matches[t].cost == 0) {
+                    return Result.EMPTY;
+                }
+                if (matches[t].cost < matches[driver].cost) {
+                    driver = t;
+                }
+            }
+
+            QueryWords queryWords = new QueryWords(matches);
+            IntList candidates;
+            IntList country = countryISO2 != null ? countries.get(countryISO2) : null;
+            if (countryISO2 != null && country == null) {
+                return Result.EMPTY;
+            }
+            // Scoring rejects codes missing any query word, so the country's codes can stand in for the driver
+            boolean byCountry = country != null && country.size < matches[driver].cost;
+            candidates = byCountry ? country : candidates(matches[driver]);
+
+            // Best offset + limit hits so far, the worst of them at the head
+            int keep = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(keep, 1024) + 1, RANKING.reversed());
+            int total = 0;
+            // Both ascending, so the country's codes are searched from where the previous candidate was
+            int countryFrom = 0;
+            for (int i = 0; i < candidates.size; i++) {
+                int id = candidates.values[i];
+                if (country != null && !byCountry) {
+                    int at = Arrays.binarySearch(country.values, countryFrom, country.size, id);
+                    countryFrom = at < 0 ? -at - 1 : at + 1;
+                    if (at < 0) {
+                        continue;
+                    }
+                }
+                double score = queryWords.score(entries.values, entryStart.values[id], entryCount.values[id]);
+                if (score == 0) {
+                    continue;
+                }
+                total++;
+                if (best.size() == keep && !ranksBefore(score, id, best.peek())) {
+                    continue;
+                }
+                best.add(new Hit(codes.get(id), score, codeKeys[id]));
+                if (best.size() > keep) {
+                    best.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            int from = Math.min(offset, hits.size());
+            return new Result(total, new ArrayList<>(hits.subList(from, hits.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whether the code would be listed before the hit, as RANKING, without creating a Hit for it
+    private boolean ranksBefore(double score, int id, Hit hit) {
+        if (score != hit.score) {
+            return score > hit.score;
+        }
+        if (codeKeys[id] != hit.key) {
+            return codeKeys[id] < hit.key;
+        }
+        return codes.get(id).getSwiftCode().compareTo(hit.swiftCode.getSwiftCode()) < 0;
+    }
+
+    // Codes containing any of the words the query word matched, ascending and without duplicates.
+    // A single word's postings are returned as they are, read under the read lock only.
+    private IntList candidates(TermMatches term) {
+        if (term.wordIds.length == 1) {
+            return postings.get(term.wordIds[0]);
+        }
+        int[] all = new int[(int) term.cost];
+        int size = 0;
+        for (int word : term.wordIds) {
+            IntList list = postings.get(word);
+            System.arraycopy(list.values, 0, all, size, list.size);
+            size += list.size;
+        }
+        Arrays.sort(all, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || all[distinct - 1] != all[i]) {
+                all[distinct++] = all[i];
+            }
+        }
+        IntList merged = new IntList();
+        merged.values = all;
+        merged.size = distinct;
+        return merged;
+    }
+
+    // Dictionary words the query word stands for, with their weights
+    private TermMatches match(String term, boolean fuzzy) {
+        Map<Integer, Double> found = new HashMap<>();
+        Integer exact = wordIds.get(term);
+        if (exact != null) {
+            found.put(exact, EXACT);
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Integer> word : wordIds.subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                found.put(word.getValue(), 0.5 + 0.4 * term.length() / word.getKey().length());
+            }
+        }
+        int maxEdits = maxEdits(term.length());
+        if (fuzzy && maxEdits > 0) {
+            // An edit changes at most three trigrams and a swap of adjacent letters four, so candidates
+            // share all but 4 * maxEdits of them
+            Set<String> termTrigrams = trigramsOf(term);
+            int required = Math.max(1, termTrigrams.size() - 4 * maxEdits);
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String trigram : termTrigrams) {
+                IntList ids = trigrams.get(trigram);
+                if (ids != null) {
+                    for (int i = 0; i < ids.size; i++) {
+                        shared.merge(ids.values[i], 1, Integer::sum);
+                    }
+                }
+            }
+            for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+                if (candidate.getValue() < required || found.containsKey(candidate.getKey())) {
+                    continue;
+                }
+                String word = words.get(candidate.getKey());
+                if (Math.abs(word.length() - term.length()) > maxEdits) {
+                    continue;
+                }
+                int distance = distance(term, word, maxEdits);
+                if (distance > 0 && distance <= maxEdits) {
+                    found.put(candidate.getKey(), distance == 1 ? ONE_TYPO : TWO_TYPOS);
+                }
+            }
+        }
+
+        int[] ids = found.keySet().stream()
+                .filter(id -> postings.get(id).size > 0)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        double[] weights = new double[ids.length];
+        long cost = 0;
+        for (int i = 0; i < ids.length; i++) {
+            weights[i] = found.get(ids[i]);
+            cost += postings.get(ids[i]).size;
+        }
+        return new TermMatches(ids, weights, cost);
+    }
+
+    private void addWords(IntList entries, int field, String text) {
+        for (String word : words(text)) {
+            entries.add(wordId(word) << 2 | field);
+        }
+    }
+
+    private int wordId(String word) {
+        Integer id = wordIds.get(word);
+        if (id != null) {
+            return id;
+        }
+        int newId = words.size();
+        wordIds.put(word, newId);
+        words.add(word);
+        postings.add(new IntList());
+        for (String trigram : trigramsOf(word)) {
+            trigrams.computeIfAbsent(trigram, key -> new IntList()).add(newId);
+        }
+        return newId;
+    }
+
+    private boolean removeLocked(String swiftCode) {
+        Integer id = codeIds.remove(swiftCode);
+        if (id == null) {
+            return false;
+        }
+        int start = entryStart.values[id];
+        for (int i = start; i < start + entryCount.values[id]; i++) {
+            postings.get(entries.values[i] >>> 2).removeValue(id);
+        }
+        IntList country = countries.get(codes.get(id).getCountryISO2());
+        if (country != null) {
+            country.removeValue(id);
+        }
+        codes.set(id, null);
+        staleEntries += entryCount.values[id];
+        entryCount.values[id] = 0;
+        if (staleEntries > 1024 && staleEntries > entries.size / 2) {
+            compactEntries();
+        }
+        return true;
+    }
+
+    // Drops the entries of removed codes
+    private void compactEntries() {
+        IntList live = new IntList();
+        for (int id = 0; id < entryStart.size; id++) {
+            int start = entryStart.values[id];
+            entryStart.values[id] = live.size;
+            for (int i = start; i < start + entryCount.values[id]; i++) {
+                live.add(entries.values[i]);
+            }
+        }
+        entries = live;
+        staleEntries = 0;
+    }
+
+    // SWIFT code packed in base 38, in the order of the strings for codes of up to 11 letters and digits
+    private static long key(String swiftCode) {
+        long key = 0;
+        for (int i = 0; i < 11; i++) {
+            char c = i < swiftCode.length() ? swiftCode.charAt(i) : 0;
+            int digit;
+            if (c == 0) {
+                digit = 0;
+            } else if (c >= '0' && c <= '9') {
+                digit = 1 + c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = 11 + c - 'A';
+            } else {
+                digit = 37;
+            }
+            key = key * 38 + digit;
+        }
+        return key;
+    }
+
+    // Upper-cased runs of letters and digits
+    static List<String> words(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toUpperCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> trigramsOf(String word) {
+        String padded = "$" + word + "$";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Typos tolerated in a query word of this length
+    private static int maxEdits(int length) {
+        if (length < 4) {
+            return 0;
+        }
+        return length < 8 ? 1 : 2;
+    }
+
+    // Edit distance counting a swap of adjacent letters as one edit, or max + 1 once it exceeds max
+    static int distance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Word ids matched by any query word, in an open-addressing table, so scoring a code is one pass
+    // over its entries. Holds the per-code scratch, so it serves one search.
+    private static final class QueryWords {
+
+        private final int[] table;
+        private final int mask;
+        // Chained per word id: the query word (term) it matched and with what weight
+        private final int[] word;
+        private final int[] term;
+        private final double[] weight;
+        private final int[] next;
+        private final double[] best;
+
+        private QueryWords(TermMatches[] matches) {
+            int size = 0;
+            for (TermMatches match : matches) {
+                size += match.wordIds.length;
+            }
+            int capacity = Integer.highestOneBit(Math.max(size, 1) * 2) * 2;
+            table = new int[capacity];
+            mask = capacity - 1;
+            word = new int[size];
+            term = new int[size];
+            weight = new double[size];
+            next = new int[size];
+            best = new double[matches.length];
+            int n = 0;
+            for (int t = 0; t < matches.length; t++) {
+                for (int i = 0; i < matches[t].wordIds.length; i++, n++) {
+                    word[n] = matches[t].wordIds[i];
+                    term[n] = t;
+                    weight[n] = matches[t].weights[i];
+                    int slot = slot(word[n]);
+                    // table holds the chain head + 1, 0 for an empty slot
+                    next[n] = table[slot] - 1;
+                    table[slot] = n + 1;
+                }
+            }
+        }
+
+        private int slot(int wordId) {
+            int slot = (wordId * 0x9E3779B9 >>> 16) & mask;
+            while (table[slot] != 0 && word[table[slot] - 1] != wordId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        // Sum over the query words of their best weighted match, 0 when one of them has none
+        private double score(int[] entries, int from, int count) {
+            Arrays.fill(best, 0);
+            for (int i = from; i < from + count; i++) {
+                int entry = entries[i];
+                for (int n = table[slot(entry >>> 2)] - 1; n >= 0; n = next[n]) {
+                    best[term[n]] = Math.max(best[term[n]], weight[n] * FIELD_WEIGHTS[entry & 3]);
+                }
+            }
+            double score = 0;
+            for (double value : best) {
+                if (value == 0) {
+                    return 0;
+                }
+                score += value;
+            }
+            return score;
+        }
+    }
+
+    private static final class TermMatches {
+
+        private final int[] wordIds;
+        private final double[] weights;
+        // Postings to walk if this word drives the query, 0 when it matches nothing
+        private final long cost;
+
+        private TermMatches(int[] wordIds, double[] weights, long cost) {
+            this.wordIds = wordIds;
+            this.weights = weights;
+            this.cost = cost;
+        }
+    }
+
+    // Growable sorted-by-construction int array, for postings and trigram lists
+    private static final class IntList {
+
+        private int[] values = new int[2];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void removeValue(int value) {
+            int i = Arrays.binarySearch(values, 0, size, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    public static final class Hit {
+
+        private final SwiftCode swiftCode;
+        private final double score;
+        private final long key;
+
+        private Hit(SwiftCode swiftCode, double score, long key) {
+            this.swiftCode = swiftCode;
+            this.score = score;
+            this.key = key;
+        }
+
+        public SwiftCode getSwiftCode() {
+            return swiftCode;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    // One page of hits and the number of codes matching the query in total
+    public static final class Result {
+
+        private static final Result EMPTY = new Result(0, Collections.emptyList());
+
+        private final int total;
+        private final List<Hit> hits;
+
+        private Result(int total, List<Hit> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Monotonic versions of the dataset, per country and global, used as ETags by the read endpoints
+// so repeated GETs can be answered with 304 before any lookup.
+// Kept in memory only: the boot epoch is part of every tag, so a restart invalidates all of them.
+@Component
+public class SwiftCodeVersions {
+
+    private final long epoch = System.currentTimeMillis();
+
+    // Bumped by imports, which may touch any country
+    private volatile Stamp global = new Stamp(0, epoch);
+
+    // Bumped by single-code writes, keyed by country ISO2
+    private final Map<String, Stamp> countries = new ConcurrentHashMap<>();
+
+    // Version of everything a GET for the country, or for a code of the country, can return
+    public Version forCountry(String countryISO2) {
+        Stamp imported = global;
+        Stamp country = countries.getOrDefault(countryISO2, Stamp.INITIAL);
+        return new Version(
+                "\"" + Long.toString(epoch, 36) + "-" + imported.version + "-" + country.version + "\"",
+                Math.max(imported.modifiedAt, country.modifiedAt));
+    }
+
+    // Version for a SWIFT code lookup. Uses the country embedded in the code (characters 5-6),
+    // so it is known without reading the row, and covers the branches listed with a headquarter.
+    public Version forSwiftCode(String swiftCode) {
+        return forCountry(embeddedCountry(swiftCode));
+    }
+
+    // Runs after SwiftCodeIndex, so a new tag is never handed out with data older than it
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        switch (event.getType()) {
+            case ADDED, DELETED -> {
+                Set<String> changed = new HashSet<>();
+                for (SwiftCode code : event.getSwiftCodes()) {
+                    changed.add(code.getCountryISO2());
+                    changed.add(embeddedCountry(code.getSwiftCode()));
+                }
+                changed.forEach(this::bump);
+            }
+            case IMPORTED -> {
+                synchronized (this) {
+                    global = new Stamp(global.version + 1, System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    private void bump(String countryISO2) {
+        if (countryISO2 == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        countries.merge(countryISO2.toUpperCase(), new Stamp(1, now),
+                (previous, ignored) -> new Stamp(previous.version + 1, now));
+    }
+
+    private static String embeddedCountry(String swiftCode) {
+        return swiftCode != null && swiftCode.length() >= 6 ? swiftCode.substring(4, 6).toUpperCase() : "";
+    }
+
+    private static final class Stamp {
+
+        private static final Stamp INITIAL = new Stamp(0, 0);
+
+        private final long version;
+        private final long modifiedAt;
+
+        private Stamp(long version, long modifiedAt) {
+            this.version = version;
+            this.modifiedAt = modifiedAt;
+        }
+    }
+
+    // ETag and Last-Modified value of a response
+    public static final class Version {
+
+        private final String eTag;
+        private final long lastModified;
+
+        private Version(String eTag, long lastModified) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.config.VirtualThreads;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps the views built from the whole swift_codes table (Bloom filter, search index, statistics)
+// in step with it. Committed changes reach every view through apply(); the views that need a
+// rebuild, all of them after an import, are rebuilt together from one scan of the table on a
+// background thread, while their previous state keeps answering. Changes committed during the scan
+// are replayed onto the new state before it is installed, under the same lock that applies them,
+// so none falls between the old state and the new one.
+@Component
+public class SwiftCodeViewRebuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeViewRebuilder.class);
+
+    // A view of the table rebuilt from a scan
+    public interface View {
+
+        // Applies a committed change to the current state, true when the view wants a rebuild.
+        // Called under the rebuilder's lock, in commit order.
+        boolean apply(SwiftCodeChangeEvent event);
+
+        // Starts a rebuild, null when the view is disabled
+        Build startBuild();
+
+        boolean isBuilt();
+    }
+
+    // One rebuild of a view: the rows of the scan, then the changes committed meanwhile
+    public interface Build {
+
+        void add(SwiftCode row);
+
+        // An ADDED or DELETED change committed during the scan, possibly seen by it already
+        void replay(SwiftCodeChangeEvent change);
+
+        // Makes the new state current, called under the rebuilder's lock
+        void install();
+    }
+
+    private final SwiftCodeBulkRepository bulkRepository;
+    // Resolved lazily, the statistics view depends on this rebuilder for its checks
+    private final ObjectProvider<View> viewProvider;
+    private volatile List<View> views;
+
+    private final ThreadPoolTaskExecutor background;
+    // One scan at a time
+    private final Object scanLock = new Object();
+
+    // Guarded by this
+    private long imports;
+    // Views waiting for the background scan
+    private final Set<View> pending = new LinkedHashSet<>();
+    // Changes committed while a scan reads the table, non-null only during a scan
+    private List<SwiftCodeChangeEvent> changedDuringScan;
+
+    @Autowired
+    public SwiftCodeViewRebuilder(SwiftCodeBulkRepository bulkRepository, ObjectProvider<View> viewProvider,
+                                  Environment environment) {
+        this.bulkRepository = bulkRepository;
+        this.viewProvider = viewProvider;
+
+        background = new ThreadPoolTaskExecutor();
+        background.setCorePoolSize(1);
+        background.setMaxPoolSize(1);
+        background.setThreadNamePrefix("swift-rebuild-");
+        VirtualThreads.configure(background, environment);
+        background.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        background.shutdown();
+    }
+
+    // Called by SwiftCodeDataInitializer once the table is populated: builds, with one scan, the views
+    // the startup import has not built already
+    public void initialize() {
+        List<View> unbuilt = new ArrayList<>();
+        for (View view : views()) {
+            if (!view.isBuilt()) {
+                unbuilt.add(view);
+            }
+        }
+        rebuild(unbuilt);
+    }
+
+    // Rebuilds the views from one scan of the table, on the calling thread
+    public void rebuild(List<View> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        synchronized (scanLock) {
+            long importsAtStart;
+            synchronized (this) {
+                changedDuringScan = new ArrayList<>();
+                importsAtStart = imports;
+            }
+            List<Build> builds = new ArrayList<>(targets.size());
+            try {
+                for (View view : targets) {
+                    Build build = view.startBuild();
+                    if (build != null) {
+                        builds.add(build);
+                    }
+                }
+                if (!builds.isEmpty()) {
+                    bulkRepository.forEachRow(row -> builds.forEach(build -> build.add(row)));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringScan = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                List<SwiftCodeChangeEvent> changes = changedDuringScan;
+                changedDuringScan = null;
+                // The scan may have missed part of an import that finished meanwhile, its own rebuild follows
+                if (imports != importsAtStart) {
+                    return;
+                }
+                for (Build build : builds) {
+                    changes.forEach(build::replay);
+                    build.install();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(SwiftCodeChangeEvent event) {
+        synchronized (this) {
+            if (event.getType() == SwiftCodeChangeEvent.Type.IMPORTED) {
+                imports++;
+            } else if (changedDuringScan != null) {
+                changedDuringScan.add(event);
+            }
+            boolean idle = pending.isEmpty();
+            for (View view : views()) {
+                if (view.apply(event)) {
+                    pending.add(view);
+                }
+            }
+            if (!idle || pending.isEmpty()) {
+                return;
+            }
+        }
+        background.execute(this::rebuildPending);
+    }
+
+    private void rebuildPending() {
+        List<View> targets;
+        synchronized (this) {
+            targets = new ArrayList<>(pending);
+            pending.clear();
+        }
+        try {
+            rebuild(targets);
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the views of the SWIFT code table", e);
+        }
+    }
+
+    private List<View> views() {
+        List<View> current = views;
+        if (current == null) {
+            current = viewProvider.orderedStream().toList();
+            views = current;
+        }
+        return current;
+    }
+}
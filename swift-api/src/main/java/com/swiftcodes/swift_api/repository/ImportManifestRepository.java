@@ -0,0 +1,9 @@
+package com.swiftcodes.swift_api.repository;
+
+import com.swiftcodes.swift_api.entity.ImportManifest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportManifestRepository extends JpaRepository<ImportManifest, String> {
+}
@@ -0,0 +1,213 @@
+package com.swiftcodes.swift_api.repository;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Set-based JDBC access to swift_codes for bulk writes.
+// IDENTITY ids keep Hibernate from batching inserts, so bulk paths bypass JPA
+// and use plain SQL that runs unchanged on MySQL and on H2 (MySQL mode).
+@Repository
+public class SwiftCodeBulkRepository {
+
+    private static final String SELECT_BY_CODES =
+            "SELECT swift_code, bank_name, address, town_name, is_headquarter, country_iso2, country_name "
+                    + "FROM swift_codes WHERE swift_code IN (:codes)";
+
+    private static final String SELECT_CODES_IN = "SELECT swift_code FROM swift_codes WHERE swift_code IN (:codes)";
+
+    private static final String INSERT =
+            "INSERT INTO swift_codes (swift_code, base_code, bank_name, address, town_name, is_headquarter, country_iso2, country_name) "
+                    + "VALUES (:swiftCode, :baseCode, :bankName, :address, :townName, :headquarter, :countryISO2, :countryName)";
+
+    private static final String UPDATE =
+            "UPDATE swift_codes SET base_code = :baseCode, bank_name = :bankName, address = :address, town_name = :townName, "
+                    + "is_headquarter = :headquarter, country_iso2 = :countryISO2, country_name = :countryName "
+                    + "WHERE swift_code = :swiftCode";
+
+    private static final String SELECT_ALL =
+            "SELECT swift_code, bank_name, address, town_name, is_headquarter, country_iso2, country_name FROM swift_codes";
+
+    private static final String COUNT = "SELECT COUNT(*) FROM swift_codes";
+
+    private static final String COUNT_BY_TOWN =
+            "SELECT country_iso2, town_name, SUM(CASE WHEN is_headquarter = TRUE THEN 1 ELSE 0 END), COUNT(*) "
+                    + "FROM swift_codes GROUP BY country_iso2, town_name";
+
+    private static final String COUNT_BY_BANK =
+            "SELECT country_iso2, base_code, SUM(CASE WHEN is_headquarter = TRUE THEN 1 ELSE 0 END), COUNT(*) "
+                    + "FROM swift_codes GROUP BY country_iso2, base_code";
+
+    private static final RowMapper<GroupCount> GROUP_COUNT_MAPPER = (rs, rowNum) ->
+            new GroupCount(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getInt(4));
+
+    private static final String DELETE_BY_CODES =
+            "DELETE FROM swift_codes WHERE swift_code IN (:codes)";
+
+    private static final RowMapper<SwiftCode> ROW_MAPPER = (rs, rowNum) -> {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(rs.getString("swift_code"));
+        code.setBankName(rs.getString("bank_name"));
+        code.setAddress(rs.getString("address"));
+        code.setTownName(rs.getString("town_name"));
+        code.setHeadquarter(rs.getBoolean("is_headquarter"));
+        code.setCountryISO2(rs.getString("country_iso2"));
+        code.setCountryName(rs.getString("country_name"));
+        return code;
+    };
+
+    // Rows per round trip of the full-table scans; with useCursorFetch Connector/J then streams them
+    // from a server-side cursor instead of reading the whole result set into memory
+    private static final int SCAN_FETCH_SIZE = 500;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private JdbcTemplate scanTemplate;
+
+    @PostConstruct
+    public void createScanTemplate() {
+        scanTemplate = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        scanTemplate.setFetchSize(SCAN_FETCH_SIZE);
+    }
+
+    // Loads the rows that already exist for the given codes in a single IN query
+    public Map<String, SwiftCode> findExisting(Collection<String> swiftCodes) {
+        Map<String, SwiftCode> existing = new HashMap<>();
+        if (swiftCodes.isEmpty()) {
+            return existing;
+        }
+        for (SwiftCode code : jdbcTemplate.query(SELECT_BY_CODES, Map.of("codes", swiftCodes), ROW_MAPPER)) {
+            existing.put(code.getSwiftCode(), code);
+        }
+        return existing;
+    }
+
+    // Same as findExisting, and locks the rows until the transaction ends
+    public Map<String, SwiftCode> lockExisting(Collection<String> swiftCodes) {
+        Map<String, SwiftCode> existing = new HashMap<>();
+        if (swiftCodes.isEmpty()) {
+            return existing;
+        }
+        for (SwiftCode code : jdbcTemplate.query(SELECT_BY_CODES + " FOR UPDATE", Map.of("codes", swiftCodes), ROW_MAPPER)) {
+            existing.put(code.getSwiftCode(), code);
+        }
+        return existing;
+    }
+
+    // Which of the given codes exist, in a single IN query over the unique index alone
+    public Set<String> findExistingCodes(Collection<String> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_CODES_IN, Map.of("codes", swiftCodes), String.class));
+    }
+
+    // Inserts all rows as one JDBC batch
+    public void insertAll(List<SwiftCode> codes) {
+        if (!codes.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, toParameters(codes));
+        }
+    }
+
+    // Updates all rows, matched by swift_code, as one JDBC batch
+    public void updateAll(List<SwiftCode> codes) {
+        if (!codes.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, toParameters(codes));
+        }
+    }
+
+    // Deletes the rows with the given codes in a single statement, returns the number removed
+    public int deleteAll(Collection<String> swiftCodes) {
+        if (swiftCodes.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(DELETE_BY_CODES, Map.of("codes", swiftCodes));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.getJdbcTemplate().queryForObject(COUNT, Long.class);
+        return count != null ? count : 0;
+    }
+
+    // Passes every row of the table to action, one at a time
+    public void forEachRow(Consumer<SwiftCode> action) {
+        scanTemplate.query(SELECT_ALL, rs -> {
+            action.accept(ROW_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    // Codes and headquarters per country and town, counted by the database
+    public List<GroupCount> countByTown() {
+        return jdbcTemplate.query(COUNT_BY_TOWN, GROUP_COUNT_MAPPER);
+    }
+
+    // Codes and headquarters per country and base code (bank), counted by the database
+    public List<GroupCount> countByBank() {
+        return jdbcTemplate.query(COUNT_BY_BANK, GROUP_COUNT_MAPPER);
+    }
+
+    private static SqlParameterSource[] toParameters(List<SwiftCode> codes) {
+        SqlParameterSource[] parameters = new SqlParameterSource[codes.size()];
+        for (int i = 0; i < codes.size(); i++) {
+            SwiftCode code = codes.get(i);
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("swiftCode", code.getSwiftCode())
+                    .addValue("baseCode", code.getBaseCode())
+                    .addValue("bankName", code.getBankName())
+                    .addValue("address", code.getAddress())
+                    .addValue("townName", code.getTownName())
+                    .addValue("headquarter", code.isHeadquarter())
+                    .addValue("countryISO2", code.getCountryISO2())
+                    .addValue("countryName", code.getCountryName());
+        }
+        return parameters;
+    }
+
+    // Row of a GROUP BY country_iso2, <column> count
+    public static final class GroupCount {
+
+        private final String countryISO2;
+        private final String group;
+        private final int headquarters;
+        private final int codes;
+
+        private GroupCount(String countryISO2, String group, int headquarters, int codes) {
+            this.countryISO2 = countryISO2;
+            this.group = group;
+            this.headquarters = headquarters;
+            this.codes = codes;
+        }
+
+        public String getCountryISO2() {
+            return countryISO2;
+        }
+
+        // Town name or base code, may be null
+        public String getGroup() {
+            return group;
+        }
+
+        public int getHeadquarters() {
+            return headquarters;
+        }
+
+        public int getCodes() {
+            return codes;
+        }
+    }
+}
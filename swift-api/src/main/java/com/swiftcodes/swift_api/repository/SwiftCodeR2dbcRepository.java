@@ -0,0 +1,80 @@
+package com.swiftcodes.swift_api.repository;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads of swift_codes for the reactive profile, same queries and ordering as the
+// derived SwiftCodeRepository methods. Rows are emitted as the driver delivers them, only as fast
+// as the subscriber requests them.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class SwiftCodeR2dbcRepository {
+
+    private static final String COLUMNS =
+            "SELECT swift_code, bank_name, address, town_name, is_headquarter, country_iso2, country_name FROM swift_codes ";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public SwiftCodeR2dbcRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<SwiftCode> findBySwiftCode(String swiftCode) {
+        return databaseClient.sql(COLUMNS + "WHERE swift_code = :code")
+                .bind("code", swiftCode)
+                .map(SwiftCodeR2dbcRepository::toSwiftCode)
+                .one();
+    }
+
+    public Flux<SwiftCode> findByBaseCodeAndSwiftCodeNot(String baseCode, String swiftCode) {
+        return databaseClient.sql(COLUMNS + "WHERE base_code = :base AND swift_code <> :code")
+                .bind("base", baseCode)
+                .bind("code", swiftCode)
+                .map(SwiftCodeR2dbcRepository::toSwiftCode)
+                .all();
+    }
+
+    public Mono<Boolean> existsByCountryISO2(String countryISO2) {
+        return databaseClient.sql("SELECT 1 FROM swift_codes WHERE country_iso2 = :country LIMIT 1")
+                .bind("country", countryISO2)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Flux<SwiftCode> findByCountryISO2OrderBySwiftCodeAsc(String countryISO2) {
+        return databaseClient.sql(COLUMNS + "WHERE country_iso2 = :country ORDER BY swift_code")
+                .bind("country", countryISO2)
+                .map(SwiftCodeR2dbcRepository::toSwiftCode)
+                .all();
+    }
+
+    // Keyset page, after is "" for the first one
+    public Flux<SwiftCode> findByCountryISO2AndSwiftCodeGreaterThan(String countryISO2, String after, int limit) {
+        return databaseClient.sql(COLUMNS + "WHERE country_iso2 = :country AND swift_code > :after ORDER BY swift_code LIMIT :limit")
+                .bind("country", countryISO2)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(SwiftCodeR2dbcRepository::toSwiftCode)
+                .all();
+    }
+
+    private static SwiftCode toSwiftCode(Readable row) {
+        SwiftCode swiftCode = new SwiftCode();
+        swiftCode.setSwiftCode(row.get("swift_code", String.class));
+        swiftCode.setBankName(row.get("bank_name", String.class));
+        swiftCode.setAddress(row.get("address", String.class));
+        swiftCode.setTownName(row.get("town_name", String.class));
+        swiftCode.setHeadquarter(Boolean.TRUE.equals(row.get("is_headquarter", Boolean.class)));
+        swiftCode.setCountryISO2(row.get("country_iso2", String.class));
+        swiftCode.setCountryName(row.get("country_name", String.class));
+        return swiftCode;
+    }
+}
@@ -1,20 +1,69 @@
 package com.swiftcodes.swift_api.repository;
 
 import com.swiftcodes.swift_api.entity.SwiftCode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SwiftCodeRepository extends JpaRepository<SwiftCode, String> {
 
-    // Custom method to find a SwiftCode by swiftCode
+    // Read paths select SwiftCode(swiftCode, bankName, address, isHeadquarter, countryISO2, countryName)
+    // instead of the entity: only the columns the responses show, and the rows are never managed by
+    // the persistence context, so nothing is snapshotted or dirty-checked. Read-only transactions.
+    String ROW = "select new com.swiftcodes.swift_api.entity.SwiftCode("
+            + "s.swiftCode, s.bankName, s.address, s.isHeadquarter, s.countryISO2, s.countryName) from SwiftCode s ";
+
+    // Custom method to find a SwiftCode by swiftCode, as a managed entity for writes
     Optional<SwiftCode> findBySwiftCode(String swiftCode);
 
-    // Custom method to find all SwiftCodes by country ISO2
-    List<SwiftCode> findByCountryISO2(String countryISO2);
+    @Transactional(readOnly = true)
+    @Query(ROW + "where s.swiftCode = :swiftCode")
+    Optional<SwiftCode> findRowBySwiftCode(String swiftCode);
+
+    // A headquarter and all of its branches in one query, an equality lookup on idx_swift_codes_base_code
+    @Transactional(readOnly = true)
+    @Query(ROW + "where s.baseCode = :baseCode")
+    List<SwiftCode> findRowsByBaseCode(String baseCode);
+
+    // Batch lookup, callers keep the IN list to a bounded chunk
+    @Transactional(readOnly = true)
+    @Query(ROW + "where s.swiftCode in :swiftCodes")
+    List<SwiftCode> findRowsBySwiftCodeIn(Collection<String> swiftCodes);
+
+    // All SwiftCodes of a country
+    @Transactional(readOnly = true)
+    @Query(ROW + "where s.countryISO2 = :countryISO2")
+    List<SwiftCode> findRowsByCountryISO2(String countryISO2);
+
+    // Keyset page of a country: the codes after the given one, in SWIFT code order (idx_swift_codes_country_code)
+    @Transactional(readOnly = true)
+    @Query(ROW + "where s.countryISO2 = :countryISO2 and s.swiftCode > :after order by s.swiftCode")
+    List<SwiftCode> findRowsByCountryISO2After(String countryISO2, String after, Limit limit);
+
+    // Whole country in SWIFT code order, read through a server-side cursor (useCursorFetch on MySQL).
+    // Must be consumed and closed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW + "where s.countryISO2 = :countryISO2 order by s.swiftCode")
+    Stream<SwiftCode> streamRowsByCountryISO2(String countryISO2);
+
+    // Every SwiftCode of several base codes at once, for batch branch lookups
+    @Transactional(readOnly = true)
+    @Query(ROW + "where s.baseCode in :baseCodes")
+    List<SwiftCode> findRowsByBaseCodeIn(Collection<String> baseCodes);
+
+    boolean existsByCountryISO2(String countryISO2);
 
     // Custom method to delete a SwiftCode by swiftCode
     void deleteBySwiftCode(String swiftCode);
@@ -23,7 +72,15 @@ public interface SwiftCodeRepository extends JpaRepository<SwiftCode, String> {
     boolean existsBySwiftCode(String swiftCode);
 
     // Custom method to find all SwiftCodes that start with a specific base code (same branch)
+    // Runs as a LIKE 'XXXXXXXX%' scan, prefer findByBaseCodeAndSwiftCodeNot
     List<SwiftCode> findBySwiftCodeStartingWithAndSwiftCodeNot(String baseCode, String excludeSwiftCode);
 
+    // Custom method to find all SwiftCodes sharing a base code, an equality lookup on idx_swift_codes_base_code
+    List<SwiftCode> findByBaseCodeAndSwiftCodeNot(String baseCode, String excludeSwiftCode);
+
+    // Fills base_code for rows written before the column existed
+    @Modifying
+    @Query("update SwiftCode s set s.baseCode = substring(s.swiftCode, 1, 8) where s.baseCode is null")
+    int backfillBaseCodes();
 
 }
@@ -0,0 +1,131 @@
+package com.swiftcodes.swift_api.service;
+
+import com.swiftcodes.swift_api.config.VirtualThreads;
+import com.swiftcodes.swift_api.dto.ImportJobStatus;
+import com.swiftcodes.swift_api.dto.ImportReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Runs uploaded SWIFT files through SwiftCodeImportService in the background.
+// Uploads are spooled to disk first, so neither the request thread nor the heap
+// has to hold the file; jobs run one at a time on a dedicated thread.
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    // Finished jobs are forgotten once this many newer jobs exist
+    private static final int RETAINED_JOBS = 100;
+
+    @Autowired
+    private SwiftCodeImportService importService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${swift.import.spool-dir:${java.io.tmpdir}/swift-imports}")
+    private String spoolDir;
+
+    @Value("${swift.import.max-queued-jobs:10}")
+    private int maxQueuedJobs;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private final Map<String, ImportJobStatus> jobs = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ImportJobStatus> eldest) {
+                    return size() > RETAINED_JOBS;
+                }
+            });
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(Paths.get(spoolDir));
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(maxQueuedJobs);
+        executor.setThreadNamePrefix("swift-import-");
+        VirtualThreads.configure(executor, environment);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    // Spools the upload to disk and queues the import, throws TaskRejectedException when the queue is full
+    public ImportJobStatus submit(MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile(Paths.get(spoolDir), "upload-", ".csv");
+        try {
+            // Multipart parts are already on disk (file-size-threshold: 0), transferTo moves them
+            file.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        ImportJobStatus job = new ImportJobStatus(UUID.randomUUID().toString(), file.getOriginalFilename(), Files.size(spooled));
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job, spooled));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getJobId());
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+        return job;
+    }
+
+    public ImportJobStatus getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void run(ImportJobStatus job, Path spooled) {
+        job.markRunning();
+        try {
+            ImportReport report = importService.importFile(spooled, new ImportProgressListener() {
+                @Override
+                public void onParsed(long rows, long bytesRead) {
+                    job.addParsed(rows, bytesRead);
+                }
+
+                @Override
+                public void onWritten(long rows) {
+                    job.addWritten(rows);
+                }
+            });
+            job.markCompleted(report);
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.getJobId(), e);
+            job.markFailed(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled upload {}", spooled, e);
+            }
+        }
+    }
+}
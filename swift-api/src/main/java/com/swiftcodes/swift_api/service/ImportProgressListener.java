@@ -0,0 +1,16 @@
+package com.swiftcodes.swift_api.service;
+
+// Callbacks fired by SwiftCodeImportService while an import runs, on the importing thread
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = new ImportProgressListener() {
+    };
+
+    // A batch of valid rows came out of the parser, bytesRead is 0 when the input size is unknown
+    default void onParsed(long rows, long bytesRead) {
+    }
+
+    // A batch has been committed to the database
+    default void onWritten(long rows) {
+    }
+}
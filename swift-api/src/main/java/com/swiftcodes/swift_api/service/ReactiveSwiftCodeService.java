@@ -0,0 +1,92 @@
+package com.swiftcodes.swift_api.service;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.index.SwiftCodeFilter;
+import com.swiftcodes.swift_api.index.SwiftCodeIndex;
+import com.swiftcodes.swift_api.index.SwiftCodeReadModel;
+import com.swiftcodes.swift_api.repository.SwiftCodeR2dbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Reactive counterpart of SwiftCodeService's reads: the in-memory index once it is built,
+// R2DBC until then (or when swift.read-model.enabled=false). Nothing here blocks.
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSwiftCodeService {
+
+    // Rows taken from the read model per request from downstream when emitting a whole country
+    private static final int COUNTRY_STEP = 500;
+
+    @Autowired
+    private SwiftCodeR2dbcRepository r2dbcRepository;
+
+    @Autowired
+    private SwiftCodeIndex swiftCodeIndex;
+
+    @Autowired
+    private SwiftCodeFilter swiftCodeFilter;
+
+    public Mono<SwiftCode> getSwiftCodeByCode(String swiftCode) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return Mono.justOrEmpty(snapshot.findByCode(swiftCode));
+        }
+        // Unknown codes are answered by the Bloom filter and the negative cache, without a query
+        long filterVersion = swiftCodeFilter.version();
+        if (swiftCodeFilter.isKnownAbsent(swiftCode)) {
+            return Mono.empty();
+        }
+        return r2dbcRepository.findBySwiftCode(swiftCode)
+                .switchIfEmpty(Mono.fromRunnable(() -> swiftCodeFilter.recordMiss(swiftCode, filterVersion)));
+    }
+
+    public Flux<SwiftCode> findBranchesByBaseCode(String baseCode, String excludeSwiftCode) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return Flux.fromIterable(snapshot.findBranches(baseCode, excludeSwiftCode));
+        }
+        return r2dbcRepository.findByBaseCodeAndSwiftCodeNot(baseCode, excludeSwiftCode);
+    }
+
+    public Mono<Boolean> hasSwiftCodesInCountry(String countryISO2) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return Mono.just(!snapshot.findByCountry(countryISO2, null, 1).isEmpty());
+        }
+        return r2dbcRepository.existsByCountryISO2(countryISO2);
+    }
+
+    // Every SwiftCode of a country in SWIFT code order, produced on demand: the read model is
+    // walked one page per request from downstream, the database streams as the driver is asked for rows
+    public Flux<SwiftCode> getSwiftCodesByCountry(String countryISO2) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot == null) {
+            return r2dbcRepository.findByCountryISO2OrderBySwiftCodeAsc(countryISO2);
+        }
+        return Flux.<List<SwiftCode>, String>generate(() -> "", (after, sink) -> {
+                    List<SwiftCode> page = snapshot.findByCountry(countryISO2, after.isEmpty() ? null : after, COUNTRY_STEP);
+                    if (page.isEmpty()) {
+                        sink.complete();
+                        return after;
+                    }
+                    sink.next(page);
+                    return page.get(page.size() - 1).getSwiftCode();
+                })
+                .concatMapIterable(page -> page);
+    }
+
+    // One keyset page of a country: at most limit codes after the given code (null for the first page)
+    public Mono<List<SwiftCode>> getSwiftCodesByCountry(String countryISO2, String after, int limit) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return Mono.just(snapshot.findByCountry(countryISO2, after, limit));
+        }
+        return r2dbcRepository.findByCountryISO2AndSwiftCodeGreaterThan(countryISO2, after == null ? "" : after, limit)
+                .collectList();
+    }
+}
@@ -1,41 +1,347 @@
 package com.swiftcodes.swift_api.service;
 
+import com.swiftcodes.swift_api.dto.ImportReport;
+import com.swiftcodes.swift_api.entity.ImportManifest;
 import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.repository.ImportManifestRepository;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository;
 import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
+import com.swiftcodes.swift_api.util.RecordHashes;
 import com.swiftcodes.swift_api.util.SwiftFileParser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class SwiftCodeImportService {
 
+    private static final String DEFAULT_FILE = "data/Interns_2025_SWIFT_CODES-Sheet1.csv";
+    private static final String DEFAULT_SOURCE = "classpath:" + DEFAULT_FILE;
+
+    private static final Logger log = LoggerFactory.getLogger(SwiftCodeImportService.class);
+
+    // Runs of a batch that keeps hitting the unique key before its rows count as rejected
+    private static final int BATCH_ATTEMPTS = 3;
+
     @Autowired
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Autowired
+    private SwiftCodeBulkRepository bulkRepository;
+
+    @Autowired
+    private ImportManifestRepository manifestRepository;
+
     @Autowired
     private SwiftFileParser parser;
 
-    @Transactional
-    public void importFromDefaultFile() throws IOException {
-        // Load the resource as an InputStream using class loader
-        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("data/Interns_2025_SWIFT_CODES-Sheet1.csv")) {
-            if (inputStream == null) {
-                throw new IOException("File not found in resources: data/Interns_2025_SWIFT_CODES-Sheet1.csv");
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${swift.import.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Rows per second of the last import, for the swift.import.rows-per-second gauge
+    private final AtomicLong lastRowsPerSecond = new AtomicLong();
+
+    // swift.import.batch: one batch transaction (IN query plus insert and update batches)
+    // swift.import.rows{result=inserted|updated|skipped|deleted|rejected}: rows per outcome, all imports
+    // swift.import.rows-per-second: throughput of the last import
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("swift.import.rows-per-second", lastRowsPerSecond, AtomicLong::get)
+                .description("Rows per second of the last import")
+                .register(meterRegistry);
+    }
+
+    // One of the SwiftFileParser entry points, feeding the batch writer
+    @FunctionalInterface
+    private interface ParseStep {
+        SwiftFileParser.ParseSummary run(SwiftFileParser.BatchConsumer consumer) throws IOException;
+    }
+
+    public ImportReport importFromDefaultFile() throws IOException {
+        return importFromDefaultFile(false);
+    }
+
+    // Imports the bundled CSV. Nothing is written when the file has the same fingerprint as at
+    // the previous import; otherwise only the records whose content changed reach the database
+    // and records that disappeared from the file are deleted.
+    // force skips both checks and upserts every row, e.g. to restore rows deleted through the API.
+    public ImportReport importFromDefaultFile(boolean force) throws IOException {
+        ClassPathResource resource = new ClassPathResource(DEFAULT_FILE);
+        if (!resource.exists()) {
+            throw new IOException("File not found in resources: " + DEFAULT_FILE);
+        }
+
+        String fingerprint;
+        try (InputStream inputStream = resource.getInputStream()) {
+            fingerprint = fingerprint(inputStream);
+        }
+        ImportManifest manifest = manifestRepository.findById(DEFAULT_SOURCE).orElse(null);
+        if (!force && manifest != null && manifest.getFingerprint().equals(fingerprint)) {
+            ImportReport report = new ImportReport();
+            report.setMessage("SWIFT codes unchanged since the last import, nothing to do.");
+            return report;
+        }
+
+        Delta delta = new Delta(force || manifest == null ? null : RecordHashes.decode(manifest.getRecordHashes()));
+        ImportReport report;
+        // Exploded classpath (IDE, tests): use the memory-mapped parser; inside a jar: stream it
+        if (resource.isFile()) {
+            Path file = resource.getFile().toPath();
+            report = runImport(consumer -> parser.parseFile(file, batchSize, consumer), ImportProgressListener.NONE, delta);
+        } else {
+            try (InputStream inputStream = resource.getInputStream()) {
+                report = runImport(consumer -> parser.parseStream(inputStream, batchSize, consumer), ImportProgressListener.NONE, delta);
+            }
+        }
+
+        saveManifest(DEFAULT_SOURCE, fingerprint, delta.current.build());
+        return report;
+    }
+
+    // Imports a SWIFT directory file of any size, writing batches while the file is still being parsed
+    public ImportReport importFile(Path file) throws IOException {
+        return importFile(file, ImportProgressListener.NONE);
+    }
+
+    public ImportReport importFile(Path file, ImportProgressListener listener) throws IOException {
+        return runImport(consumer -> parser.parseFile(file, batchSize, consumer), listener, null);
+    }
+
+    // Upserts already parsed rows
+    public ImportReport importCodes(List<SwiftCode> codes) {
+        try {
+            return runImport(consumer -> {
+                for (int from = 0; from < codes.size(); from += batchSize) {
+                    consumer.accept(codes.subList(from, Math.min(from + batchSize, codes.size())), 0);
+                }
+                return new SwiftFileParser.ParseSummary();
+            }, ImportProgressListener.NONE, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Upserts the rows in batches of swift.import.batch-size, each batch in its own transaction.
+    // Per batch: one IN query for the existing rows, one JDBC batch of inserts and one of updates.
+    // When a code appears several times in one batch, the last row wins.
+    // With a delta, rows whose hash matches the previous import are skipped before any query,
+    // and the codes missing from this version of the file are deleted at the end.
+    private ImportReport runImport(ParseStep parse, ImportProgressListener listener, Delta delta) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Rows created before the base_code column existed
+        transaction.executeWithoutResult(status -> swiftCodeRepository.backfillBaseCodes());
+
+        SwiftFileParser.ParseSummary summary = parse.run((batch, bytesRead) -> {
+            listener.onParsed(batch.size(), bytesRead);
+            if (batch.isEmpty()) {
+                return;
             }
+            report.setRowsRead(report.getRowsRead() + batch.size());
+            List<SwiftCode> changed = batch;
+            if (delta != null) {
+                changed = delta.changed(batch);
+                report.setRowsSkipped(report.getRowsSkipped() + batch.size() - changed.size());
+            }
+            if (!changed.isEmpty()) {
+                writeBatch(transaction, changed, report);
+            }
+            listener.onWritten(batch.size());
+        });
+
+        if (delta != null) {
+            List<String> removed = delta.removed();
+            for (int from = 0; from < removed.size(); from += batchSize) {
+                List<String> codes = removed.subList(from, Math.min(from + batchSize, removed.size()));
+                Integer deleted = transaction.execute(status -> bulkRepository.deleteAll(codes));
+                report.setRowsDeleted(report.getRowsDeleted() + deleted);
+            }
+        }
+
+        report.setRowsRejected(report.getRowsRejected() + summary.getRowsRejected());
+        report.setRowsRead(report.getRowsRead() + summary.getRowsRejected());
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        report.setMessage("SWIFT codes imported from CSV.");
+        recordMetrics(report);
+
+        // Read models only need a rebuild when something was actually written
+        if (report.getRowsInserted() + report.getRowsUpdated() + report.getRowsDeleted() > 0) {
+            eventPublisher.publishEvent(SwiftCodeChangeEvent.imported());
+        }
+        return report;
+    }
+
+    private void recordMetrics(ImportReport report) {
+        meterRegistry.counter("swift.import.rows", "result", "inserted").increment(report.getRowsInserted());
+        meterRegistry.counter("swift.import.rows", "result", "updated").increment(report.getRowsUpdated());
+        meterRegistry.counter("swift.import.rows", "result", "skipped").increment(report.getRowsSkipped());
+        meterRegistry.counter("swift.import.rows", "result", "deleted").increment(report.getRowsDeleted());
+        meterRegistry.counter("swift.import.rows", "result", "rejected").increment(report.getRowsRejected());
+        lastRowsPerSecond.set(report.getRowsPerSecond());
+    }
+
+    // Another import or a POST can insert one of the batch's codes between its IN query and its insert.
+    // The unique key then rolls the batch back, and running it again finds that row and updates it.
+    // A batch that still fails (e.g. a row violating another constraint) is counted as rejected,
+    // the rest of the file is imported.
+    private void writeBatch(TransactionTemplate transaction, List<SwiftCode> rows, ImportReport report) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                meterRegistry.timer("swift.import.batch")
+                        .record(() -> transaction.executeWithoutResult(status -> importBatch(rows, report)));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == BATCH_ATTEMPTS) {
+                    log.warn("Import batch of {} rows rejected after {} attempts", rows.size(), attempt, e);
+                    report.setRowsRejected(report.getRowsRejected() + rows.size());
+                    return;
+                }
+                log.debug("Import batch hit a concurrently written code, retrying", e);
+            }
+        }
+    }
+
+    private void importBatch(List<SwiftCode> batch, ImportReport report) {
+        Map<String, SwiftCode> unique = new LinkedHashMap<>();
+        for (SwiftCode code : batch) {
+            unique.put(code.getSwiftCode(), code);
+        }
+        long skipped = batch.size() - unique.size();
+
+        Map<String, SwiftCode> existing = bulkRepository.findExisting(unique.keySet());
+        List<SwiftCode> inserts = new ArrayList<>();
+        List<SwiftCode> updates = new ArrayList<>();
+        for (SwiftCode code : unique.values()) {
+            SwiftCode current = existing.get(code.getSwiftCode());
+            if (current == null) {
+                inserts.add(code);
+            } else if (!sameContent(current, code)) {
+                updates.add(code);
+            } else {
+                skipped++;
+            }
+        }
 
-            List<SwiftCode> codes = parser.parseCSV(inputStream);
+        bulkRepository.insertAll(inserts);
+        bulkRepository.updateAll(updates);
+
+        report.setRowsInserted(report.getRowsInserted() + inserts.size());
+        report.setRowsUpdated(report.getRowsUpdated() + updates.size());
+        report.setRowsSkipped(report.getRowsSkipped() + skipped);
+    }
+
+    private void saveManifest(String source, String fingerprint, RecordHashes hashes) {
+        ImportManifest manifest = new ImportManifest();
+        manifest.setSource(source);
+        manifest.setFingerprint(fingerprint);
+        manifest.setRecordCount(hashes.size());
+        manifest.setImportedAt(Instant.now());
+        manifest.setRecordHashes(hashes.encode());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> manifestRepository.save(manifest));
+    }
+
+    // SHA-256 of the raw file content, hex encoded
+    private static String fingerprint(InputStream inputStream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static boolean sameContent(SwiftCode a, SwiftCode b) {
+        return Objects.equals(a.getBankName(), b.getBankName())
+                && Objects.equals(a.getAddress(), b.getAddress())
+                && Objects.equals(a.getTownName(), b.getTownName())
+                && a.isHeadquarter() == b.isHeadquarter()
+                && Objects.equals(a.getCountryISO2(), b.getCountryISO2())
+                && Objects.equals(a.getCountryName(), b.getCountryName());
+    }
+
+    // Record-level diff of a source file against the hashes stored by its previous import.
+    // Only used from the thread running the import.
+    private static final class Delta {
+
+        private final RecordHashes previous;
+        private final boolean[] seen;
+        private final RecordHashes.Builder current = new RecordHashes.Builder();
+
+        // previous is null when there is nothing to diff against, every row then counts as changed
+        private Delta(RecordHashes previous) {
+            this.previous = previous;
+            this.seen = new boolean[previous == null ? 0 : previous.size()];
+        }
+
+        private List<SwiftCode> changed(List<SwiftCode> batch) {
+            List<SwiftCode> changed = new ArrayList<>();
+            for (SwiftCode code : batch) {
+                long hash = RecordHashes.hash(code);
+                current.add(code.getSwiftCode(), hash);
+
+                int index = previous == null ? -1 : previous.indexOf(code.getSwiftCode());
+                if (index >= 0) {
+                    seen[index] = true;
+                }
+                if (index < 0 || previous.hashAt(index) != hash) {
+                    changed.add(code);
+                }
+            }
+            return changed;
+        }
 
-            for (SwiftCode code : codes) {
-                // Check if SwiftCode exists in the database before saving
-                if (!swiftCodeRepository.existsBySwiftCode(code.getSwiftCode())) {
-                    swiftCodeRepository.save(code);
+        // Codes of the previous version that this version no longer contains
+        private List<String> removed() {
+            List<String> removed = new ArrayList<>();
+            for (int i = 0; i < seen.length; i++) {
+                if (!seen[i]) {
+                    removed.add(previous.codeAt(i));
                 }
             }
+            return removed;
         }
     }
 }
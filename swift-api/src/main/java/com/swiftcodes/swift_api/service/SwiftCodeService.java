@@ -1,52 +1,393 @@
 package com.swiftcodes.swift_api.service;
 
+import com.swiftcodes.swift_api.config.DataSourceRouting;
 import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.index.SwiftCodeAggregates;
+import com.swiftcodes.swift_api.index.SwiftCodeFilter;
+import com.swiftcodes.swift_api.index.SwiftCodeIndex;
+import com.swiftcodes.swift_api.index.SwiftCodeReadModel;
+import com.swiftcodes.swift_api.index.SwiftCodeSearchIndex;
+import com.swiftcodes.swift_api.index.SwiftCodeStats;
+import com.swiftcodes.swift_api.index.SwiftCodeTextIndex;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository;
 import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
 
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class SwiftCodeService {
 
+    // Rows taken from the read model per step when iterating a whole country
+    private static final int COUNTRY_STEP = 500;
+
+    // Codes per IN query in batch lookups, and per IN query and JDBC batch in bulk writes
+    private static final int LOOKUP_CHUNK = 1000;
+
     @Autowired
     private SwiftCodeRepository swiftCodeRepository;
 
+    @Autowired
+    private SwiftCodeBulkRepository bulkRepository;
+
+    @Autowired
+    private SwiftCodeIndex swiftCodeIndex;
+
+    @Autowired
+    private SwiftCodeFilter swiftCodeFilter;
+
+    @Autowired
+    private SwiftCodeSearchIndex swiftCodeSearchIndex;
+
+    @Autowired
+    private SwiftCodeStats swiftCodeStats;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     // Method to check if a SwiftCode exists by swiftCode (string)
+    // Checked before writes, so always on the primary
+    @Transactional(readOnly = true)
     public boolean existsBySwiftCode(String swiftCode) {
         return swiftCodeRepository.existsBySwiftCode(swiftCode);
     }
-    
+
 
     // Method to get SwiftCode by swiftCode (string)
+    // Reads are served from the in-memory index once it is built and never open a transaction.
+    // Otherwise they run read-only projection queries (SwiftCodeRepository.ROW), which may be
+    // answered by a replica when replicas are configured.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<SwiftCode> getSwiftCodeByCode(String swiftCode) {
-        return swiftCodeRepository.findBySwiftCode(swiftCode);
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return Optional.ofNullable(snapshot.findByCode(swiftCode));
+        }
+        // Unknown codes are answered by the Bloom filter and the negative cache, without a query
+        long filterVersion = swiftCodeFilter.version();
+        if (swiftCodeFilter.isKnownAbsent(swiftCode)) {
+            return Optional.empty();
+        }
+        Optional<SwiftCode> found =
+                DataSourceRouting.readFromReplica(() -> swiftCodeRepository.findRowBySwiftCode(swiftCode));
+        if (found.isEmpty()) {
+            swiftCodeFilter.recordMiss(swiftCode, filterVersion);
+        }
+        return found;
+    }
+
+    // Method to get a SwiftCode and, for a headquarter, its branches, as GET /{swiftCode} shows them.
+    // From the database in one query: a headquarter shares its base code with all of its branches.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<SwiftCodeWithBranches> getSwiftCodeWithBranches(String swiftCode) {
+        boolean headquarter = swiftCode.endsWith("XXX");
+        String baseCode = SwiftCode.baseCodeOf(swiftCode);
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            SwiftCode found = snapshot.findByCode(swiftCode);
+            return found == null ? Optional.empty() : Optional.of(new SwiftCodeWithBranches(
+                    found, headquarter ? snapshot.findBranches(baseCode, swiftCode) : null));
+        }
+        if (!headquarter) {
+            return getSwiftCodeByCode(swiftCode).map(found -> new SwiftCodeWithBranches(found, null));
+        }
+        long filterVersion = swiftCodeFilter.version();
+        if (swiftCodeFilter.isKnownAbsent(swiftCode)) {
+            return Optional.empty();
+        }
+        List<SwiftCode> rows = DataSourceRouting.readFromReplica(() -> swiftCodeRepository.findRowsByBaseCode(baseCode));
+        SwiftCode found = null;
+        List<SwiftCode> branches = new ArrayList<>(rows.size());
+        for (SwiftCode row : rows) {
+            if (row.getSwiftCode().equals(swiftCode)) {
+                found = row;
+            } else {
+                branches.add(row);
+            }
+        }
+        if (found == null) {
+            swiftCodeFilter.recordMiss(swiftCode, filterVersion);
+            return Optional.empty();
+        }
+        return Optional.of(new SwiftCodeWithBranches(found, branches));
+    }
+
+    // Method to resolve many SwiftCodes at once, keyed by code; unknown codes are simply absent.
+    // The read model answers code by code, the database in IN queries of LOOKUP_CHUNK codes.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, SwiftCode> getSwiftCodesByCodes(Collection<String> swiftCodes) {
+        Map<String, SwiftCode> found = new HashMap<>();
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            for (String code : swiftCodes) {
+                SwiftCode swiftCode = snapshot.findByCode(code);
+                if (swiftCode != null) {
+                    found.put(code, swiftCode);
+                }
+            }
+            return found;
+        }
+        List<String> candidates = new ArrayList<>(swiftCodes.size());
+        for (String code : swiftCodes) {
+            if (!swiftCodeFilter.isKnownAbsent(code)) {
+                candidates.add(code);
+            }
+        }
+        for (List<String> chunk : chunks(candidates)) {
+            DataSourceRouting.readFromReplica(() -> swiftCodeRepository.findRowsBySwiftCodeIn(chunk))
+                    .forEach(row -> found.put(row.getSwiftCode(), row));
+        }
+        return found;
+    }
+
+    // Method to get the branches of many headquarters at once, keyed by headquarter code.
+    // Same contract as findBranchesByBaseCode for each of them.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, List<SwiftCode>> findBranchesByHeadquarters(Collection<String> headquarterCodes) {
+        Map<String, List<SwiftCode>> branches = new HashMap<>();
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            for (String code : headquarterCodes) {
+                branches.put(code, snapshot.findBranches(code.substring(0, 8), code));
+            }
+            return branches;
+        }
+        Map<String, String> headquarterByBase = new HashMap<>();
+        for (String code : headquarterCodes) {
+            headquarterByBase.put(code.substring(0, 8), code);
+            branches.put(code, new ArrayList<>());
+        }
+        for (List<String> chunk : chunks(headquarterByBase.keySet())) {
+            List<SwiftCode> rows =
+                    DataSourceRouting.readFromReplica(() -> swiftCodeRepository.findRowsByBaseCodeIn(chunk));
+            for (SwiftCode row : rows) {
+                String headquarter = headquarterByBase.get(row.getBaseCode());
+                if (!row.getSwiftCode().equals(headquarter)) {
+                    branches.get(headquarter).add(row);
+                }
+            }
+        }
+        return branches;
     }
 
     // Method to get all SwiftCodes for a given country ISO2 code
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SwiftCode> getSwiftCodesByCountry(String countryISO2) {
-        return swiftCodeRepository.findByCountryISO2(countryISO2);
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return snapshot.findByCountry(countryISO2);
+        }
+        return DataSourceRouting.readFromReplica(() -> swiftCodeRepository.findRowsByCountryISO2(countryISO2));
+    }
+
+    // Method to get one keyset page of a country: at most limit codes after the given code (null for the first page)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<SwiftCode> getSwiftCodesByCountry(String countryISO2, String after, int limit) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return snapshot.findByCountry(countryISO2, after, limit);
+        }
+        return DataSourceRouting.readFromReplica(() ->
+                swiftCodeRepository.findRowsByCountryISO2After(
+                        countryISO2, after == null ? "" : after, Limit.of(limit)));
+    }
+
+    // Method to check if a country has any SwiftCode
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean hasSwiftCodesInCountry(String countryISO2) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return !snapshot.findByCountry(countryISO2, null, 1).isEmpty();
+        }
+        return DataSourceRouting.readFromReplica(() -> swiftCodeRepository.existsByCountryISO2(countryISO2));
+    }
+
+    // Method to pass every SwiftCode of a country to action, in SWIFT code order, without holding the
+    // whole country in memory: the read model is walked page by page, the database through a cursor
+    // over unmanaged rows
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public void forEachSwiftCodeInCountry(String countryISO2, Consumer<SwiftCode> action) {
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            String after = null;
+            List<SwiftCode> page;
+            do {
+                page = snapshot.findByCountry(countryISO2, after, COUNTRY_STEP);
+                page.forEach(action);
+                after = page.isEmpty() ? null : page.get(page.size() - 1).getSwiftCode();
+            } while (page.size() == COUNTRY_STEP);
+            return;
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        DataSourceRouting.runOnReplica(() -> transaction.executeWithoutResult(status -> {
+            try (Stream<SwiftCode> rows = swiftCodeRepository.streamRowsByCountryISO2(countryISO2)) {
+                rows.forEach(action);
+            }
+        }));
     }
 
     // Method to add SwiftCode
     public SwiftCode addSwiftCode(SwiftCode swiftCode) {
-        return swiftCodeRepository.save(swiftCode);
+        SwiftCode saved = swiftCodeRepository.save(swiftCode);
+        eventPublisher.publishEvent(SwiftCodeChangeEvent.added(saved));
+        return saved;
     }
 
-    // Method to delete SwiftCode by swiftCode
+    // Method to delete SwiftCode by swiftCode, false when there was none
+    // Same round trips as the derived deleteBySwiftCode, but keeps the row for the change event
+    public boolean deleteSwiftCode(String swiftCode) {
+        Optional<SwiftCode> existing = swiftCodeRepository.findBySwiftCode(swiftCode);
+        existing.ifPresent(row -> {
+            swiftCodeRepository.delete(row);
+            // Deleted now rather than at commit, before the change log locks its sequence row
+            swiftCodeRepository.flush();
+            eventPublisher.publishEvent(SwiftCodeChangeEvent.deleted(row));
+        });
+        return existing.isPresent();
+    }
 
-    public void deleteSwiftCode(String swiftCode) {
-        swiftCodeRepository.deleteBySwiftCode(swiftCode);
+    // Method to add many validated, distinct SwiftCodes in one transaction, skipping the ones that exist.
+    // One IN query per LOOKUP_CHUNK codes finds those, the others are inserted as JDBC batches and
+    // published as a single change. Returns the codes that already existed.
+    public Set<String> addSwiftCodes(List<SwiftCode> swiftCodes) {
+        List<String> codes = new ArrayList<>(swiftCodes.size());
+        swiftCodes.forEach(code -> codes.add(code.getSwiftCode()));
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunks(codes)) {
+            existing.addAll(bulkRepository.findExistingCodes(chunk));
+        }
+
+        List<SwiftCode> inserts = new ArrayList<>(swiftCodes.size() - existing.size());
+        for (SwiftCode code : swiftCodes) {
+            if (!existing.contains(code.getSwiftCode())) {
+                inserts.add(code);
+            }
+        }
+        for (int from = 0; from < inserts.size(); from += LOOKUP_CHUNK) {
+            bulkRepository.insertAll(inserts.subList(from, Math.min(from + LOOKUP_CHUNK, inserts.size())));
+        }
+        if (!inserts.isEmpty()) {
+            eventPublisher.publishEvent(SwiftCodeChangeEvent.added(inserts));
+        }
+        return existing;
+    }
+
+    // Method to delete many SwiftCodes in one transaction, returns the codes that existed.
+    // The rows are read and locked with one IN query per LOOKUP_CHUNK codes, for the change event,
+    // then removed with one DELETE ... IN per chunk.
+    public Set<String> deleteSwiftCodes(Collection<String> swiftCodes) {
+        List<SwiftCode> rows = new ArrayList<>();
+        for (List<String> chunk : chunks(swiftCodes)) {
+            rows.addAll(bulkRepository.lockExisting(chunk).values());
+        }
+
+        Set<String> deleted = new HashSet<>();
+        rows.forEach(row -> deleted.add(row.getSwiftCode()));
+        for (List<String> chunk : chunks(deleted)) {
+            bulkRepository.deleteAll(chunk);
+        }
+        if (!rows.isEmpty()) {
+            eventPublisher.publishEvent(SwiftCodeChangeEvent.deleted(rows));
+        }
+        return deleted;
     }
 
     // Method to get all SwiftCodes that begin with a specific base code
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<SwiftCode> findBranchesByBaseCode(String baseCode, String excludeSwiftCode) {
-        return swiftCodeRepository.findBySwiftCodeStartingWithAndSwiftCodeNot(baseCode, excludeSwiftCode);
+        SwiftCodeReadModel snapshot = swiftCodeIndex.current();
+        if (snapshot != null) {
+            return snapshot.findBranches(baseCode, excludeSwiftCode);
+        }
+        List<SwiftCode> rows = DataSourceRouting.readFromReplica(() -> swiftCodeRepository.findRowsByBaseCode(baseCode));
+        rows.removeIf(row -> row.getSwiftCode().equals(excludeSwiftCode));
+        return rows;
+    }
+
+    // Method to search bank names, towns and addresses: one page of ranked matches,
+    // null while the search index is being built (never a LIKE scan of the table)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SwiftCodeTextIndex.Result searchSwiftCodes(String query, String countryISO2, boolean fuzzy, int offset, int limit) {
+        return swiftCodeSearchIndex.search(query, countryISO2, fuzzy, offset, limit);
+    }
+
+    // Method to get dataset totals, per-country counts and the busiest towns,
+    // null while the statistics are being counted (never a scan of the table)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SwiftCodeAggregates.Summary getStats(int topTowns) {
+        SwiftCodeAggregates aggregates = swiftCodeStats.current();
+        return aggregates != null ? aggregates.summary(topTowns) : null;
+    }
+
+    // Method to get the counts of one country, empty when it has no codes
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<SwiftCodeAggregates.CountryStats> getCountryStats(String countryISO2, int topTowns) {
+        SwiftCodeAggregates aggregates = swiftCodeStats.current();
+        return aggregates != null ? Optional.ofNullable(aggregates.country(countryISO2, topTowns)) : Optional.empty();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean isStatsReady() {
+        return swiftCodeStats.current() != null;
+    }
+
+    // Method to compare the statistics with counts made by the database.
+    // Not in a transaction: each attempt of the check counts in its own.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SwiftCodeAggregates.Comparison checkStats() {
+        return swiftCodeStats.check();
+    }
+
+    // A SwiftCode with its branches, null for a branch code
+    public static final class SwiftCodeWithBranches {
+
+        private final SwiftCode swiftCode;
+        private final List<SwiftCode> branches;
+
+        public SwiftCodeWithBranches(SwiftCode swiftCode, List<SwiftCode> branches) {
+            this.swiftCode = swiftCode;
+            this.branches = branches;
+        }
+
+        public SwiftCode getSwiftCode() {
+            return swiftCode;
+        }
+
+        public List<SwiftCode> getBranches() {
+            return branches;
+        }
+    }
+
+    private static List<List<String>> chunks(Collection<String> codes) {
+        List<String> all = new ArrayList<>(codes);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            chunks.add(all.subList(from, Math.min(from + LOOKUP_CHUNK, all.size())));
+        }
+        return chunks;
     }
-    
 }
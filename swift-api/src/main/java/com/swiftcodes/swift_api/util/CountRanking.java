@@ -0,0 +1,134 @@
+package com.swiftcodes.swift_api.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Counts per key, incremented and decremented in O(1) and listed from the highest count down in O(n)
+// for the first n keys. Keys with the same count share a bucket, buckets form a list ordered by count
+// (the layout of an O(1) LFU cache), so a change only moves a key to the neighbouring bucket.
+// Keys of equal count are listed in the order they reached it. Not thread-safe.
+public final class CountRanking<K> {
+
+    private final Map<K, Bucket<K>> buckets = new HashMap<>();
+    private Bucket<K> highest;
+    private Bucket<K> lowest;
+
+    public void increment(K key) {
+        Bucket<K> current = buckets.get(key);
+        Bucket<K> target;
+        if (current == null) {
+            if (lowest != null && lowest.count == 1) {
+                target = lowest;
+            } else {
+                target = new Bucket<>(1);
+                link(target, lowest, null);
+            }
+        } else {
+            target = current.higher != null && current.higher.count == current.count + 1
+                    ? current.higher
+                    : link(new Bucket<>(current.count + 1), current.higher, current);
+            leave(current, key);
+        }
+        target.keys.add(key);
+        buckets.put(key, target);
+    }
+
+    public void decrement(K key) {
+        Bucket<K> current = buckets.get(key);
+        if (current == null) {
+            return;
+        }
+        if (current.count == 1) {
+            buckets.remove(key);
+        } else {
+            Bucket<K> target = current.lower != null && current.lower.count == current.count - 1
+                    ? current.lower
+                    : link(new Bucket<>(current.count - 1), current, current.lower);
+            target.keys.add(key);
+            buckets.put(key, target);
+        }
+        leave(current, key);
+    }
+
+    public int count(K key) {
+        Bucket<K> bucket = buckets.get(key);
+        return bucket != null ? bucket.count : 0;
+    }
+
+    // Keys with a count above zero
+    public int size() {
+        return buckets.size();
+    }
+
+    // The n keys with the highest counts, highest first
+    public List<Map.Entry<K, Integer>> top(int n) {
+        List<Map.Entry<K, Integer>> top = new ArrayList<>(Math.min(n, buckets.size()));
+        for (Bucket<K> bucket = highest; bucket != null && top.size() < n; bucket = bucket.lower) {
+            for (K key : bucket.keys) {
+                if (top.size() == n) {
+                    break;
+                }
+                top.add(new AbstractMap.SimpleImmutableEntry<>(key, bucket.count));
+            }
+        }
+        return top;
+    }
+
+    // Every key and its count, in no particular order
+    public Map<K, Integer> toMap() {
+        Map<K, Integer> counts = new HashMap<>();
+        buckets.forEach((key, bucket) -> counts.put(key, bucket.count));
+        return counts;
+    }
+
+    // Puts bucket between the lower and higher ones, either may be null at the ends of the list
+    private Bucket<K> link(Bucket<K> bucket, Bucket<K> higher, Bucket<K> lower) {
+        bucket.higher = higher;
+        bucket.lower = lower;
+        if (higher != null) {
+            higher.lower = bucket;
+        } else {
+            highest = bucket;
+        }
+        if (lower != null) {
+            lower.higher = bucket;
+        } else {
+            lowest = bucket;
+        }
+        return bucket;
+    }
+
+    private void leave(Bucket<K> bucket, K key) {
+        bucket.keys.remove(key);
+        if (!bucket.keys.isEmpty()) {
+            return;
+        }
+        if (bucket.higher != null) {
+            bucket.higher.lower = bucket.lower;
+        } else {
+            highest = bucket.lower;
+        }
+        if (bucket.lower != null) {
+            bucket.lower.higher = bucket.higher;
+        } else {
+            lowest = bucket.higher;
+        }
+    }
+
+    private static final class Bucket<K> {
+
+        private final int count;
+        private final Set<K> keys = new LinkedHashSet<>();
+        private Bucket<K> higher;
+        private Bucket<K> lower;
+
+        private Bucket(int count) {
+            this.count = count;
+        }
+    }
+}
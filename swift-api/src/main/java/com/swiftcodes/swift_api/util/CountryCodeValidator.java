@@ -3,53 +3,106 @@ package com.swiftcodes.swift_api.util;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class CountryCodeValidator {
 
-    private final Set<String> validCodes = new HashSet<>();
+    private static final int LETTERS = 26;
+
+    // Country registry loaded once at startup: a dense 26x26 table indexed by
+    // the two ISO2 letters, null for codes that are not assigned.
+    private final Country[] countries = new Country[LETTERS * LETTERS];
+
+    // Request-path lookups, timed once a MeterRegistry is bound
+    private Timer isValidTimer;
+    private Timer getCountryByCodeTimer;
+
+    // swift.country.lookup{method=isValid|getCountryByCode}. The parser's matches() is not timed,
+    // it runs once per imported row and is covered by the import metrics.
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry registry) {
+        isValidTimer = Timer.builder("swift.country.lookup").tag("method", "isValid").register(registry);
+        getCountryByCodeTimer = Timer.builder("swift.country.lookup").tag("method", "getCountryByCode").register(registry);
+    }
 
     public boolean isValid(String code) {
-        return validCodes.contains(code.toUpperCase());
+        Timer timer = isValidTimer;
+        if (timer == null) {
+            return lookup(code) != null;
+        }
+        long start = System.nanoTime();
+        boolean valid = lookup(code) != null;
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return valid;
     }
 
     @PostConstruct
     public void loadCountryCodes() {
-        try {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("data/countries-iso-2-codes.json")) {
             ObjectMapper mapper = new ObjectMapper();
-            InputStream is = getClass().getClassLoader().getResourceAsStream("data/countries-iso-2-codes.json");
-            List<Country> countries = mapper.readValue(is, new TypeReference<List<Country>>() {});
-            for (Country c : countries) {
-                validCodes.add(c.getCode().toUpperCase());
+            List<Country> loaded = mapper.readValue(is, new TypeReference<List<Country>>() {});
+            for (Country c : loaded) {
+                int slot = slotOf(c.getCode());
+                if (slot < 0) {
+                    throw new IllegalStateException("Invalid country code in registry: " + c.getCode());
+                }
+                c.setCode(c.getCode().toUpperCase());
+                countries[slot] = c;
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to load country codes", e);
         }
     }
 
-    // Getter method to retrieve the Country object by country code
-    public Country getCountryByCode(String countryISO2code) {
-        try {
-            InputStream is = getClass().getClassLoader().getResourceAsStream("data/countries-iso-2-codes.json");
-            ObjectMapper mapper = new ObjectMapper();
-            List<Country> countries = mapper.readValue(is, new TypeReference<List<Country>>() {});
+    // Getter method to retrieve the Country object by country code (case-insensitive, allocation free)
+    public Country getCountryByCode(CharSequence countryISO2code) {
+        Timer timer = getCountryByCodeTimer;
+        if (timer == null) {
+            return lookup(countryISO2code);
+        }
+        long start = System.nanoTime();
+        Country country = lookup(countryISO2code);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return country;
+    }
 
-            for (Country c : countries) {
-                if (c.getCode().equalsIgnoreCase(countryISO2code)) {
-                    return c;
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Error loading country data", e);
+    // True if the ISO2 code exists and the country name matches its canonical name, ignoring case
+    public boolean matches(CharSequence countryISO2code, String countryName) {
+        Country country = lookup(countryISO2code);
+        return country != null && country.getName().equalsIgnoreCase(countryName);
+    }
+
+    private Country lookup(CharSequence countryISO2code) {
+        int slot = slotOf(countryISO2code);
+        return slot < 0 ? null : countries[slot];
+    }
+
+    // Position of a two-letter code in the table, or -1 if it is not made of two ASCII letters
+    private static int slotOf(CharSequence code) {
+        if (code == null || code.length() != 2) {
+            return -1;
+        }
+        int first = letterIndex(code.charAt(0));
+        int second = letterIndex(code.charAt(1));
+        if (first < 0 || second < 0) {
+            return -1;
         }
-        return null;
+        return first * LETTERS + second;
+    }
+
+    private static int letterIndex(char c) {
+        // Setting bit 0x20 folds ASCII upper case onto lower case
+        int index = (c | 0x20) - 'a';
+        return index >= 0 && index < LETTERS ? index : -1;
     }
 
     // Inner class to match JSON structure, remains private
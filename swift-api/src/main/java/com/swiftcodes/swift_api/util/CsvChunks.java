@@ -0,0 +1,204 @@
+package com.swiftcodes.swift_api.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Low-level helpers for reading a memory-mapped CSV file (RFC 4180, same
+// dialect as CSVFormat.DEFAULT) in independent chunks.
+final class CsvChunks {
+
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    // Window mapped while looking for the end of a record that straddles a tentative split point
+    private static final int SCAN_WINDOW = 1 << 20;
+
+    private CsvChunks() {
+    }
+
+    // Splits [0, size) into ranges that each start at the beginning of a record.
+    // The quote state at every tentative split point is derived from the parity of
+    // the number of quote characters before it, which is counted for all segments
+    // in parallel. Each boundary is then moved to the end of the record it falls in.
+    static long[] split(FileChannel channel, long size, long targetChunkSize, ForkJoinPool pool) throws IOException {
+        int segments = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 1, (size + targetChunkSize - 1) / targetChunkSize));
+        long segmentSize = (size + segments - 1) / Math.max(1, segments);
+
+        List<Future<Long>> counts = new ArrayList<>(segments);
+        for (int i = 0; i < segments; i++) {
+            long from = Math.min(size, i * segmentSize);
+            long to = Math.min(size, from + segmentSize);
+            counts.add(pool.submit(() -> countQuotes(channel, from, to)));
+        }
+
+        List<Long> boundaries = new ArrayList<>(segments + 1);
+        boundaries.add(0L);
+        long quotesBefore = 0;
+        for (int i = 1; i < segments; i++) {
+            quotesBefore += join(counts.get(i - 1));
+            long tentative = i * segmentSize;
+            if (tentative >= size) {
+                break;
+            }
+            long boundary = nextRecordStart(channel, size, tentative, (quotesBefore & 1) == 1);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    static MappedByteBuffer map(FileChannel channel, long from, long to) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    }
+
+    private static long countQuotes(FileChannel channel, long from, long to) throws IOException {
+        if (from >= to) {
+            return 0;
+        }
+        MappedByteBuffer buffer = map(channel, from, to);
+        long quotes = 0;
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            if (buffer.get(i) == QUOTE) {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    // First offset >= position that starts a record, given the quote state at position
+    private static long nextRecordStart(FileChannel channel, long size, long position, boolean inQuotes) throws IOException {
+        long windowStart = position;
+        while (windowStart < size) {
+            long windowEnd = Math.min(size, windowStart + SCAN_WINDOW);
+            MappedByteBuffer window = map(channel, windowStart, windowEnd);
+            for (int i = 0, n = window.limit(); i < n; i++) {
+                byte b = window.get(i);
+                if (b == QUOTE) {
+                    inQuotes = !inQuotes;
+                } else if (b == LF && !inQuotes) {
+                    return windowStart + i + 1;
+                }
+            }
+            windowStart = windowEnd;
+        }
+        return size;
+    }
+
+    private static long join(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while splitting CSV file", e);
+        } catch (java.util.concurrent.ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to split CSV file", e.getCause());
+        }
+    }
+
+    // Sequential record reader over one mapped chunk
+    static final class RecordReader {
+
+        private final MappedByteBuffer buffer;
+        private final int limit;
+        private int position;
+        private byte[] scratch = new byte[256];
+        private final List<String> values = new ArrayList<>(8);
+
+        RecordReader(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+        }
+
+        // Offset of the next unread byte within the chunk
+        int position() {
+            return position;
+        }
+
+        // Reads the next record, or returns null at the end of the chunk. Empty lines are skipped.
+        List<String> next() {
+            while (position < limit && isLineBreak(buffer.get(position))) {
+                position = skipLineBreak(position);
+            }
+            if (position >= limit) {
+                return null;
+            }
+
+            values.clear();
+            while (true) {
+                int length = 0;
+                if (buffer.get(position) == QUOTE) {
+                    position++;
+                    while (position < limit) {
+                        byte b = buffer.get(position++);
+                        if (b == QUOTE) {
+                            if (position < limit && buffer.get(position) == QUOTE) {
+                                position++;
+                            } else {
+                                break;
+                            }
+                        }
+                        length = append(length, b);
+                    }
+                }
+                // Unquoted value, or anything trailing a closing quote
+                while (position < limit) {
+                    byte b = buffer.get(position);
+                    if (b == COMMA || isLineBreak(b)) {
+                        break;
+                    }
+                    length = append(length, b);
+                    position++;
+                }
+                values.add(new String(scratch, 0, length, StandardCharsets.UTF_8));
+
+                if (position < limit && buffer.get(position) == COMMA) {
+                    position++;
+                    continue;
+                }
+                if (position < limit) {
+                    position = skipLineBreak(position);
+                }
+                return values;
+            }
+        }
+
+        private int append(int length, byte b) {
+            if (length == scratch.length) {
+                byte[] grown = new byte[scratch.length * 2];
+                System.arraycopy(scratch, 0, grown, 0, length);
+                scratch = grown;
+            }
+            scratch[length] = b;
+            return length + 1;
+        }
+
+        private boolean isLineBreak(byte b) {
+            return b == LF || b == CR;
+        }
+
+        private int skipLineBreak(int at) {
+            if (buffer.get(at) == CR && at + 1 < limit && buffer.get(at + 1) == LF) {
+                return at + 2;
+            }
+            return at + 1;
+        }
+    }
+}
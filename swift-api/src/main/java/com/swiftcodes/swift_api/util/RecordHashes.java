@@ -0,0 +1,137 @@
+package com.swiftcodes.swift_api.util;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Compact, sorted SWIFT code -> content hash table describing one version of a source file.
+// Stored with the import manifest so the next import can tell which records changed.
+public final class RecordHashes {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String[] codes;
+    private final long[] hashes;
+
+    private RecordHashes(String[] codes, long[] hashes) {
+        this.codes = codes;
+        this.hashes = hashes;
+    }
+
+    // 64-bit FNV-1a over every imported column of the row
+    public static long hash(SwiftCode code) {
+        long h = FNV_OFFSET;
+        h = mix(h, code.getSwiftCode());
+        h = mix(h, code.getBankName());
+        h = mix(h, code.getAddress());
+        h = mix(h, code.getTownName());
+        h = mix(h, code.getCountryISO2());
+        h = mix(h, code.getCountryName());
+        h = (h ^ (code.isHeadquarter() ? 1 : 0)) * FNV_PRIME;
+        return h;
+    }
+
+    private static long mix(long h, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // Field separator, so ("AB", "C") and ("A", "BC") differ
+        return (h ^ 0x1F) * FNV_PRIME;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    // Position of the code in the table, or a negative value if it is absent
+    public int indexOf(String swiftCode) {
+        return Arrays.binarySearch(codes, swiftCode);
+    }
+
+    public String codeAt(int index) {
+        return codes[index];
+    }
+
+    public long hashAt(int index) {
+        return hashes[index];
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(codes.length * 20 + 4);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(codes.length);
+            for (int i = 0; i < codes.length; i++) {
+                out.writeUTF(codes[i]);
+                out.writeLong(hashes[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static RecordHashes decode(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            int size = in.readInt();
+            String[] codes = new String[size];
+            long[] hashes = new long[size];
+            for (int i = 0; i < size; i++) {
+                codes[i] = in.readUTF();
+                hashes[i] = in.readLong();
+            }
+            return new RecordHashes(codes, hashes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Collects hashes in input order; when a code is added twice the last one wins
+    public static final class Builder {
+
+        private final List<String> codes = new ArrayList<>();
+        private long[] hashes = new long[1024];
+
+        public void add(String swiftCode, long hash) {
+            if (codes.size() == hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashes.length * 2);
+            }
+            hashes[codes.size()] = hash;
+            codes.add(swiftCode);
+        }
+
+        public RecordHashes build() {
+            Integer[] order = new Integer[codes.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            // Stable sort keeps duplicates in input order, so the last occurrence ends up last
+            Arrays.sort(order, Comparator.comparing(codes::get));
+
+            List<String> sortedCodes = new ArrayList<>(order.length);
+            long[] sortedHashes = new long[order.length];
+            for (Integer position : order) {
+                String code = codes.get(position);
+                int last = sortedCodes.size() - 1;
+                if (last >= 0 && sortedCodes.get(last).equals(code)) {
+                    sortedHashes[last] = hashes[position];
+                } else {
+                    sortedHashes[sortedCodes.size()] = hashes[position];
+                    sortedCodes.add(code);
+                }
+            }
+            return new RecordHashes(sortedCodes.toArray(new String[0]), Arrays.copyOf(sortedHashes, sortedCodes.size()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.swiftcodes.swift_api.util;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+// Checks of a new SWIFT code that need no database, shared by POST /v1/swift-codes and the bulk create:
+// code format, ISO2 code, country name, the headquarter flag against the XXX suffix, and the columns
+// the table requires.
+// Whether the code already exists is left to the caller, which can check many codes in one query.
+@Component
+public class SwiftCodeValidator {
+
+    private static final Pattern SWIFT_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{11}$");
+
+    @Autowired
+    private CountryCodeValidator countryCodeValidator;
+
+    // Upper-cases the SWIFT and ISO2 codes in place, as they are stored
+    public static void normalize(SwiftCode swiftCode) {
+        if (swiftCode.getSwiftCode() != null) {
+            swiftCode.setSwiftCode(swiftCode.getSwiftCode().trim().toUpperCase());
+        }
+        if (swiftCode.getCountryISO2() != null) {
+            swiftCode.setCountryISO2(swiftCode.getCountryISO2().trim().toUpperCase());
+        }
+    }
+
+    // Message of the first failed check, null for a valid (normalized) code
+    public String validate(SwiftCode swiftCode) {
+        String swift = swiftCode.getSwiftCode();
+        String iso2 = swiftCode.getCountryISO2();
+
+        // Validate SWIFT code format (11 characters, proper pattern)
+        if (swift == null || swift.length() != 11 || !SWIFT_CODE_PATTERN.matcher(swift).matches()) {
+            return "Invalid SWIFT code format.";
+        }
+
+        // Validate country ISO2 code
+        if (iso2 == null || !countryCodeValidator.isValid(iso2)) {
+            return "Invalid country ISO2 code.";
+        }
+
+        // Validate country name matches ISO2 code
+        CountryCodeValidator.Country country = countryCodeValidator.getCountryByCode(iso2);
+        if (country == null || !country.getName().equalsIgnoreCase(swiftCode.getCountryName())) {
+            return "Country name does not match the ISO2 code.";
+        }
+
+        // Validate headquarter consistency
+        boolean endsWithXXX = swift.endsWith("XXX");
+        if (endsWithXXX && !swiftCode.isHeadquarter()) {
+            return "SWIFT code ending with 'XXX' indicates a headquarter. Please set headquarter = true.";
+        }
+        if (!endsWithXXX && swiftCode.isHeadquarter()) {
+            return "SWIFT code not ending with 'XXX' indicates a branch. Please set headquarter = false.";
+        }
+
+        // NOT NULL columns, a missing value would only fail at insert
+        if (swiftCode.getBankName() == null || swiftCode.getAddress() == null) {
+            return "Bank name and address are required.";
+        }
+        return null;
+    }
+}
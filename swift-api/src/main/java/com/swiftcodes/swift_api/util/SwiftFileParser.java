@@ -1,47 +1,334 @@
 package com.swiftcodes.swift_api.util;
 
 import com.swiftcodes.swift_api.entity.SwiftCode;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 public class SwiftFileParser {
 
+    private static final Logger log = LoggerFactory.getLogger(SwiftFileParser.class);
+
+    // Column positions, matching the header of the SWIFT directory export
+    private static final String[] HEADER = {"COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS", "TOWN NAME", "COUNTRY NAME", "TIME ZONE"};
+    private static final int ISO2 = 0;
+    private static final int SWIFT_CODE = 1;
+    private static final int NAME = 3;
+    private static final int ADDRESS = 4;
+    private static final int TOWN_NAME = 5;
+    private static final int COUNTRY_NAME = 6;
+
+    @Autowired
+    private CountryCodeValidator countryCodeValidator;
+
+    @Value("${swift.import.parser-threads:0}")
+    private int parserThreads;
+
+    @Value("${swift.import.chunk-size-bytes:8388608}")
+    private long chunkSizeBytes;
+
+    private volatile ForkJoinPool pool;
+
+    // Receives parsed rows batch by batch, always on the thread that called the parser
+    @FunctionalInterface
+    public interface BatchConsumer {
+        // bytesRead is the amount of input consumed to produce this batch, 0 when unknown
+        void accept(List<SwiftCode> batch, long bytesRead);
+    }
+
+    // Totals of a parse run
+    public static class ParseSummary {
+
+        private long rowsParsed;
+        private long rowsRejected;
+
+        public long getRowsParsed() {
+            return rowsParsed;
+        }
+
+        public long getRowsRejected() {
+            return rowsRejected;
+        }
+    }
+
     // Method to parse the CSV file and return a list of SwiftCode objects
+    // The header line is skipped, rows whose country ISO2 code / name are unknown or don't match are rejected
     public List<SwiftCode> parseCSV(InputStream inputStream) throws IOException {
         List<SwiftCode> swiftCodes = new ArrayList<>();
-        
-        try (Reader reader = new InputStreamReader(inputStream)) {
+        parseStream(inputStream, Integer.MAX_VALUE, (batch, bytes) -> swiftCodes.addAll(batch));
+        return swiftCodes;
+    }
+
+    // Sequential streaming parse with commons-csv, for inputs that are not files on disk
+    public ParseSummary parseStream(InputStream inputStream, int batchSize, BatchConsumer consumer) throws IOException {
+        ParseSummary summary = new ParseSummary();
+        List<SwiftCode> batch = new ArrayList<>(Math.min(batchSize, 1024));
+
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
             Iterable<CSVRecord> records = CSVFormat.DEFAULT.builder()
-                    .setHeader("COUNTRY ISO2 CODE", "SWIFT CODE", "CODE TYPE", "NAME", "ADDRESS", "TOWN NAME", "COUNTRY NAME", "TIME ZONE")
+                    .setHeader(HEADER)
                     .build()
                     .parse(reader);
-            
+
             for (CSVRecord record : records) {
-                SwiftCode code = new SwiftCode();
-                code.setSwiftCode(record.get("SWIFT CODE"));
-                code.setBankName(record.get("NAME"));
-                code.setAddress(record.get("ADDRESS"));
-                code.setTownName(record.get("TOWN NAME"));
-                code.setCountryISO2(record.get("COUNTRY ISO2 CODE"));
-                code.setCountryName(record.get("COUNTRY NAME"));
-                
-                // Check if the last 3 characters of the SWIFT code are "XXX"
-                String swiftCode = record.get("SWIFT CODE");
-                code.setHeadquarter(swiftCode != null && swiftCode.length() >= 3 && swiftCode.endsWith("XXX"));
-
-                swiftCodes.add(code);
+                if (record.getRecordNumber() == 1 && record.size() > SWIFT_CODE
+                        && isHeader(record.get(ISO2), record.get(SWIFT_CODE))) {
+                    continue;
+                }
+                SwiftCode code = record.size() > COUNTRY_NAME
+                        ? toSwiftCode(record.get(ISO2), record.get(SWIFT_CODE), record.get(NAME),
+                                record.get(ADDRESS), record.get(TOWN_NAME), record.get(COUNTRY_NAME))
+                        : null;
+                if (code == null) {
+                    summary.rowsRejected++;
+                    continue;
+                }
+                summary.rowsParsed++;
+                batch.add(code);
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch, 0);
+                    batch = new ArrayList<>(Math.min(batchSize, 1024));
+                }
             }
         }
-        
-        return swiftCodes;
+        if (!batch.isEmpty()) {
+            consumer.accept(batch, 0);
+        }
+
+        logRejected(summary);
+        return summary;
+    }
+
+    // Parallel parse of a file on disk. The file is memory-mapped and split into chunks at
+    // record boundaries; chunks are parsed on a fork-join pool and their rows handed to the
+    // consumer in batches, so the file is never held in memory.
+    // Batches reach the consumer in file order, as from parseStream: a batch of a later chunk waits
+    // until every earlier chunk has been handed over. At most two chunks per thread are parsed at
+    // once, which bounds the batches waiting.
+    public ParseSummary parseFile(Path file, int batchSize, BatchConsumer consumer) throws IOException {
+        ParseSummary summary = new ParseSummary();
+        ForkJoinPool pool = pool();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return summary;
+            }
+            long[] boundaries = CsvChunks.split(channel, size, chunkSizeBytes, pool);
+            int chunks = boundaries.length - 1;
+
+            // Bounded hand-off: producers block once the consumer falls behind
+            int window = pool.getParallelism() * 2;
+            BlockingQueue<ChunkOutput> queue = new ArrayBlockingQueue<>(window);
+            AtomicBoolean cancelled = new AtomicBoolean();
+            int submitted = 0;
+            while (submitted < Math.min(chunks, window)) {
+                submitChunk(pool, channel, boundaries, submitted++, batchSize, queue, cancelled);
+            }
+
+            // Outputs of chunks after the next one to hand over, in the order each chunk produced them
+            Map<Integer, Deque<ChunkOutput>> waiting = new HashMap<>();
+            int next = 0;
+            try {
+                while (next < chunks) {
+                    ChunkOutput output = queue.take();
+                    if (output.failure != null) {
+                        throw new IOException("Failed to parse " + file, output.failure);
+                    }
+                    waiting.computeIfAbsent(output.chunk, k -> new ArrayDeque<>()).add(output);
+                    Deque<ChunkOutput> ready;
+                    while (next < chunks && (ready = waiting.get(next)) != null && !ready.isEmpty()) {
+                        ChunkOutput handed = ready.poll();
+                        summary.rowsRejected += handed.rejected;
+                        if (!handed.rows.isEmpty() || handed.bytes > 0) {
+                            summary.rowsParsed += handed.rows.size();
+                            consumer.accept(handed.rows, handed.bytes);
+                        }
+                        if (handed.last) {
+                            waiting.remove(next++);
+                            if (submitted < chunks) {
+                                submitChunk(pool, channel, boundaries, submitted++, batchSize, queue, cancelled);
+                            }
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing " + file, e);
+            } finally {
+                cancelled.set(true);
+            }
+        }
+
+        logRejected(summary);
+        return summary;
+    }
+
+    // Builds a SwiftCode from one CSV row, or returns null if its country fields don't pass validation
+    private SwiftCode toSwiftCode(String iso2, String swiftCode, String bankName, String address, String townName, String countryName) {
+        // Same rule as the POST endpoint, checked against the preloaded country registry
+        if (!countryCodeValidator.matches(iso2, countryName)) {
+            return null;
+        }
+
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swiftCode);
+        code.setBankName(bankName);
+        code.setAddress(address);
+        code.setTownName(townName);
+        code.setCountryISO2(iso2);
+        code.setCountryName(countryName);
+
+        // Check if the last 3 characters of the SWIFT code are "XXX"
+        code.setHeadquarter(swiftCode != null && swiftCode.length() >= 3 && swiftCode.endsWith("XXX"));
+        return code;
+    }
+
+    // Header of the SWIFT directory export, only ever the first record of a file
+    private static boolean isHeader(String iso2, String swiftCode) {
+        return HEADER[ISO2].equalsIgnoreCase(iso2.trim()) && HEADER[SWIFT_CODE].equalsIgnoreCase(swiftCode.trim());
+    }
+
+    private void submitChunk(ForkJoinPool pool, FileChannel channel, long[] boundaries, int chunk, int batchSize,
+                             BlockingQueue<ChunkOutput> queue, AtomicBoolean cancelled) {
+        long from = boundaries[chunk];
+        long to = boundaries[chunk + 1];
+        pool.execute(() -> parseChunk(channel, chunk, from, to, batchSize, queue, cancelled));
+    }
+
+    private void parseChunk(FileChannel channel, int chunk, long from, long to, int batchSize,
+                            BlockingQueue<ChunkOutput> queue, AtomicBoolean cancelled) {
+        ChunkOutput output;
+        try {
+            CsvChunks.RecordReader reader = new CsvChunks.RecordReader(CsvChunks.map(channel, from, to));
+            List<SwiftCode> batch = new ArrayList<>(Math.min(batchSize, 1024));
+            long rejected = 0;
+            int reported = 0;
+
+            List<String> values;
+            boolean first = from == 0;
+            while ((values = reader.next()) != null) {
+                if (first && values.size() > SWIFT_CODE && isHeader(values.get(ISO2), values.get(SWIFT_CODE))) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                SwiftCode code = values.size() > COUNTRY_NAME
+                        ? toSwiftCode(values.get(ISO2), values.get(SWIFT_CODE), values.get(NAME),
+                                values.get(ADDRESS), values.get(TOWN_NAME), values.get(COUNTRY_NAME))
+                        : null;
+                if (code == null) {
+                    rejected++;
+                    continue;
+                }
+                batch.add(code);
+                if (batch.size() >= batchSize) {
+                    if (!offer(queue, new ChunkOutput(chunk, batch, reader.position() - reported, rejected, false), cancelled)) {
+                        return;
+                    }
+                    reported = reader.position();
+                    rejected = 0;
+                    batch = new ArrayList<>(Math.min(batchSize, 1024));
+                }
+            }
+            output = new ChunkOutput(chunk, batch, (to - from) - reported, rejected, true);
+        } catch (Throwable e) {
+            output = new ChunkOutput(chunk, e);
+        }
+        offer(queue, output, cancelled);
+    }
+
+    private static boolean offer(BlockingQueue<ChunkOutput> queue, ChunkOutput output, AtomicBoolean cancelled) {
+        try {
+            while (!cancelled.get()) {
+                if (queue.offer(output, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private ForkJoinPool pool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    int threads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+                    pool = new ForkJoinPool(threads);
+                }
+            }
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void logRejected(ParseSummary summary) {
+        if (summary.rowsRejected > 0) {
+            log.info("Skipped {} CSV rows with an unknown or mismatching country", summary.rowsRejected);
+        }
+    }
+
+    // One message from a chunk task to the consuming thread
+    private static final class ChunkOutput {
+
+        // Position of the chunk in the file
+        private final int chunk;
+        private final List<SwiftCode> rows;
+        private final long bytes;
+        private final long rejected;
+        private final boolean last;
+        private final Throwable failure;
+
+        private ChunkOutput(int chunk, List<SwiftCode> rows, long bytes, long rejected, boolean last) {
+            this.chunk = chunk;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.rejected = rejected;
+            this.last = last;
+            this.failure = null;
+        }
+
+        private ChunkOutput(int chunk, Throwable failure) {
+            this.chunk = chunk;
+            this.rows = null;
+            this.bytes = 0;
+            this.rejected = 0;
+            this.last = true;
+            this.failure = failure;
+        }
     }
 }
@@ -0,0 +1,41 @@
+package com.swiftcodes.swift_api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The Prometheus scrape exposes the metric names dashboards and SLO alerts are built on
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class SwiftApiMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void prometheusScrape() throws Exception {
+		mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX")).andExpect(status().isOk());
+		mockMvc.perform(get("/v1/swift-codes/country/PL?limit=5")).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket{application=\"swift-api\"")))
+				.andExpect(content().string(containsString("uri=\"/v1/swift-codes/{swiftCode}\"")))
+				.andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+				.andExpect(content().string(containsString("hikaricp_connections_pending")))
+				.andExpect(content().string(containsString("swift_import_batch_seconds_bucket")))
+				.andExpect(content().string(containsString("swift_import_rows_total{application=\"swift-api\",result=\"inserted\"}")))
+				.andExpect(content().string(containsString("swift_import_rows_per_second")))
+				.andExpect(content().string(containsString("swift_country_lookup_seconds_count{application=\"swift-api\",method=\"isValid\"}")));
+	}
+
+}
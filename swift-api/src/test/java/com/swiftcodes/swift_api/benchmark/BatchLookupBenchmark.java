@@ -0,0 +1,111 @@
+package com.swiftcodes.swift_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftcodes.swift_api.dto.SwiftCodeLookupRequest;
+import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Codes resolved per second by one GET /{swiftCode} per code versus POST /lookup with all of them,
+// over real HTTP against the bundled dataset. Both go through HttpURLConnection, which keeps the
+// connection alive between requests: a client resolving a list of codes one by one pays a round trip
+// and the server's per-request work for each, but no handshake. (java.net.http.HttpClient added
+// about a millisecond per request here, flattering the batch side.)
+// The target for /lookup is bench.min-speedup (50) times the single-lookup rate; the test fails
+// below it.
+// Run with: mvn test -Pbenchmark -Dtest=BatchLookupBenchmark
+// Add -Dswift.read-model.enabled=false to measure the chunked IN queries instead of the index.
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BatchLookupBenchmark {
+
+    // Each side is measured for at least this long, one POST /lookup takes a few tens of milliseconds
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 10);
+    private static final double MIN_SPEEDUP = Double.parseDouble(System.getProperty("bench.min-speedup", "50"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Test
+    public void compareSingleAndBatchLookups() throws Exception {
+        List<String> codes = swiftCodeRepository.findAll().stream().map(code -> code.getSwiftCode()).toList();
+
+        SwiftCodeLookupRequest request = new SwiftCodeLookupRequest();
+        request.setSwiftCodes(codes);
+        request.setIncludeBranches(true);
+        byte[] body = new ObjectMapper().writeValueAsBytes(request);
+
+        String base = "http://localhost:" + port + "/v1/swift-codes/";
+        double single = report("GET per code", codes.size(), () -> {
+            for (String code : codes) {
+                send(base + code, null);
+            }
+        });
+        double batch = report("POST /lookup", codes.size(), () -> send(base + "lookup", body));
+
+        double speedup = batch / single;
+        System.out.printf("Batch lookup speed-up: %.1fx (target %.0fx)%n", speedup, MIN_SPEEDUP);
+        assertTrue(speedup >= MIN_SPEEDUP,
+                String.format("POST /lookup is %.1fx the single-lookup rate, below the %.0fx target", speedup, MIN_SPEEDUP));
+    }
+
+    // A GET, or a JSON POST when body is given. Reads the whole response, the batch one is streamed,
+    // and closes the stream so the connection goes back to the keep-alive cache.
+    private static void send(String url, byte[] body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            in.readAllBytes();
+        }
+    }
+
+    private double report(String name, int codes, Round round) throws Exception {
+        // Warm up the JIT and the database caches
+        run(round, SECONDS / 5 + 1);
+
+        long start = System.nanoTime();
+        int rounds = run(round, SECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double codesPerSecond = (double) codes * rounds / seconds;
+
+        System.out.printf("%-14s %d codes x %d rounds: %.0f codes/s%n", name, codes, rounds, codesPerSecond);
+        return codesPerSecond;
+    }
+
+    private static int run(Round round, int seconds) throws Exception {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        int rounds = 0;
+        do {
+            round.run();
+            rounds++;
+        } while (System.nanoTime() < end);
+        return rounds;
+    }
+
+    private interface Round {
+        void run() throws Exception;
+    }
+}
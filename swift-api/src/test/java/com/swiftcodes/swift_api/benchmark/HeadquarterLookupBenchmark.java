@@ -0,0 +1,100 @@
+package com.swiftcodes.swift_api.benchmark;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compares the legacy LIKE prefix scan with the base_code equality lookup
+// on a dataset with thousands of branches per headquarter.
+// Run with: mvn test -Pbenchmark -Dtest=HeadquarterLookupBenchmark
+// Point spring.datasource.* at MySQL to measure against the real database.
+@Tag("benchmark")
+@SpringBootTest(properties = "swift.read-model.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class HeadquarterLookupBenchmark {
+
+    private static final int HEADQUARTERS = Integer.getInteger("bench.headquarters", 20);
+    private static final int BRANCHES_PER_HQ = Integer.getInteger("bench.branches", 3000);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 200);
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> headquarters = new ArrayList<>();
+
+    @BeforeAll
+    public void seed() {
+        String sql = "INSERT INTO swift_codes (swift_code, base_code, bank_name, address, town_name, is_headquarter, country_iso2, country_name) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int hq = 0; hq < HEADQUARTERS; hq++) {
+            String baseCode = String.format("BNCH%02dPL", hq);
+            List<Object[]> rows = new ArrayList<>(BRANCHES_PER_HQ + 1);
+            rows.add(new Object[] {baseCode + "XXX", baseCode, "BENCH BANK " + hq, "ADDRESS", "WARSZAWA", true, "PL", "POLAND"});
+            for (int branch = 0; branch < BRANCHES_PER_HQ; branch++) {
+                String suffix = Integer.toString(branch, 36).toUpperCase();
+                suffix = "000".substring(suffix.length()) + suffix;
+                rows.add(new Object[] {baseCode + suffix, baseCode, "BENCH BANK " + hq, "ADDRESS", "WARSZAWA", false, "PL", "POLAND"});
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+            headquarters.add(baseCode + "XXX");
+        }
+    }
+
+    @Test
+    public void compareHeadquarterLookups() {
+        String probe = headquarters.get(0);
+        assertEquals(
+                swiftCodeRepository.findBySwiftCodeStartingWithAndSwiftCodeNot(probe.substring(0, 8), probe).size(),
+                swiftCodeRepository.findByBaseCodeAndSwiftCodeNot(probe.substring(0, 8), probe).size());
+
+        report("LIKE prefix scan", () -> {
+            int rows = 0;
+            for (String hq : headquarters) {
+                rows += swiftCodeRepository.findBySwiftCodeStartingWithAndSwiftCodeNot(hq.substring(0, 8), hq).size();
+            }
+            return rows;
+        });
+        report("base_code equality", () -> {
+            int rows = 0;
+            for (String hq : headquarters) {
+                rows += swiftCodeRepository.findByBaseCodeAndSwiftCodeNot(hq.substring(0, 8), hq).size();
+            }
+            return rows;
+        });
+    }
+
+    private void report(String name, Supplier<Integer> round) {
+        // Warm up the JIT and the database caches
+        for (int i = 0; i < ITERATIONS / 10 + 1; i++) {
+            round.get();
+        }
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            round.get();
+            samples[i] = (System.nanoTime() - start) / headquarters.size();
+        }
+        Arrays.sort(samples);
+
+        System.out.printf("%-20s %d HQs x %d branches: p50 %.3f ms, p99 %.3f ms per HQ lookup%n",
+                name, HEADQUARTERS, BRANCHES_PER_HQ,
+                samples[ITERATIONS / 2] / 1e6, samples[(int) (ITERATIONS * 0.99)] / 1e6);
+    }
+}
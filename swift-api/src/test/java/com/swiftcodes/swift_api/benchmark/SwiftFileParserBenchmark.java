@@ -0,0 +1,84 @@
+package com.swiftcodes.swift_api.benchmark;
+
+import com.swiftcodes.swift_api.util.CountryCodeValidator;
+import com.swiftcodes.swift_api.util.SwiftFileParser;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Throughput of the commons-csv parser (parseCSV) against the memory-mapped parallel parser (parseFile).
+// Run with: mvn test -Pbenchmark -Dtest=SwiftFileParserBenchmark [-Dbench.rows=1000000]
+@Tag("benchmark")
+public class SwiftFileParserBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 500_000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 5);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void compareParsers() throws Exception {
+        Path file = tempDir.resolve("swift-bench.csv");
+        writeDataset(file, ROWS);
+        long bytes = Files.size(file);
+
+        CountryCodeValidator validator = new CountryCodeValidator();
+        validator.loadCountryCodes();
+        SwiftFileParser parser = new SwiftFileParser();
+        ReflectionTestUtils.setField(parser, "countryCodeValidator", validator);
+        ReflectionTestUtils.setField(parser, "chunkSizeBytes", 8L << 20);
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                int streamed;
+                try (InputStream in = Files.newInputStream(file)) {
+                    streamed = parser.parseCSV(in).size();
+                }
+                report("parseCSV (commons-csv)", bytes, streamed, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                AtomicLong mapped = new AtomicLong();
+                parser.parseFile(file, 1000, (batch, read) -> mapped.addAndGet(batch.size()));
+                report("parseFile (mmap, " + Runtime.getRuntime().availableProcessors() + " cpus)", bytes, mapped.get(), System.nanoTime() - start);
+
+                assertEquals(streamed, mapped.get());
+            }
+        } finally {
+            parser.shutdown();
+        }
+    }
+
+    private static void report(String name, long bytes, long rows, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-32s %,d rows in %.3f s: %,.0f rows/s, %.1f MB/s%n",
+                name, rows, seconds, rows / seconds, bytes / seconds / (1 << 20));
+    }
+
+    private static void writeDataset(Path file, int rows) throws Exception {
+        String[][] countries = {{"PL", "POLAND", "WARSZAWA"}, {"DE", "GERMANY", "BERLIN"}, {"CL", "CHILE", "SANTIAGO"}, {"AL", "ALBANIA", "TIRANA"}};
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+            for (int i = 0; i < rows; i++) {
+                String[] country = countries[i % countries.length];
+                // One headquarter for every 20 branches
+                String base = String.format("B%03d%s%02d", (i / 21) % 1000, country[0], (i / 21000) % 100);
+                String suffix = i % 21 == 0 ? "XXX" : String.format("%03d", i % 21);
+                out.write(country[0] + "," + base + suffix + ",BIC11,\"BANK " + (i / 21) + ", \"\"S.A.\"\"\","
+                        + "\"UL. PRZYKLADOWA " + i + ", " + country[2] + ", 00-" + (i % 1000) + "\","
+                        + country[2] + "," + country[1] + ",Europe/Warsaw\n");
+            }
+        }
+    }
+}
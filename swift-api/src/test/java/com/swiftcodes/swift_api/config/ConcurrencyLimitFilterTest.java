@@ -0,0 +1,61 @@
+package com.swiftcodes.swift_api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrencyLimitFilterTest {
+
+    // Test that a request over the cap is refused with 503 while the permit is held, and admitted once it is released
+    @Test
+    public void testRequestsOverTheCapAreRefused() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(request("/v1/swift-codes/AAAABBCCXXX"), new MockHttpServletResponse(), (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse refused = new MockHttpServletResponse();
+        filter.doFilter(request("/v1/swift-codes/country/PL"), refused, (req, res) -> { });
+        assertEquals(503, refused.getStatus());
+        assertEquals("1", refused.getHeader("Retry-After"));
+
+        // Actuator endpoints are never limited
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(request("/actuator/health"), health, (req, res) -> { });
+        assertEquals(200, health.getStatus());
+
+        release.countDown();
+        holder.join(5000);
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request("/v1/swift-codes/country/PL"), admitted, (req, res) -> { });
+        assertEquals(200, admitted.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,120 @@
+package com.swiftcodes.swift_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two independent H2 databases as primary and replica; the replica's heartbeat row is written by hand
+public class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    public void setUp() {
+        primary = pool("primary");
+        replica = pool("replica");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        routing.stop();
+        primary.close();
+    }
+
+    // Test that replica reads fall back to the primary while the replica lags, and return once it caught up
+    @Test
+    public void testLaggingReplicaIsSkipped() throws Exception {
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                Duration.ofSeconds(1), Duration.ofMillis(50), Duration.ofSeconds(1));
+        routing.start();
+
+        // No heartbeat on the replica yet
+        Thread.sleep(200);
+        assertEquals(0, routing.healthyReplicas());
+        assertEquals("primary", replicaRead());
+
+        execute(replica, "CREATE TABLE swift_replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        execute(replica, "INSERT INTO swift_replication_heartbeat VALUES (1, " + System.currentTimeMillis() + ")");
+        await(() -> routing.healthyReplicas() == 1);
+        assertEquals("replica", replicaRead());
+        assertEquals("primary", read());
+
+        // Replication stopped a minute ago
+        execute(replica, "UPDATE swift_replication_heartbeat SET beat_at = " + (System.currentTimeMillis() - 60_000));
+        await(() -> routing.healthyReplicas() == 0);
+        assertEquals("primary", replicaRead());
+    }
+
+    // Test that a replica refusing connections is marked down on the spot and the read served by the primary
+    @Test
+    public void testReplicaDownFallsBackToPrimary() throws Exception {
+        routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                Duration.ZERO, Duration.ofMillis(50), Duration.ofSeconds(1));
+        routing.start();
+        await(() -> routing.healthyReplicas() == 1);
+        assertEquals("replica", replicaRead());
+
+        DataSourceRouting.pinToPrimary(true);
+        try {
+            assertEquals("primary", replicaRead());
+        } finally {
+            DataSourceRouting.pinToPrimary(false);
+        }
+
+        replica.close();
+        assertEquals("primary", replicaRead());
+        assertEquals(0, routing.healthyReplicas());
+    }
+
+    private String replicaRead() {
+        return DataSourceRouting.readFromReplica(this::read);
+    }
+
+    // Which database the connection handed out by the routing DataSource belongs to
+    private String read() {
+        try (Connection connection = routing.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT 1");
+            return connection.getMetaData().getURL().contains("routing-primary") ? "primary" : "replica";
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:routing-" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeout(250);
+        return pool;
+    }
+
+    private static void execute(HikariDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,127 @@
+package com.swiftcodes.swift_api.config;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.service.SwiftCodeService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A second H2 database stands in for the replica. It gets a copy of the primary before every test plus
+// one code the primary does not have, so where a read was answered shows in its result.
+// Read model and Bloom filter disabled, so lookups reach the database.
+@SpringBootTest(properties = {
+        "swift.read-model.enabled=false",
+        "swift.bloom-filter.enabled=false",
+        "swift.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "swift.datasource.replicas[0].username=sa",
+        "swift.datasource.max-replica-lag=0",
+        "swift.datasource.health-check-interval=100ms",
+        "swift.datasource.read-your-writes-window=2s"})
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:swiftdb-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA_ONLY = "QQQQPLRPXXX";
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @BeforeEach
+    public void replicate() throws Exception {
+        Path script = Files.createTempFile("swift-replica", ".sql");
+        try {
+            try (Connection primary = primaryDataSource.getConnection(); Statement statement = primary.createStatement()) {
+                statement.execute("SCRIPT TO '" + script + "'");
+            }
+            try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement statement = replica.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+                statement.execute("INSERT INTO swift_codes (swift_code, base_code, bank_name, address, is_headquarter, "
+                        + "country_iso2, country_name) VALUES ('" + REPLICA_ONLY + "', 'QQQQPLRP', 'REPLICA BANK', "
+                        + "'ADDRESS', TRUE, 'PL', 'POLAND')");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (routingDataSource.healthyReplicas() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(routingDataSource.healthyReplicas() > 0);
+    }
+
+    // Test that SwiftCodeService's reads are answered by the replica, and pinned ones by the primary
+    @Test
+    public void testServiceReadsGoToReplica() {
+        awaitWriteWindow();
+        assertTrue(swiftCodeService.getSwiftCodeByCode(REPLICA_ONLY).isPresent());
+        assertTrue(swiftCodeService.getSwiftCodesByCountry("PL").stream()
+                .anyMatch(code -> code.getSwiftCode().equals(REPLICA_ONLY)));
+        assertTrue(swiftCodeService.getSwiftCodesByCodes(List.of(REPLICA_ONLY)).containsKey(REPLICA_ONLY));
+
+        // Not a replica read: checks before writes see the primary
+        assertFalse(swiftCodeService.existsBySwiftCode(REPLICA_ONLY));
+
+        DataSourceRouting.pinToPrimary(true);
+        try {
+            assertTrue(swiftCodeService.getSwiftCodeByCode(REPLICA_ONLY).isEmpty());
+        } finally {
+            DataSourceRouting.pinToPrimary(false);
+        }
+    }
+
+    // Test that reads right after a write through this instance see it, though the replica does not have it
+    @Test
+    public void testReadsAfterWriteStayOnPrimary() {
+        SwiftCode added = new SwiftCode();
+        added.setSwiftCode("QQQQPLRWXXX");
+        added.setBankName("PRIMARY BANK");
+        added.setAddress("ADDRESS");
+        added.setCountryISO2("PL");
+        added.setCountryName("POLAND");
+        added.setHeadquarter(true);
+        swiftCodeService.addSwiftCode(added);
+        try {
+            assertTrue(swiftCodeService.getSwiftCodeByCode("QQQQPLRWXXX").isPresent());
+            assertTrue(swiftCodeService.getSwiftCodeByCode(REPLICA_ONLY).isEmpty());
+            awaitWriteWindow();
+            assertTrue(swiftCodeService.getSwiftCodeByCode("QQQQPLRWXXX").isEmpty());
+        } finally {
+            swiftCodeService.deleteSwiftCode("QQQQPLRWXXX");
+        }
+    }
+
+    // Reads go back to the replica once the read-your-writes window of the last write ran out
+    private void awaitWriteWindow() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline && swiftCodeService.getSwiftCodeByCode(REPLICA_ONLY).isEmpty()) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ImportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Test uploading a file and polling the job until it completes
+    @Test
+    public void testUploadAndPollJob() throws Exception {
+        String csv = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n"
+                + "PL,UPLDPLPWXXX,BIC11,UPLOAD BANK,\"UL. TESTOWA 1, WARSZAWA\",WARSZAWA,POLAND,Europe/Warsaw\n"
+                + "PL,UPLDPLPWKRK,BIC11,UPLOAD BANK,\"UL. TESTOWA 2, KRAKOW\",KRAKOW,POLAND,Europe/Warsaw\n";
+        MockMultipartFile file = new MockMultipartFile("file", "upload.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        String body = mockMvc.perform(multipart("/v1/swift-codes/import/jobs").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.jobId").exists())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(body).get("jobId").asText();
+
+        JsonNode job = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            job = objectMapper.readTree(mockMvc.perform(get("/v1/swift-codes/import/jobs/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (job.get("state").asText().equals("COMPLETED") || job.get("state").asText().equals("FAILED")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        assertEquals("COMPLETED", job.get("state").asText());
+        assertEquals(2, job.get("rowsWritten").asLong());
+        assertEquals(file.getSize(), job.get("bytesParsed").asLong());
+        assertEquals(2, job.get("report").get("rowsInserted").asLong());
+        assertTrue(swiftCodeRepository.findBySwiftCode("UPLDPLPWKRK").isPresent());
+    }
+
+    // Test the status of an unknown job
+    @Test
+    public void testUnknownJob() throws Exception {
+        mockMvc.perform(get("/v1/swift-codes/import/jobs/does-not-exist"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").exists());
+    }
+}
@@ -0,0 +1,132 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swiftcodes.swift_api.service.ReactiveSwiftCodeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Reactive profile against R2DBC H2, read model disabled so every read goes through R2DBC
+@SpringBootTest(properties = "swift.read-model.enabled=false")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveSwiftCodeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveSwiftCodeService swiftCodeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Test that a headquarter comes back in the same JSON shape as from SwiftCodeController, with ETag support
+    @Test
+    public void testGetSwiftCode() throws Exception {
+        String headquarter = jdbcTemplate.queryForObject(
+                "SELECT s.swift_code FROM swift_codes s WHERE s.swift_code LIKE '%XXX' AND "
+                        + "(SELECT COUNT(*) FROM swift_codes b WHERE b.base_code = s.base_code) > 1 "
+                        + "ORDER BY s.swift_code LIMIT 1", String.class);
+        Integer branches = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM swift_codes WHERE base_code = ? AND swift_code <> ?",
+                Integer.class, headquarter.substring(0, 8), headquarter);
+
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/v1/swift-codes/" + headquarter.toLowerCase()).exchange();
+        response.expectStatus().isOk().expectHeader().exists("ETag");
+        JsonNode body = objectMapper.readTree(response.expectBody().returnResult().getResponseBody());
+
+        assertEquals(List.of("address", "bankName", "countryISO2", "countryName", "isHeadquarter", "swiftCode", "branches"),
+                fieldNames(body));
+        assertEquals(headquarter, body.get("swiftCode").asText());
+        assertTrue(body.get("isHeadquarter").asBoolean());
+        assertEquals(branches, body.get("branches").size());
+        assertEquals(List.of("address", "bankName", "countryISO2", "isHeadquarter", "swiftCode").stream().sorted().toList(),
+                fieldNames(body.get("branches").get(0)).stream().sorted().toList());
+
+        String eTag = response.returnResult(String.class).getResponseHeaders().getETag();
+        webTestClient.get().uri("/v1/swift-codes/" + headquarter).header("If-None-Match", eTag)
+                .exchange().expectStatus().isNotModified();
+
+        webTestClient.get().uri("/v1/swift-codes/ABC").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("SWIFT code must be 11 characters long.");
+        webTestClient.get().uri("/v1/swift-codes/ZZZZZZZZZZZ").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("SWIFT code not found.");
+    }
+
+    // Test that the streamed country listing and its keyset pages carry the whole country in order
+    @Test
+    public void testCountryListing() throws Exception {
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM swift_codes WHERE country_iso2 = 'PL'", Integer.class);
+
+        JsonNode streamed = objectMapper.readTree(webTestClient.get().uri("/v1/swift-codes/country/pl").exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseBody());
+        assertEquals(List.of("countryISO2", "countryName", "swiftCodes"), fieldNames(streamed));
+        assertEquals("PL", streamed.get("countryISO2").asText());
+        assertEquals(total, streamed.get("swiftCodes").size());
+        assertEquals(List.of("swiftCode", "bankName", "address", "countryISO2", "isHeadquarter"),
+                fieldNames(streamed.get("swiftCodes").get(0)));
+        List<String> codes = new ArrayList<>();
+        streamed.get("swiftCodes").forEach(code -> codes.add(code.get("swiftCode").asText()));
+        assertEquals(codes.stream().sorted().toList(), codes);
+
+        List<String> paged = new ArrayList<>();
+        String uri = "/v1/swift-codes/country/PL?limit=7";
+        while (uri != null) {
+            JsonNode page = objectMapper.readTree(webTestClient.get().uri(uri).exchange()
+                    .expectStatus().isOk()
+                    .expectBody().returnResult().getResponseBody());
+            page.get("swiftCodes").forEach(code -> paged.add(code.get("swiftCode").asText()));
+            uri = page.has("nextCursor") ? "/v1/swift-codes/country/PL?limit=7&after=" + page.get("nextCursor").asText() : null;
+        }
+        assertEquals(codes, paged);
+
+        webTestClient.get().uri("/v1/swift-codes/country/ZZ").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Invalid country code.");
+        webTestClient.get().uri("/v1/swift-codes/country/AQ").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("No SWIFT codes found for country code AQ");
+    }
+
+    // Test that rows of a country are only read as they are requested
+    @Test
+    public void testCountryBackpressure() {
+        StepVerifier.create(swiftCodeService.getSwiftCodesByCountry("PL"), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        assertFalse(names.isEmpty());
+        return names;
+    }
+}
@@ -2,29 +2,47 @@ package com.swiftcodes.swift_api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.index.SwiftCodeAggregates;
+import com.swiftcodes.swift_api.index.SwiftCodeResponseCache;
+import com.swiftcodes.swift_api.index.SwiftCodeTextIndex;
+import com.swiftcodes.swift_api.index.SwiftCodeVersions;
 import com.swiftcodes.swift_api.service.SwiftCodeService;
 import com.swiftcodes.swift_api.util.CountryCodeValidator;
+import com.swiftcodes.swift_api.util.SwiftCodeValidator;
 
 import org.springframework.http.MediaType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 public class SwiftCodeControllerTest {
 
@@ -34,6 +52,14 @@ public class SwiftCodeControllerTest {
     private SwiftCodeService swiftCodeService;
     @Mock
     private CountryCodeValidator countryCodeValidator;
+    @Spy
+    private SwiftCodeValidator swiftCodeValidator = new SwiftCodeValidator();
+    @Spy
+    private SwiftCodeVersions swiftCodeVersions = new SwiftCodeVersions();
+    @Spy
+    private SwiftCodeResponseCache responseCache = new SwiftCodeResponseCache(1 << 20, 1 << 16, Runnable::run);
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private SwiftCodeController swiftCodeController;
@@ -43,6 +69,8 @@ public class SwiftCodeControllerTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        // The real checks, over the mocked country registry
+        ReflectionTestUtils.setField(swiftCodeValidator, "countryCodeValidator", countryCodeValidator);
         mockMvc = MockMvcBuilders.standaloneSetup(swiftCodeController).build();
 
         swiftCode = new SwiftCode();
@@ -65,7 +93,8 @@ public class SwiftCodeControllerTest {
         regular.setCountryName("ALBANIA");
         regular.setHeadquarter(false);
 
-        when(swiftCodeService.getSwiftCodeByCode("AAISALTRAL1")).thenReturn(Optional.of(regular));
+        when(swiftCodeService.getSwiftCodeWithBranches("AAISALTRAL1"))
+                .thenReturn(Optional.of(new SwiftCodeService.SwiftCodeWithBranches(regular, null)));
 
         mockMvc.perform(get("/v1/swift-codes/AAISALTRAL1"))
                 .andExpect(status().isOk())
@@ -87,8 +116,8 @@ public class SwiftCodeControllerTest {
         hq.setCountryName("ALBANIA");
         hq.setHeadquarter(true);
 
-        when(swiftCodeService.getSwiftCodeByCode("AAISALTRXXX")).thenReturn(Optional.of(hq));
-        when(swiftCodeService.findBranchesByBaseCode("AAISALTR", "AAISALTRXXX")).thenReturn(Collections.emptyList());
+        when(swiftCodeService.getSwiftCodeWithBranches("AAISALTRXXX"))
+                .thenReturn(Optional.of(new SwiftCodeService.SwiftCodeWithBranches(hq, Collections.emptyList())));
 
         mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX"))
                 .andExpect(status().isOk())
@@ -104,7 +133,7 @@ public class SwiftCodeControllerTest {
         // Case 1: Invalid SWIFT code (wrong length or format)
         String invalidCode = "ABCDFGH!12";
 
-        when(swiftCodeService.getSwiftCodeByCode(invalidCode)).thenReturn(Optional.empty());
+        when(swiftCodeService.getSwiftCodeWithBranches(invalidCode)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/v1/swift-codes/" + invalidCode))
                 .andExpect(status().isBadRequest())
@@ -113,13 +142,43 @@ public class SwiftCodeControllerTest {
         // Case 2: Non-existing SWIFT code (valid format but not in the system)
         String nonExistingCode = "ABCDEF12";
 
-        when(swiftCodeService.getSwiftCodeByCode(nonExistingCode)).thenReturn(Optional.empty());
+        when(swiftCodeService.getSwiftCodeWithBranches(nonExistingCode)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/v1/swift-codes/" + nonExistingCode))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").exists());
     }
 
+    // Test conditional GETs: 304 while the dataset version is unchanged, 200 again after a write
+    @Test
+    public void testConditionalGet() throws Exception {
+        when(swiftCodeService.getSwiftCodeWithBranches("AAISALTRXXX"))
+                .thenReturn(Optional.of(new SwiftCodeService.SwiftCodeWithBranches(swiftCode, Collections.emptyList())));
+
+        String eTag = mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(swiftCodeService, times(1)).getSwiftCodeWithBranches("AAISALTRXXX");
+
+        // A write in another country leaves the tag alone, one in Albania changes it
+        SwiftCode chile = new SwiftCode();
+        chile.setSwiftCode("BCCSCLR1XXX");
+        chile.setCountryISO2("CL");
+        swiftCodeVersions.onChange(SwiftCodeChangeEvent.added(chile));
+        mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        swiftCodeVersions.onChange(SwiftCodeChangeEvent.deleted(swiftCode));
+        mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCode").value("AAISALTRXXX"));
+    }
+
     // Test for valid country code with non-empty list of SWIFT codes
     @Test
     public void testGetValidCountryCode() throws Exception {
@@ -138,8 +197,13 @@ public class SwiftCodeControllerTest {
 
         swiftCodes.add(swiftCode1);
 
-        // Mock response for "CL" with the list of SWIFT codes
-        when(swiftCodeService.getSwiftCodesByCountry("CL")).thenReturn(swiftCodes);
+        // Mock response for "CL" with the list of SWIFT codes, streamed to the response
+        when(swiftCodeService.hasSwiftCodesInCountry("CL")).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<SwiftCode> action = invocation.getArgument(1);
+            swiftCodes.forEach(action);
+            return null;
+        }).when(swiftCodeService).forEachSwiftCodeInCountry(eq("CL"), any());
 
         // Perform the GET request for the valid country "CL"
         mockMvc.perform(get("/v1/swift-codes/country/CL"))
@@ -147,10 +211,47 @@ public class SwiftCodeControllerTest {
                 .andExpect(jsonPath("$.countryISO2").value("CL"))
                 .andExpect(jsonPath("$.countryName").exists())
                 .andExpect(jsonPath("$.swiftCodes").isArray())
-                .andExpect(jsonPath("$.swiftCodes").isNotEmpty());
+                .andExpect(jsonPath("$.swiftCodes").isNotEmpty())
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("BCCSCLR1XXX"))
+                .andExpect(jsonPath("$.swiftCodes[0].isHeadquarter").value(true))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
 
     }
 
+    // Test for keyset pagination of a country
+    @Test
+    public void testGetCountryPage() throws Exception {
+        when(countryCodeValidator.isValid("PL")).thenReturn(true);
+
+        List<SwiftCode> firstPage = new ArrayList<>();
+        for (String code : List.of("AAAAPLPWXXX", "BBBBPLPWXXX", "CCCCPLPWXXX")) {
+            SwiftCode row = new SwiftCode();
+            row.setSwiftCode(code);
+            row.setBankName("BANK");
+            row.setAddress("ADDRESS");
+            row.setCountryISO2("PL");
+            row.setHeadquarter(true);
+            firstPage.add(row);
+        }
+        // One row more than the limit is requested to detect the next page
+        when(swiftCodeService.getSwiftCodesByCountry("PL", null, 3)).thenReturn(firstPage);
+        when(swiftCodeService.getSwiftCodesByCountry("PL", "BBBBPLPWXXX", 3)).thenReturn(firstPage.subList(2, 3));
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("BBBBPLPWXXX"));
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL").param("limit", "2").param("after", "BBBBPLPWXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.swiftCodes[0].swiftCode").value("CCCCPLPWXXX"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/v1/swift-codes/country/PL").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
     // Test of invalid Country code
     @Test
     public void testGetInvalidCountryCode() throws Exception {
@@ -222,8 +323,7 @@ public class SwiftCodeControllerTest {
     // // Test for deleting a valid SWIFT code
     @Test
     public void testDeleteSwiftCode_Valid() throws Exception {
-        when(swiftCodeService.existsBySwiftCode("BCCSCLR1XXX")).thenReturn(true);
-        doNothing().when(swiftCodeService).deleteSwiftCode("BCCSCLR1XXX");
+        when(swiftCodeService.deleteSwiftCode("BCCSCLR1XXX")).thenReturn(true);
 
         // Perform the DELETE request
         mockMvc.perform(delete("/v1/swift-codes/BCCSCLR1XXX"))
@@ -240,5 +340,210 @@ public class SwiftCodeControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
 
-}
+    // Test a bulk create: invalid and repeated codes rejected before the service is called, existing ones reported
+    @Test
+    public void testAddSwiftCodesBulk() throws Exception {
+        when(countryCodeValidator.isValid("CL")).thenReturn(true);
+        CountryCodeValidator.Country chile = mock(CountryCodeValidator.Country.class);
+        when(chile.getName()).thenReturn("Chile");
+        when(countryCodeValidator.getCountryByCode("CL")).thenReturn(chile);
+        when(swiftCodeService.addSwiftCodes(any())).thenReturn(Set.of("BCCSCLR1XXX"));
+
+        String body = "{\"swiftCodes\":["
+                + "{\"swiftCode\":\"bccsclr1xxx\",\"bankName\":\"BCI\",\"address\":\"A\",\"countryISO2\":\"cl\",\"countryName\":\"Chile\",\"isHeadquarter\":true},"
+                + "{\"swiftCode\":\"BCCSCLR1ABC\",\"bankName\":\"BCI\",\"address\":\"A\",\"countryISO2\":\"CL\",\"countryName\":\"Chile\",\"isHeadquarter\":false},"
+                + "{\"swiftCode\":\"BCCSCLR1DEF\",\"bankName\":\"BCI\",\"address\":\"A\",\"countryISO2\":\"CL\",\"countryName\":\"Chile\",\"isHeadquarter\":true},"
+                + "{\"swiftCode\":\"BCCSCLR1ABC\",\"bankName\":\"BCI\",\"address\":\"A\",\"countryISO2\":\"CL\",\"countryName\":\"Chile\",\"isHeadquarter\":false}]}";
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].swiftCode").value("BCCSCLR1XXX"))
+                .andExpect(jsonPath("$.results[0].status").value("EXISTS"))
+                .andExpect(jsonPath("$.results[1].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].message").doesNotExist())
+                .andExpect(jsonPath("$.results[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[2].message")
+                        .value("SWIFT code not ending with 'XXX' indicates a branch. Please set headquarter = false."))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(3));
+
+        // Only the valid, distinct codes reach the service, in one call
+        verify(swiftCodeService, times(1)).addSwiftCodes(argThat(codes -> codes.size() == 2));
+
+        mockMvc.perform(post("/v1/swift-codes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Test a bulk delete: every code reported, only well-formed distinct codes passed to the service
+    @Test
+    public void testDeleteSwiftCodesBulk() throws Exception {
+        when(swiftCodeService.deleteSwiftCodes(any())).thenReturn(Set.of("BCCSCLR1XXX"));
+
+        mockMvc.perform(post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\":[\"bccsclr1xxx\",\"AAISALTRXXX\",\"BAD\",\"BCCSCLR1XXX\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("DELETED"))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(3));
+
+        verify(swiftCodeService, times(1)).deleteSwiftCodes(eq(Set.of("BCCSCLR1XXX", "AAISALTRXXX")));
+    }
+
+    // Test a batch lookup: duplicates collapsed, every code reported with its status, branches for headquarters
+    @Test
+    public void testLookupSwiftCodes() throws Exception {
+        SwiftCode branch = new SwiftCode();
+        branch.setSwiftCode("AAISALTRAL1");
+        branch.setBankName("UNITED BANK OF ALBANIA SH.A");
+        branch.setCountryISO2("AL");
+        branch.setHeadquarter(false);
+
+        when(swiftCodeService.getSwiftCodesByCodes(List.of("AAISALTRXXX", "ABCDEFGHIJK")))
+                .thenReturn(Map.of("AAISALTRXXX", swiftCode));
+        when(swiftCodeService.findBranchesByHeadquarters(List.of("AAISALTRXXX")))
+                .thenReturn(Map.of("AAISALTRXXX", List.of(branch)));
+
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\": [\"aaisaltrxxx\", \"AAISALTRXXX\", \"ABCDEFGHIJK\", \"SHORT\", \"ABCDEF!HIJK\"], \"includeBranches\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(4))
+                .andExpect(jsonPath("$.results[0].swiftCode").value("AAISALTRXXX"))
+                .andExpect(jsonPath("$.results[0].status").value("FOUND"))
+                .andExpect(jsonPath("$.results[0].countryName").value("ALBANIA"))
+                .andExpect(jsonPath("$.results[0].branches[0].swiftCode").value("AAISALTRAL1"))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.found").value(1))
+                .andExpect(jsonPath("$.notFound").value(1))
+                .andExpect(jsonPath("$.invalid").value(2));
+
+        // An empty list is rejected
+        mockMvc.perform(post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    // Test that a repeated lookup is answered from the response cache, gzipped on request, until the data changes
+    @Test
+    public void testResponseCache() throws Exception {
+        List<SwiftCode> branches = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            SwiftCode branch = new SwiftCode();
+            branch.setSwiftCode(String.format("AAISALTRB%02d", i));
+            branch.setBankName("UNITED BANK OF ALBANIA SH.A");
+            branch.setAddress("HYRJA 3 RR. DRITAN HOXHA ND. 11 TIRANA");
+            branch.setCountryISO2("AL");
+            branches.add(branch);
+        }
+        when(swiftCodeService.getSwiftCodeWithBranches("AAISALTRXXX"))
+                .thenReturn(Optional.of(new SwiftCodeService.SwiftCodeWithBranches(swiftCode, branches)));
+
+        byte[] plain = mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.branches.length()").value(20))
+                .andReturn().getResponse().getContentAsByteArray();
 
+        byte[] gzipped = mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+
+        mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().bytes(plain));
+        verify(swiftCodeService, times(1)).getSwiftCodeWithBranches("AAISALTRXXX");
+
+        // A new branch evicts the headquarter
+        SwiftCode added = new SwiftCode();
+        added.setSwiftCode("AAISALTRB99");
+        added.setCountryISO2("AL");
+        SwiftCodeChangeEvent event = SwiftCodeChangeEvent.added(added);
+        swiftCodeVersions.onChange(event);
+        responseCache.onChange(event);
+
+        mockMvc.perform(get("/v1/swift-codes/AAISALTRXXX"))
+                .andExpect(status().isOk());
+        verify(swiftCodeService, times(2)).getSwiftCodeWithBranches("AAISALTRXXX");
+    }
+
+    // Test the search endpoint's validation and response shape
+    @Test
+    public void testSearchSwiftCodes() throws Exception {
+        SwiftCodeTextIndex.Result result = SwiftCodeTextIndex.of(List.of(swiftCode)).search("united albania", null, true, 0, 20);
+        when(swiftCodeService.searchSwiftCodes("united albania", null, true, 0, 20)).thenReturn(result);
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "united albania"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query").value("united albania"))
+                .andExpect(jsonPath("$.countryISO2").doesNotExist())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.results[0].swiftCode").value("AAISALTRXXX"))
+                .andExpect(jsonPath("$.results[0].bankName").value("UNITED BANK OF ALBANIA SH.A"))
+                .andExpect(jsonPath("$.results[0].isHeadquarter").value(true))
+                .andExpect(jsonPath("$.results[0].score").isNumber());
+
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Query parameter q is required."));
+        when(countryCodeValidator.isValid("ZZ")).thenReturn(false);
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank").param("country", "zz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid country code."));
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+
+        // Not built yet
+        when(swiftCodeService.searchSwiftCodes("bank", null, true, 0, 20)).thenReturn(null);
+        mockMvc.perform(get("/v1/swift-codes/search").param("q", "bank"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    // Test the stats endpoints' validation, not-found and not-ready answers
+    @Test
+    public void testStats() throws Exception {
+        SwiftCodeAggregates aggregates = SwiftCodeAggregates.of(List.of(swiftCode));
+        when(swiftCodeService.getStats(10)).thenReturn(aggregates.summary(10));
+        mockMvc.perform(get("/v1/swift-codes/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.codes").value(1))
+                .andExpect(jsonPath("$.countries[0].countryISO2").value("AL"))
+                .andExpect(jsonPath("$.countries[0].topTowns").doesNotExist())
+                .andExpect(jsonPath("$.topTowns").isArray());
+        mockMvc.perform(get("/v1/swift-codes/stats").param("towns", "101"))
+                .andExpect(status().isBadRequest());
+
+        when(countryCodeValidator.isValid("AL")).thenReturn(true);
+        when(countryCodeValidator.isValid("DE")).thenReturn(true);
+        when(swiftCodeService.isStatsReady()).thenReturn(true);
+        when(swiftCodeService.getCountryStats("AL", 10)).thenReturn(Optional.of(aggregates.country("AL", 10)));
+        when(swiftCodeService.getCountryStats("DE", 10)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/v1/swift-codes/stats/al"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.headquarters").value(1))
+                .andExpect(jsonPath("$.branchesPerHeadquarter['0']").value(1));
+        mockMvc.perform(get("/v1/swift-codes/stats/DE"))
+                .andExpect(status().isNotFound());
+
+        // Not counted yet
+        when(swiftCodeService.isStatsReady()).thenReturn(false);
+        mockMvc.perform(get("/v1/swift-codes/stats/AL"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
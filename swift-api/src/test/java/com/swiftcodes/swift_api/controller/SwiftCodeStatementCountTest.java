@@ -0,0 +1,211 @@
+package com.swiftcodes.swift_api.controller;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.service.SwiftCodeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SQL statements each endpoint sends to the database, counted at the JDBC level on the request thread.
+// An N+1 or an extra round trip on any endpoint fails here. Read model and Bloom filter disabled,
+// so reads go to the H2 database every time.
+@SpringBootTest(properties = {"swift.read-model.enabled=false", "swift.bloom-filter.enabled=false"})
+@AutoConfigureMockMvc
+public class SwiftCodeStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    // Test that a headquarter and its branches take one query, a branch one, and a cached repeat none
+    @Test
+    public void testCodeLookups() throws Exception {
+        String branch = swiftCodeService.getSwiftCodesByCountry("PL", null, 1000).stream()
+                .map(SwiftCode::getSwiftCode)
+                .filter(code -> code.startsWith("TPEOPLPW") && !code.endsWith("XXX"))
+                .findFirst().orElseThrow();
+
+        assertStatements(1, get("/v1/swift-codes/TPEOPLPWXXX"),
+                status().isOk(), jsonPath("$.branches[?(@.swiftCode == '" + branch + "')]").exists());
+        assertStatements(0, get("/v1/swift-codes/TPEOPLPWXXX"),
+                status().isOk(), jsonPath("$.swiftCode").value("TPEOPLPWXXX"));
+        assertStatements(1, get("/v1/swift-codes/" + branch),
+                status().isOk(), jsonPath("$.swiftCode").value(branch));
+        assertStatements(1, get("/v1/swift-codes/ZZZZZZZZZZZ"), status().isNotFound());
+    }
+
+    // Test that a country page is one query, and a whole country an existence check plus one cursor
+    @Test
+    public void testCountryListings() throws Exception {
+        assertStatements(1, get("/v1/swift-codes/country/PL").param("limit", "5"),
+                status().isOk(), jsonPath("$.swiftCodes.length()").value(5));
+        assertStatements(2, get("/v1/swift-codes/country/PL"),
+                status().isOk(), jsonPath("$.countryISO2").value("PL"));
+    }
+
+    // Test that a batch lookup is one IN query per chunk for the codes and one for the branches
+    @Test
+    public void testBatchLookup() throws Exception {
+        assertStatements(2, post("/v1/swift-codes/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\":[\"TPEOPLPWXXX\",\"ZZZZZZZZZZZ\",\"BAD\"],\"includeBranches\":true}"),
+                status().isOk(), jsonPath("$.found").value(1));
+    }
+
+    // Test that an add is the duplicate check plus the insert, and a delete the row read plus the delete,
+    // each with its swift_change_log ids reserved, read back and written
+    @Test
+    public void testWrites() throws Exception {
+        assertStatements(5, post("/v1/swift-codes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCode\":\"QQQQPLPCXXX\",\"bankName\":\"COUNT TEST BANK\",\"address\":\"ADDRESS\","
+                                + "\"countryISO2\":\"PL\",\"countryName\":\"POLAND\",\"isHeadquarter\":true}"),
+                status().isCreated());
+        assertStatements(5, delete("/v1/swift-codes/QQQQPLPCXXX"), status().isOk());
+        assertStatements(1, delete("/v1/swift-codes/QQQQPLPCXXX"), status().isNotFound());
+    }
+
+    // Test that bulk writes cost the same statements for three codes as for one: an IN query plus a JDBC batch
+    // for a create, a locking IN query plus one DELETE for a delete, and the same three change log statements each
+    @Test
+    public void testBulkWrites() throws Exception {
+        StringBuilder codes = new StringBuilder();
+        for (String code : new String[]{"QQQQPLPBXXX", "QQQQPLPBAAA", "QQQQPLPBBBB"}) {
+            codes.append(codes.length() == 0 ? "" : ",").append("{\"swiftCode\":\"").append(code)
+                    .append("\",\"bankName\":\"BULK BANK\",\"address\":\"ADDRESS\",\"countryISO2\":\"PL\",")
+                    .append("\"countryName\":\"POLAND\",\"isHeadquarter\":").append(code.endsWith("XXX")).append("}");
+        }
+        assertStatements(5, post("/v1/swift-codes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\":[" + codes + "]}"),
+                status().isOk(), jsonPath("$.succeeded").value(3));
+        assertStatements(1, get("/v1/swift-codes/QQQQPLPBXXX"),
+                status().isOk(), jsonPath("$.branches.length()").value(2));
+        assertStatements(5, post("/v1/swift-codes/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"swiftCodes\":[\"QQQQPLPBXXX\",\"QQQQPLPBAAA\",\"QQQQPLPBBBB\",\"QQQQPLPBCCC\"]}"),
+                status().isOk(), jsonPath("$.succeeded").value(3), jsonPath("$.results[3].status").value("NOT_FOUND"));
+        assertStatements(1, get("/v1/swift-codes/QQQQPLPBXXX"), status().isNotFound());
+    }
+
+    // Test that search and statistics are answered from memory
+    @Test
+    public void testInMemoryEndpoints() throws Exception {
+        assertStatements(0, get("/v1/swift-codes/search").param("q", "bank"), status().isOk());
+        assertStatements(0, get("/v1/swift-codes/stats"), status().isOk(), jsonPath("$.codes").isNumber());
+        assertStatements(0, get("/v1/swift-codes/stats/PL"),
+                status().isOk(), jsonPath("$.countryISO2").value("PL"));
+    }
+
+    private void assertStatements(int expected, RequestBuilder request, ResultMatcher... matchers) throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(request).andExpectAll(matchers);
+        assertEquals(expected, StatementCounter.count(), "SQL statements executed");
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementCounter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    // Wraps a DataSource's connections and statements to count the statements executed per thread
+    static final class StatementCounter {
+
+        private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+        private StatementCounter() {
+        }
+
+        static void reset() {
+            COUNT.get()[0] = 0;
+        }
+
+        static int count() {
+            return COUNT.get()[0];
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof CallableStatement statement) {
+                    return wrap(CallableStatement.class, statement);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return wrap(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return wrap(Statement.class, statement);
+                }
+                return result;
+            });
+        }
+
+        private static <S extends Statement> S wrap(Class<S> type, S statement) {
+            return proxy(type, statement, (target, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    COUNT.get()[0]++;
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Handler handler) {
+            InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private interface Handler {
+            Object handle(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.swiftcodes.swift_api.event;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.service.SwiftCodeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// The SSE stream of GET /v1/swift-codes/changes, read from MockMvc's response while it is still open.
+// A ring of four events, so a client can fall behind it within a test.
+@SpringBootTest(properties = "swift.change-feed.capacity=4")
+@AutoConfigureMockMvc
+public class SwiftCodeChangeFeedTest {
+
+    private static final Pattern EVENT = Pattern.compile("id:(\\S+)\nevent:(\\w+)\ndata:(.*)\n");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeChangeFeed changeFeed;
+
+    // Test that a client sees every write in order after "ready", and resumes after the last id it saw
+    @Test
+    public void testChangesAndResume() throws Exception {
+        MockHttpServletResponse live = open(get("/v1/swift-codes/changes"));
+        long start = changeFeed.lastSequence();
+        awaitEvents(live, events -> events.size() == 1);
+
+        swiftCodeService.addSwiftCode(code("QQQQPLFDXXX"));
+        swiftCodeService.deleteSwiftCode("QQQQPLFDXXX");
+
+        List<String[]> events = awaitEvents(live, received -> received.size() == 3);
+        assertEquals("ready", events.get(0)[1]);
+        assertEquals(changeFeed.eventId(start), events.get(0)[0]);
+        assertEquals("change", events.get(1)[1]);
+        assertEquals(changeFeed.eventId(start + 1), events.get(1)[0]);
+        assertTrue(events.get(1)[2].contains("\"type\":\"ADDED\""));
+        assertTrue(events.get(1)[2].contains("\"swiftCode\":\"QQQQPLFDXXX\""));
+        assertTrue(events.get(2)[2].contains("\"type\":\"DELETED\""));
+
+        // Reconnect after the add: only the delete is replayed
+        MockHttpServletResponse resumed = open(get("/v1/swift-codes/changes")
+                .header("Last-Event-ID", events.get(1)[0]));
+        List<String[]> replayed = awaitEvents(resumed, received -> received.size() == 2);
+        assertEquals("ready", replayed.get(0)[1]);
+        assertEquals(changeFeed.eventId(start + 2), replayed.get(1)[0]);
+        assertTrue(replayed.get(1)[2].contains("\"type\":\"DELETED\""));
+    }
+
+    // Test that an id that left the ring, or comes from another process, starts with a reset
+    @Test
+    public void testResetWhenBehind() throws Exception {
+        String first = changeFeed.eventId(changeFeed.lastSequence());
+        for (int i = 0; i < 3; i++) {
+            swiftCodeService.addSwiftCode(code("QQQQPLR" + i + "XXX"));
+            swiftCodeService.deleteSwiftCode("QQQQPLR" + i + "XXX");
+        }
+
+        List<String[]> behind = awaitEvents(open(get("/v1/swift-codes/changes").param("after", first)),
+                received -> !received.isEmpty());
+        assertEquals("reset", behind.get(0)[1]);
+        assertEquals(changeFeed.eventId(changeFeed.lastSequence()), behind.get(0)[0]);
+
+        List<String[]> restarted = awaitEvents(open(get("/v1/swift-codes/changes").header("Last-Event-ID", "abc-1")),
+                received -> !received.isEmpty());
+        assertEquals("reset", restarted.get(0)[1]);
+    }
+
+    private MockHttpServletResponse open(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    // Events received so far as {id, name, data}, once the condition holds or after five seconds
+    private static List<String[]> awaitEvents(MockHttpServletResponse response, Predicate<List<String[]>> condition)
+            throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<String[]> events = parse(response);
+        while (!condition.test(events) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            events = parse(response);
+        }
+        assertTrue(condition.test(events), "Events received: " + response.getContentAsString());
+        return events;
+    }
+
+    private static List<String[]> parse(MockHttpServletResponse response) throws Exception {
+        Matcher matcher = EVENT.matcher(response.getContentAsString());
+        List<String[]> events = new ArrayList<>();
+        while (matcher.find()) {
+            events.add(new String[]{matcher.group(1), matcher.group(2), matcher.group(3)});
+        }
+        return events;
+    }
+
+    private static SwiftCode code(String swift) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName("FEED BANK");
+        code.setAddress("ADDRESS");
+        code.setCountryISO2("PL");
+        code.setCountryName("POLAND");
+        code.setHeadquarter(true);
+        return code;
+    }
+}
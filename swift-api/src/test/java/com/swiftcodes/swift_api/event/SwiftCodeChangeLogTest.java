@@ -0,0 +1,190 @@
+package com.swiftcodes.swift_api.event;
+
+import com.swiftcodes.swift_api.SwiftApiApplication;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.service.SwiftCodeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two instances of the application sharing one H2 database, as replicas behind a load balancer would
+// share MySQL. Each keeps its own read model, Bloom filter and statistics in memory; a write through
+// one has to reach the other's through swift_change_log.
+public class SwiftCodeChangeLogTest {
+
+    private static String url;
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    public static void startInstances() {
+        url = "--spring.datasource.url=jdbc:h2:mem:swiftdb-shared-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        first = start("50ms", url, "--spring.jpa.hibernate.ddl-auto=create-drop");
+        // The schema and data are there already, the second instance must not recreate them
+        second = start("50ms", url, "--spring.jpa.hibernate.ddl-auto=none");
+    }
+
+    @AfterAll
+    public static void stopInstances() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    // Test that an add and a delete on one instance show in the other's lookups, which it answers from memory
+    @Test
+    public void testSingleWritesReachOtherInstance() {
+        SwiftCodeService writer = first.getBean(SwiftCodeService.class);
+        SwiftCodeService reader = second.getBean(SwiftCodeService.class);
+        double appliedBefore = applied(second);
+
+        // Seen as unknown first, so neither the read model nor the negative cache may keep the answer
+        assertTrue(reader.getSwiftCodeByCode("QQQQPLCLXXX").isEmpty());
+        writer.addSwiftCode(code("QQQQPLCLXXX", true));
+        await(() -> reader.getSwiftCodeByCode("QQQQPLCLXXX").isPresent());
+        assertEquals("CHANGE LOG BANK", reader.getSwiftCodeByCode("QQQQPLCLXXX").get().getBankName());
+
+        writer.deleteSwiftCode("QQQQPLCLXXX");
+        await(() -> reader.getSwiftCodeByCode("QQQQPLCLXXX").isEmpty());
+        assertEquals(appliedBefore + 2, applied(second));
+    }
+
+    // Test that a bulk write travels as one change, in both directions, and the staleness gauge stays low
+    @Test
+    public void testBulkWritesReachOtherInstance() {
+        SwiftCodeService firstService = first.getBean(SwiftCodeService.class);
+        SwiftCodeService secondService = second.getBean(SwiftCodeService.class);
+
+        secondService.addSwiftCodes(List.of(code("QQQQPLCBXXX", true), code("QQQQPLCBAAA", false)));
+        await(() -> firstService.getSwiftCodeWithBranches("QQQQPLCBXXX")
+                .map(found -> found.getBranches().size() == 1).orElse(false));
+
+        firstService.deleteSwiftCodes(Set.of("QQQQPLCBXXX", "QQQQPLCBAAA"));
+        await(() -> secondService.getSwiftCodeByCode("QQQQPLCBAAA").isEmpty()
+                && secondService.getSwiftCodeByCode("QQQQPLCBXXX").isEmpty());
+
+        for (ConfigurableApplicationContext instance : List.of(first, second)) {
+            double staleness = instance.getBean(MeterRegistry.class).get("swift.changelog.staleness").gauge().value();
+            assertTrue(staleness < 5, "Staleness " + staleness + "s");
+        }
+    }
+
+    // Test that a rolled back write gives its change log id back, so the next write takes it
+    // and reaches the other instance with no hole to wait on
+    @Test
+    public void testRolledBackWriteLeavesNoGap() {
+        SwiftCodeService writer = first.getBean(SwiftCodeService.class);
+        SwiftCodeService reader = second.getBean(SwiftCodeService.class);
+        JdbcTemplate jdbcTemplate = first.getBean(JdbcTemplate.class);
+        long lastId = jdbcTemplate.queryForObject("SELECT last_id FROM swift_change_log_sequence", Long.class);
+
+        new TransactionTemplate(first.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            writer.addSwiftCode(code("QQQQPLCRXXX", true));
+            status.setRollbackOnly();
+        });
+        assertEquals(lastId, jdbcTemplate.queryForObject("SELECT last_id FROM swift_change_log_sequence", Long.class));
+
+        writer.addSwiftCode(code("QQQQPLCSXXX", true));
+        assertEquals(lastId + 1, jdbcTemplate.queryForObject(
+                "SELECT id FROM swift_change_log WHERE swift_code = 'QQQQPLCSXXX'", Long.class));
+        await(() -> reader.getSwiftCodeByCode("QQQQPLCSXXX").isPresent());
+        assertTrue(reader.getSwiftCodeByCode("QQQQPLCRXXX").isEmpty());
+        writer.deleteSwiftCode("QQQQPLCSXXX");
+    }
+
+    // Test that an instance whose unread rows were pruned, as after polls failing for longer than the
+    // retention, notices the missing ids and rebuilds from the table instead of staying stale
+    @Test
+    public void testPrunedRowsRebuildStoppedInstance() {
+        // Polled by hand only, as if its polls were failing
+        ConfigurableApplicationContext stopped = start("1h", url, "--spring.jpa.hibernate.ddl-auto=none");
+        try {
+            SwiftCodeService writer = first.getBean(SwiftCodeService.class);
+            SwiftCodeService reader = stopped.getBean(SwiftCodeService.class);
+            SwiftCodeChangeLog changeLog = stopped.getBean(SwiftCodeChangeLog.class);
+            JdbcTemplate jdbcTemplate = first.getBean(JdbcTemplate.class);
+
+            // Every unread row pruned
+            writer.addSwiftCode(code("QQQQPLCPXXX", true));
+            jdbcTemplate.update("DELETE FROM swift_change_log");
+            changeLog.poll();
+            assertTrue(reader.getSwiftCodeByCode("QQQQPLCPXXX").isPresent());
+            assertEquals(1, resyncs(stopped));
+
+            // The oldest unread row pruned, the one after it kept
+            writer.addSwiftCode(code("QQQQPLCQXXX", true));
+            writer.deleteSwiftCode("QQQQPLCPXXX");
+            jdbcTemplate.update("DELETE FROM swift_change_log WHERE swift_code = 'QQQQPLCQXXX'");
+            changeLog.poll();
+            assertTrue(reader.getSwiftCodeByCode("QQQQPLCQXXX").isPresent());
+            assertTrue(reader.getSwiftCodeByCode("QQQQPLCPXXX").isEmpty());
+            assertEquals(2, resyncs(stopped));
+
+            // Nothing missing
+            writer.deleteSwiftCode("QQQQPLCQXXX");
+            changeLog.poll();
+            assertTrue(reader.getSwiftCodeByCode("QQQQPLCQXXX").isEmpty());
+            assertEquals(2, resyncs(stopped));
+        } finally {
+            stopped.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String pollInterval, String... args) {
+        String[] all = new String[args.length + 2];
+        System.arraycopy(args, 0, all, 0, args.length);
+        all[args.length] = "--server.port=0";
+        all[args.length + 1] = "--swift.change-log.poll-interval=" + pollInterval;
+        return new SpringApplicationBuilder(SwiftApiApplication.class).run(all);
+    }
+
+    private static double resyncs(ConfigurableApplicationContext instance) {
+        return instance.getBean(MeterRegistry.class).get("swift.changelog.resyncs").functionCounter().count();
+    }
+
+    private static double applied(ConfigurableApplicationContext instance) {
+        return instance.getBean(MeterRegistry.class).get("swift.changelog.applied").functionCounter().count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertTrue(condition.getAsBoolean(), "Change not applied by the other instance within five seconds");
+    }
+
+    private static SwiftCode code(String swift, boolean headquarter) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName("CHANGE LOG BANK");
+        code.setAddress("ADDRESS");
+        code.setCountryISO2("PL");
+        code.setCountryName("POLAND");
+        code.setHeadquarter(headquarter);
+        return code;
+    }
+}
@@ -0,0 +1,136 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedSwiftCodeSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private static SwiftCode code(String swift, String iso2, String townName) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName("BANK Ł");
+        code.setAddress("ADDRESS");
+        code.setTownName(townName);
+        code.setCountryISO2(iso2);
+        code.setCountryName("COUNTRY");
+        code.setHeadquarter(swift.endsWith("XXX"));
+        return code;
+    }
+
+    // Test that a written snapshot answers every lookup like the heap snapshot it was written from
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<SwiftCode> codes = List.of(
+                code("AAISALTRXXX", "AL", "TIRANA"),
+                code("AAISALTRAL2", "AL", null),
+                code("AAISALTRAL1", "AL", "DURRES"),
+                code("BCCSCLR1XXX", "CL", "SANTIAGO"));
+        SwiftCodeSnapshot heap = SwiftCodeSnapshot.of(codes);
+        Path file = dir.resolve("swift-codes.snapshot");
+        MappedSwiftCodeSnapshot.write(file, heap.all());
+
+        MappedSwiftCodeSnapshot mapped = MappedSwiftCodeSnapshot.open(file);
+
+        assertEquals(4, mapped.size());
+        assertEquals(MappedSwiftCodeSnapshot.contentHash(codes), mapped.contentHash());
+        SwiftCode hq = mapped.findByCode("AAISALTRXXX");
+        assertTrue(hq.isHeadquarter());
+        assertEquals("BANK Ł", hq.getBankName());
+        assertEquals("TIRANA", hq.getTownName());
+        assertEquals("AL", hq.getCountryISO2());
+        assertNull(mapped.findByCode("AAISALTRAL2").getTownName());
+        assertNull(mapped.findByCode("AAISALTR"));
+        assertNull(mapped.findByCode("ZZZZZZZZXXX"));
+        for (String country : List.of("AL", "CL", "PL")) {
+            assertEquals(codesOf(heap.findByCountry(country)), codesOf(mapped.findByCountry(country)));
+        }
+        for (String exclude : List.of("AAISALTRXXX", "AAISALTRAL1")) {
+            assertEquals(codesOf(heap.findBranches("AAISALTR", exclude)), codesOf(mapped.findBranches("AAISALTR", exclude)));
+        }
+        assertTrue(mapped.findBranches("BCCSCLR1", "BCCSCLR1XXX").isEmpty());
+    }
+
+    // Test that truncated or foreign files are refused instead of served
+    @Test
+    public void testRejectsCorruptFiles() throws IOException {
+        Path file = dir.resolve("swift-codes.snapshot");
+        MappedSwiftCodeSnapshot.write(file, List.of(code("AAISALTRXXX", "AL", "TIRANA")));
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = dir.resolve("truncated.snapshot");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedSwiftCodeSnapshot.open(truncated));
+
+        Path foreign = dir.resolve("foreign.snapshot");
+        Files.write(foreign, new byte[bytes.length]);
+        assertThrows(IOException.class, () -> MappedSwiftCodeSnapshot.open(foreign));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertFalse(files.anyMatch(path -> path.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    // Test that processes writing the same target, as instances sharing a snapshot-file setting would,
+    // each build their own temporary file: the target always ends up a whole snapshot of one of them
+    @Test
+    public void testConcurrentWritesToOneFile() throws Exception {
+        Path file = dir.resolve("swift-codes.snapshot");
+        List<List<SwiftCode>> datasets = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            List<SwiftCode> codes = new ArrayList<>();
+            for (int i = 0; i < 2000 * (writer + 1); i++) {
+                codes.add(code(String.format("BANK%04dXXX", i), "AL", "TOWN " + writer));
+            }
+            datasets.add(codes);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(datasets.size());
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int round = 0; round < 5; round++) {
+                for (List<SwiftCode> codes : datasets) {
+                    writes.add(pool.submit(() -> {
+                        MappedSwiftCodeSnapshot.write(file, codes);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        MappedSwiftCodeSnapshot mapped = MappedSwiftCodeSnapshot.open(file);
+        List<Long> hashes = datasets.stream().map(MappedSwiftCodeSnapshot::contentHash).toList();
+        assertTrue(hashes.contains(mapped.contentHash()));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    private static List<String> codesOf(List<SwiftCode> codes) {
+        return codes.stream().map(SwiftCode::getSwiftCode).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PatchedSwiftCodeReadModelTest {
+
+    @TempDir
+    Path dir;
+
+    private static SwiftCode code(String swift, String iso2, String bankName) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName(bankName);
+        code.setAddress("ADDRESS");
+        code.setCountryISO2(iso2);
+        code.setCountryName("COUNTRY");
+        code.setHeadquarter(swift.endsWith("XXX"));
+        return code;
+    }
+
+    // Test that a mapped file with changes on top answers every lookup like a heap snapshot with the same changes
+    @Test
+    public void testAnswersLikeHeapSnapshot() throws IOException {
+        List<SwiftCode> codes = List.of(
+                code("AAISALTRXXX", "AL", "FILE BANK"),
+                code("AAISALTRAL1", "AL", "FILE BANK"),
+                code("AAISALTRAL3", "AL", "FILE BANK"),
+                code("BCCSCLR1XXX", "CL", "FILE BANK"));
+        Path file = dir.resolve("swift-codes.snapshot");
+        MappedSwiftCodeSnapshot.write(file, codes);
+
+        List<SwiftCode> added = List.of(code("AAISALTRAL2", "AL", "NEW BANK"), code("AAISALTRXXX", "AL", "NEW BANK"));
+        List<SwiftCode> deleted = List.of(code("AAISALTRAL3", "AL", "FILE BANK"), code("BCCSCLR1XXX", "CL", "FILE BANK"));
+        PatchedSwiftCodeReadModel patched = PatchedSwiftCodeReadModel.of(MappedSwiftCodeSnapshot.open(file))
+                .withAll(added).withoutAll(deleted);
+        SwiftCodeSnapshot heap = SwiftCodeSnapshot.of(codes).withAll(added).withoutAll(deleted);
+
+        assertEquals(heap.size(), patched.size());
+        assertEquals("NEW BANK", patched.findByCode("AAISALTRXXX").getBankName());
+        assertEquals("FILE BANK", patched.findByCode("AAISALTRAL1").getBankName());
+        assertNull(patched.findByCode("AAISALTRAL3"));
+        for (String country : List.of("AL", "CL")) {
+            assertEquals(codesOf(heap.findByCountry(country)), codesOf(patched.findByCountry(country)));
+        }
+        assertEquals(codesOf(heap.findByCountry("AL", "AAISALTRAL1", 2)),
+                codesOf(patched.findByCountry("AL", "AAISALTRAL1", 2)));
+        assertEquals(codesOf(heap.findBranches("AAISALTR", "AAISALTRXXX")),
+                codesOf(patched.findBranches("AAISALTR", "AAISALTRXXX")));
+    }
+
+    private static List<String> codesOf(List<SwiftCode> codes) {
+        return codes.stream().map(SwiftCode::getSwiftCode).toList();
+    }
+}
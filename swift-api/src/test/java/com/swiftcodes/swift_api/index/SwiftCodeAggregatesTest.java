@@ -0,0 +1,82 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SwiftCodeAggregatesTest {
+
+    private static SwiftCode code(String swift, String town) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName("BANK");
+        code.setAddress("ADDRESS");
+        code.setTownName(town);
+        code.setCountryISO2(swift.substring(4, 6));
+        code.setCountryName(swift.substring(4, 6).equals("PL") ? "POLAND" : "CHILE");
+        code.setHeadquarter(swift.endsWith("XXX"));
+        return code;
+    }
+
+    private static SwiftCodeAggregates sample() {
+        return SwiftCodeAggregates.of(List.of(
+                code("ALBPPLPWXXX", "WARSZAWA"),
+                code("ALBPPLPWCUS", "WARSZAWA"),
+                code("ALBPPLPWKRK", "KRAKOW"),
+                code("BREXPLPWXXX", "WARSZAWA"),
+                code("PKOPPLPWGDA", "GDANSK"),
+                code("BCHICLRMXXX", "SANTIAGO")));
+    }
+
+    // Test the totals, per-country counts, branch distribution and top towns
+    @Test
+    public void testCounts() {
+        SwiftCodeAggregates aggregates = sample();
+
+        SwiftCodeAggregates.Summary summary = aggregates.summary(2);
+        assertEquals(6, summary.getCodes());
+        assertEquals(3, summary.getHeadquarters());
+        assertEquals(List.of("CL", "PL"), summary.getCountries().stream().map(SwiftCodeAggregates.CountryStats::getCountryISO2).toList());
+        assertEquals("WARSZAWA", summary.getTopTowns().get(0).getTown());
+        assertEquals(3, summary.getTopTowns().get(0).getCodes());
+        assertNull(summary.getCountries().get(0).getTopTowns());
+
+        SwiftCodeAggregates.CountryStats poland = aggregates.country("PL", 10);
+        assertEquals("POLAND", poland.getCountryName());
+        assertEquals(5, poland.getCodes());
+        assertEquals(2, poland.getHeadquarters());
+        assertEquals(3, poland.getBranches());
+        assertEquals(2, poland.getBanksWithHeadquarter());
+        // PKOPPLPW has no headquarter in the dataset
+        assertEquals(1, poland.getBranchesWithoutHeadquarter());
+        assertEquals(new TreeMap<>(Map.of(0, 1, 2, 1)), poland.getBranchesPerHeadquarter());
+        assertEquals(List.of("WARSZAWA", "KRAKOW", "GDANSK"), poland.getTopTowns().stream().map(SwiftCodeAggregates.TownCount::getTown).toList());
+        assertNull(aggregates.country("DE", 10));
+    }
+
+    // Test that removing codes takes their counts back, and that repeated adds and unknown removes change nothing
+    @Test
+    public void testIdempotentUpdates() {
+        SwiftCodeAggregates aggregates = sample();
+        aggregates.add(code("ALBPPLPWXXX", "WARSZAWA"));
+        aggregates.remove(code("ZZZZPLPWXXX", "WARSZAWA"));
+        assertEquals(6, aggregates.size());
+
+        aggregates.remove(code("ALBPPLPWXXX", "WARSZAWA"));
+        SwiftCodeAggregates.CountryStats poland = aggregates.country("PL", 1);
+        assertEquals(1, poland.getHeadquarters());
+        assertEquals(3, poland.getBranchesWithoutHeadquarter());
+        assertEquals(new TreeMap<>(Map.of(0, 1)), poland.getBranchesPerHeadquarter());
+        assertEquals(2, poland.getTopTowns().get(0).getCodes());
+
+        aggregates.remove(code("BCHICLRMXXX", "SANTIAGO"));
+        assertNull(aggregates.country("CL", 1));
+        assertEquals(1, aggregates.summary(0).getCountries().size());
+    }
+}
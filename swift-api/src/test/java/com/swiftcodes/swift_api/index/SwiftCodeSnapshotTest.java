@@ -0,0 +1,94 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SwiftCodeSnapshotTest {
+
+    private static SwiftCode code(String swift, String iso2) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName("BANK");
+        code.setAddress("ADDRESS");
+        code.setCountryISO2(iso2);
+        code.setCountryName("COUNTRY");
+        code.setHeadquarter(swift.endsWith("XXX"));
+        return code;
+    }
+
+    // Test the primary and secondary indexes of a freshly built snapshot
+    @Test
+    public void testIndexes() {
+        SwiftCodeSnapshot snapshot = SwiftCodeSnapshot.of(List.of(
+                code("AAISALTRXXX", "AL"),
+                code("AAISALTRAL2", "AL"),
+                code("AAISALTRAL1", "AL"),
+                code("BCCSCLR1XXX", "CL")));
+
+        assertEquals(4, snapshot.size());
+        assertEquals("AL", snapshot.findByCode("AAISALTRAL1").getCountryISO2());
+        assertNull(snapshot.findByCode("UNKNOWN0XXX"));
+        assertEquals(List.of("AAISALTRAL1", "AAISALTRAL2", "AAISALTRXXX"),
+                snapshot.findByCountry("AL").stream().map(SwiftCode::getSwiftCode).toList());
+        assertEquals(List.of("AAISALTRAL1", "AAISALTRAL2"),
+                snapshot.findBranches("AAISALTR", "AAISALTRXXX").stream().map(SwiftCode::getSwiftCode).toList());
+        assertEquals(List.of("AAISALTRAL2"),
+                snapshot.findBranches("AAISALTR", "AAISALTRAL1").stream().map(SwiftCode::getSwiftCode).toList());
+        assertTrue(snapshot.findBranches("BCCSCLR1", "BCCSCLR1XXX").isEmpty());
+    }
+
+    // Test that writes produce a new snapshot and leave the previous one untouched
+    @Test
+    public void testCopyOnWrite() {
+        SwiftCodeSnapshot original = SwiftCodeSnapshot.of(List.of(code("AAISALTRXXX", "AL")));
+
+        SwiftCodeSnapshot added = original.with(code("AAISALTRAL1", "AL"));
+        assertEquals(1, original.size());
+        assertEquals(2, added.size());
+        assertTrue(original.findBranches("AAISALTR", "AAISALTRXXX").isEmpty());
+        assertEquals(1, added.findBranches("AAISALTR", "AAISALTRXXX").size());
+
+        SwiftCodeSnapshot removed = added.without("AAISALTRAL1");
+        assertEquals(2, added.size());
+        assertEquals(1, removed.size());
+        assertTrue(removed.findBranches("AAISALTR", "AAISALTRXXX").isEmpty());
+
+        SwiftCodeSnapshot emptied = removed.without("AAISALTRXXX");
+        assertTrue(emptied.findByCountry("AL").isEmpty());
+        assertSame(emptied, emptied.without("AAISALTRXXX"));
+    }
+
+    // Test that a batch of writes gives the same indexes as the rows written one by one
+    @Test
+    public void testBatchCopyOnWrite() {
+        SwiftCodeSnapshot original = SwiftCodeSnapshot.of(List.of(code("AAISALTRXXX", "AL"), code("AAISALTRAL1", "AL")));
+
+        SwiftCode replaced = code("AAISALTRAL1", "AL");
+        replaced.setBankName("RENAMED");
+        SwiftCodeSnapshot added = original.withAll(List.of(
+                code("AAISALTRAL3", "AL"), replaced, code("AAISALTRAL2", "AL"), code("BCCSCLR1XXX", "CL")));
+        assertEquals(2, original.size());
+        assertEquals(5, added.size());
+        assertEquals("RENAMED", added.findByCode("AAISALTRAL1").getBankName());
+        assertEquals(List.of("AAISALTRAL1", "AAISALTRAL2", "AAISALTRAL3", "AAISALTRXXX"),
+                added.findByCountry("AL").stream().map(SwiftCode::getSwiftCode).toList());
+        assertEquals(List.of("AAISALTRAL1", "AAISALTRAL2", "AAISALTRAL3"),
+                added.findBranches("AAISALTR", "AAISALTRXXX").stream().map(SwiftCode::getSwiftCode).toList());
+        assertSame(replaced, added.findBranches("AAISALTR", "AAISALTRXXX").get(0));
+
+        SwiftCodeSnapshot removed = added.withoutAll(List.of(
+                code("AAISALTRAL1", "AL"), code("AAISALTRAL3", "AL"), code("BCCSCLR1XXX", "CL"), code("UNKNOWN0XXX", "XX")));
+        assertEquals(5, added.size());
+        assertEquals(2, removed.size());
+        assertEquals(List.of("AAISALTRAL2"),
+                removed.findBranches("AAISALTR", "AAISALTRXXX").stream().map(SwiftCode::getSwiftCode).toList());
+        assertTrue(removed.findByCountry("CL").isEmpty());
+    }
+}
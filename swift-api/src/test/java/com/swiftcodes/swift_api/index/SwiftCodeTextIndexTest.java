@@ -0,0 +1,110 @@
+package com.swiftcodes.swift_api.index;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SwiftCodeTextIndexTest {
+
+    private static SwiftCode code(String swift, String bankName, String town, String address) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName(bankName);
+        code.setTownName(town);
+        code.setAddress(address);
+        code.setCountryISO2(swift.substring(4, 6));
+        code.setCountryName("COUNTRY");
+        code.setHeadquarter(swift.endsWith("XXX"));
+        return code;
+    }
+
+    private static SwiftCodeTextIndex sample() {
+        return SwiftCodeTextIndex.of(List.of(
+                code("AAISALTRXXX", "UNITED BANK OF ALBANIA SH.A", "TIRANA", "HYRJA 3 RR. DRITAN HOXHA ND. 11 TIRANA"),
+                code("BCHICLRMXXX", "BANCO DE CHILE", "SANTIAGO", "AHUMADA 251 SANTIAGO"),
+                code("BREXPLPWXXX", "MBANK S.A. (FORMERLY BRE BANK S.A.)", "WARSZAWA", "PROSTA 18 WARSZAWA"),
+                code("ALBPPLPWXXX", "ALIOR BANK SPOLKA AKCYJNA", "WARSZAWA", "LOPUSZANSKA 38D WARSZAWA"),
+                code("PKOPPLPWXXX", "PKO BANK POLSKI S.A.", "WARSZAWA", "UNITED STREET 1 WARSZAWA")));
+    }
+
+    private static List<String> codes(SwiftCodeTextIndex.Result result) {
+        List<String> codes = new ArrayList<>();
+        result.getHits().forEach(hit -> codes.add(hit.getSwiftCode().getSwiftCode()));
+        return codes;
+    }
+
+    // Test exact, prefix and multi-word queries, which need every word to match
+    @Test
+    public void testExactAndPrefixMatches() {
+        SwiftCodeTextIndex index = sample();
+
+        assertEquals(List.of("AAISALTRXXX"), codes(index.search("united bank of albania", null, false, 0, 10)));
+        assertEquals(List.of("AAISALTRXXX"), codes(index.search("UNIT BAN ALB", null, false, 0, 10)));
+        assertEquals(List.of("BCHICLRMXXX"), codes(index.search("santiago", null, false, 0, 10)));
+        assertEquals(0, index.search("bank of chile", null, false, 0, 10).getTotal());
+        assertEquals(0, index.search("  ...  ", null, false, 0, 10).getTotal());
+    }
+
+    // Test that typos are only tolerated when fuzzy is set, and rank below exact matches
+    @Test
+    public void testTypoTolerance() {
+        SwiftCodeTextIndex index = sample();
+
+        assertEquals(0, index.search("warszwa", null, false, 0, 10).getTotal());
+        SwiftCodeTextIndex.Result typo = index.search("warszwa", null, true, 0, 10);
+        assertEquals(3, typo.getTotal());
+        SwiftCodeTextIndex.Result swapped = index.search("ailor", null, true, 0, 10);
+        assertEquals(List.of("ALBPPLPWXXX"), codes(swapped));
+        assertTrue(swapped.getHits().get(0).getScore() < index.search("alior", null, false, 0, 10).getHits().get(0).getScore());
+    }
+
+    // Test that bank name matches rank above address matches, the country filter and pagination
+    @Test
+    public void testRankingFilterAndPages() {
+        SwiftCodeTextIndex index = sample();
+
+        assertEquals(List.of("AAISALTRXXX", "PKOPPLPWXXX"), codes(index.search("united", null, false, 0, 10)));
+        assertEquals(List.of("PKOPPLPWXXX"), codes(index.search("united", "PL", false, 0, 10)));
+
+        SwiftCodeTextIndex.Result all = index.search("bank", null, false, 0, 10);
+        assertEquals(4, all.getTotal());
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < all.getTotal(); offset += 3) {
+            SwiftCodeTextIndex.Result page = index.search("bank", null, false, offset, 3);
+            assertEquals(4, page.getTotal());
+            paged.addAll(codes(page));
+        }
+        assertEquals(codes(all), paged);
+    }
+
+    // Test that codes are added, replaced and removed in place
+    @Test
+    public void testIncrementalUpdates() {
+        SwiftCodeTextIndex index = sample();
+
+        index.add(code("ZZZZPLPWXXX", "ZLOTY SAVINGS BANK", "KRAKOW", "RYNEK 1 KRAKOW"));
+        assertEquals(List.of("ZZZZPLPWXXX"), codes(index.search("zloty krakow", null, false, 0, 10)));
+        index.add(code("ZZZZPLPWXXX", "ZLOTY SAVINGS BANK", "GDANSK", "DLUGA 1 GDANSK"));
+        assertEquals(0, index.search("krakow", null, false, 0, 10).getTotal());
+        assertEquals(6, index.size());
+
+        assertTrue(index.remove("ZZZZPLPWXXX"));
+        assertEquals(0, index.search("zloty", null, true, 0, 10).getTotal());
+        assertEquals(5, index.size());
+    }
+
+    // Test the edit distance, adjacent swaps counting as one edit
+    @Test
+    public void testDistance() {
+        assertEquals(0, SwiftCodeTextIndex.distance("BANK", "BANK", 2));
+        assertEquals(1, SwiftCodeTextIndex.distance("BANK", "BAMK", 2));
+        assertEquals(1, SwiftCodeTextIndex.distance("BANK", "BNAK", 2));
+        assertEquals(1, SwiftCodeTextIndex.distance("BANK", "BANKS", 2));
+        assertEquals(3, SwiftCodeTextIndex.distance("WARSZAWA", "SANTIAGO", 2));
+    }
+}
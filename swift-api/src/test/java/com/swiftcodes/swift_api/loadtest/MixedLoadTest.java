@@ -0,0 +1,288 @@
+package com.swiftcodes.swift_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.swiftcodes.swift_api.event.SwiftCodeChangeEvent;
+import com.swiftcodes.swift_api.util.CountryCodeValidator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Mixed read/write load against the running application over real HTTP: virtual users pick
+// lookups, country pages, adds, deletes and forced imports by weight, and every request is timed.
+// Reports HdrHistogram latency percentiles and throughput per endpoint, printed and written to
+// target/loadtest/ as text and JSON so configurations and releases can be compared.
+// Run with: mvn test -Ploadtest [-Dload.users=64 -Dload.seconds=60 -Dload.rows=200000
+//           -Dload.mix=lookup:80,country:10,add:4,delete:4,import:2]
+// Application settings can be varied the same way, e.g. -Dswift.read-model.enabled=false.
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MixedLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 32);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final int ROWS = Integer.getInteger("load.rows", 100_000);
+    private static final String MIX = System.getProperty("load.mix", "lookup:80,country:10,add:4,delete:4,import:2");
+
+    private static final String[] COUNTRIES = {"PL", "DE", "FR", "ES", "IT", "GB", "US", "CL"};
+
+    private enum Operation {
+        LOOKUP(200), COUNTRY(200), ADD(201), DELETE(200), IMPORT(200);
+
+        private final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${swift.read-model.enabled:true}")
+    private boolean readModelEnabled;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CountryCodeValidator countryCodeValidator;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final List<String> seededCodes = new ArrayList<>();
+    private final AtomicLong addedCodes = new AtomicLong();
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private int totalWeight;
+
+    @BeforeAll
+    public void seed() {
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+
+        // Banks of one headquarter and up to two branches, spread over a few countries
+        String sql = "INSERT INTO swift_codes (swift_code, base_code, bank_name, address, town_name, is_headquarter, country_iso2, country_name) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>();
+        for (int bank = 0; seededCodes.size() < ROWS; bank++) {
+            String iso2 = COUNTRIES[bank % COUNTRIES.length];
+            String countryName = countryCodeValidator.getCountryByCode(iso2).getName().toUpperCase();
+            String base = "L" + base36(bank, 5) + iso2;
+            for (int i = 0; i <= bank % 3 && seededCodes.size() < ROWS; i++) {
+                String code = base + (i == 0 ? "XXX" : "B" + base36(i, 2));
+                batch.add(new Object[] {code, base, "LOAD BANK " + bank, "UL. TESTOWA " + bank, "CITY", i == 0, iso2, countryName});
+                seededCodes.add(code);
+            }
+            if (batch.size() >= 1000) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+        // Rebuild the read model, filters and caches as after a bulk import
+        eventPublisher.publishEvent(SwiftCodeChangeEvent.imported());
+    }
+
+    @Test
+    public void mixedLoad() throws Exception {
+        run(WARMUP_SECONDS);
+        Map<Operation, Result> results = run(SECONDS);
+
+        String report = report(results);
+        System.out.println(report);
+        write(results, report);
+
+        long errors = results.values().stream().mapToLong(result -> result.errors.sum()).sum();
+        assertEquals(0, errors, "requests with an unexpected status");
+    }
+
+    private Map<Operation, Result> run(int seconds) throws InterruptedException {
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        // A delete turns into an add when the user has nothing to delete, so every operation gets a slot
+        for (Operation operation : Operation.values()) {
+            results.put(operation, new Result());
+        }
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            Thread user = new Thread(() -> virtualUser(deadline, results), "load-user-" + i);
+            user.start();
+            users.add(user);
+        }
+        for (Thread user : users) {
+            user.join();
+        }
+        for (Result result : results.values()) {
+            result.seconds = seconds;
+        }
+        return results;
+    }
+
+    private void virtualUser(long deadline, Map<Operation, Result> results) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Codes this user added and may delete, so users never delete each other's codes
+        Deque<String> added = new ArrayDeque<>();
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            if (operation == Operation.DELETE && added.isEmpty()) {
+                operation = Operation.ADD;
+            }
+            HttpRequest request = request(operation, random, added);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException | InterruptedException e) {
+                status = -1;
+            }
+            Result result = results.get(operation);
+            result.latency.recordValue((System.nanoTime() - start) / 1000);
+            if (status != operation.expectedStatus) {
+                result.errors.increment();
+            }
+        }
+    }
+
+    private Operation pick(int roll) {
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load mix");
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random, Deque<String> added) {
+        String base = "http://localhost:" + port + "/v1/swift-codes";
+        return switch (operation) {
+            case LOOKUP -> HttpRequest.newBuilder(URI.create(base + "/" + seededCodes.get(random.nextInt(seededCodes.size())))).GET().build();
+            case COUNTRY -> HttpRequest.newBuilder(URI.create(base + "/country/" + COUNTRIES[random.nextInt(COUNTRIES.length)] + "?limit=100")).GET().build();
+            case ADD -> {
+                String iso2 = COUNTRIES[random.nextInt(COUNTRIES.length)];
+                String code = "LOAD" + iso2 + base36(addedCodes.getAndIncrement(), 5);
+                added.push(code);
+                String body = "{\"swiftCode\":\"" + code + "\",\"bankName\":\"LOAD TEST BANK\",\"address\":\"UL. TESTOWA 1\","
+                        + "\"countryISO2\":\"" + iso2 + "\",\"countryName\":\"" + countryCodeValidator.getCountryByCode(iso2).getName() + "\","
+                        + "\"isHeadquarter\":" + code.endsWith("XXX") + "}";
+                yield HttpRequest.newBuilder(URI.create(base))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case DELETE -> HttpRequest.newBuilder(URI.create(base + "/" + added.pop())).DELETE().build();
+            case IMPORT -> HttpRequest.newBuilder(URI.create(base + "/import?force=true")).POST(HttpRequest.BodyPublishers.noBody()).build();
+        };
+    }
+
+    private String report(Map<Operation, Result> results) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Mixed load: %d users, %d s (after %d s warm-up), %d seeded rows, mix %s, read model %s%n",
+                USERS, SECONDS, WARMUP_SECONDS, ROWS, MIX, readModelEnabled ? "on" : "off"));
+        report.append(String.format("%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "mean ms"));
+        for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            report.append(String.format("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().name().toLowerCase(), latency.getTotalCount(), entry.getValue().errors.sum(),
+                    (double) latency.getTotalCount() / entry.getValue().seconds,
+                    latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0,
+                    latency.getMean() / 1000.0));
+        }
+        return report.toString();
+    }
+
+    private void write(Map<Operation, Result> results, String report) throws IOException {
+        Path dir = Paths.get("target", "loadtest");
+        Files.createDirectories(dir);
+        String name = "loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("users", USERS);
+        json.put("seconds", SECONDS);
+        json.put("rows", ROWS);
+        json.put("mix", MIX);
+        json.put("readModel", readModelEnabled);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Result> entry : results.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", latency.getTotalCount());
+            endpoint.put("errors", entry.getValue().errors.sum());
+            endpoint.put("requestsPerSecond", (double) latency.getTotalCount() / entry.getValue().seconds);
+            endpoint.put("p50Micros", latency.getValueAtPercentile(50));
+            endpoint.put("p99Micros", latency.getValueAtPercentile(99));
+            endpoint.put("p999Micros", latency.getValueAtPercentile(99.9));
+            endpoint.put("maxMicros", latency.getMaxValue());
+            endpoints.put(entry.getKey().name().toLowerCase(), endpoint);
+        }
+        json.put("endpoints", endpoints);
+
+        Files.writeString(dir.resolve(name + ".txt"), report);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(dir.resolve(name + ".json").toFile(), json);
+    }
+
+    private static String base36(long value, int width) {
+        String digits = Long.toString(value, 36).toUpperCase();
+        return "0".repeat(Math.max(0, width - digits.length())) + digits;
+    }
+
+    private static final class Result {
+
+        // Microseconds, resized as needed and safe to record from every user
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private int seconds;
+    }
+}
@@ -0,0 +1,176 @@
+package com.swiftcodes.swift_api.service;
+
+import com.swiftcodes.swift_api.dto.ImportReport;
+import com.swiftcodes.swift_api.entity.ImportManifest;
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.index.SwiftCodeSearchIndex;
+import com.swiftcodes.swift_api.repository.ImportManifestRepository;
+import com.swiftcodes.swift_api.repository.SwiftCodeBulkRepository;
+import com.swiftcodes.swift_api.repository.SwiftCodeRepository;
+import com.swiftcodes.swift_api.util.RecordHashes;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+// Runs against the H2 (MySQL mode) datasource from src/test/resources/config/application.yml
+@SpringBootTest(properties = "swift.import.batch-size=100")
+public class SwiftCodeImportServiceTest {
+
+    @Autowired
+    private SwiftCodeImportService importService;
+
+    @Autowired
+    private SwiftCodeRepository swiftCodeRepository;
+
+    @Autowired
+    private ImportManifestRepository manifestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SwiftCodeSearchIndex searchIndex;
+
+    @MockitoSpyBean
+    private SwiftCodeBulkRepository bulkRepository;
+
+    private static SwiftCode code(String swift, String bankName) {
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode(swift);
+        code.setBankName(bankName);
+        code.setAddress("ADDRESS");
+        code.setCountryISO2("PL");
+        code.setCountryName("POLAND");
+        code.setHeadquarter(swift.endsWith("XXX"));
+        return code;
+    }
+
+    // Test that an unchanged file is skipped, and that force upserts every row
+    @Test
+    public void testReimportIsIdempotent() throws Exception {
+        // The application already imported the file at startup
+        long rows = swiftCodeRepository.count();
+        jdbcTemplate.update("UPDATE swift_codes SET bank_name = 'CHANGED' WHERE swift_code = 'AAISALTRXXX'");
+
+        ImportReport report = importService.importFromDefaultFile();
+        assertEquals(0, report.getRowsRead());
+        assertEquals(0, report.getRowsUpdated());
+        assertEquals("CHANGED", swiftCodeRepository.findBySwiftCode("AAISALTRXXX").get().getBankName());
+
+        report = importService.importFromDefaultFile(true);
+        assertEquals(0, report.getRowsInserted());
+        assertEquals(1, report.getRowsUpdated());
+        // The CSV header line is skipped, not rejected
+        assertEquals(0, report.getRowsRejected());
+        assertEquals(report.getRowsRead() - 1, report.getRowsSkipped());
+        assertEquals(rows, swiftCodeRepository.count());
+        assertEquals("UNITED BANK OF ALBANIA SH.A", swiftCodeRepository.findBySwiftCode("AAISALTRXXX").get().getBankName());
+    }
+
+    // Test that a changed file only writes the records whose hash changed and deletes the removed ones
+    @Test
+    public void testDeltaImport() throws Exception {
+        importService.importFromDefaultFile(true);
+        ImportManifest manifest = manifestRepository.findAll().get(0);
+
+        // Pretend the previous version of the file had another bank name for AAISALTRXXX and one more code
+        RecordHashes previous = RecordHashes.decode(manifest.getRecordHashes());
+        RecordHashes.Builder builder = new RecordHashes.Builder();
+        for (int i = 0; i < previous.size(); i++) {
+            builder.add(previous.codeAt(i), previous.codeAt(i).equals("AAISALTRXXX") ? 0 : previous.hashAt(i));
+        }
+        builder.add("TESTPLPWZZZ", 0);
+        manifest.setRecordHashes(builder.build().encode());
+        manifest.setFingerprint("previous");
+        manifestRepository.save(manifest);
+        importService.importCodes(List.of(code("TESTPLPWZZZ", "REMOVED")));
+        jdbcTemplate.update("UPDATE swift_codes SET bank_name = 'OLD' WHERE swift_code = 'AAISALTRXXX'");
+
+        ImportReport report = importService.importFromDefaultFile();
+
+        assertEquals(0, report.getRowsInserted());
+        assertEquals(1, report.getRowsUpdated());
+        assertEquals(1, report.getRowsDeleted());
+        assertEquals(report.getRowsRead() - 1, report.getRowsSkipped());
+        assertFalse(swiftCodeRepository.existsBySwiftCode("TESTPLPWZZZ"));
+        assertEquals("UNITED BANK OF ALBANIA SH.A", swiftCodeRepository.findBySwiftCode("AAISALTRXXX").get().getBankName());
+        assertEquals(previous.size(), manifestRepository.findAll().get(0).getRecordCount());
+    }
+
+    // Test inserts, updates and in-file duplicates (last row wins)
+    @Test
+    public void testImportCodes() {
+        ImportReport report = importService.importCodes(List.of(
+                code("TESTPLPWXXX", "FIRST"),
+                code("TESTPLPWAAA", "BRANCH"),
+                code("TESTPLPWXXX", "SECOND")));
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(2, report.getRowsInserted());
+        assertEquals(1, report.getRowsSkipped());
+        SwiftCode hq = swiftCodeRepository.findBySwiftCode("TESTPLPWXXX").get();
+        assertEquals("SECOND", hq.getBankName());
+        assertEquals("TESTPLPW", hq.getBaseCode());
+
+        report = importService.importCodes(List.of(code("TESTPLPWAAA", "RENAMED")));
+        assertEquals(0, report.getRowsInserted());
+        assertEquals(1, report.getRowsUpdated());
+    }
+
+    // Test that a code inserted by someone else between a batch's existence check and its insert
+    // makes the batch run again as an update instead of failing the import
+    @Test
+    public void testConcurrentInsertIsRetried() {
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Object existing = invocation.callRealMethod();
+            if (raced.compareAndSet(false, true)) {
+                // Committed on another connection, outside the batch's transaction
+                CompletableFuture.runAsync(() -> jdbcTemplate.update("INSERT INTO swift_codes (swift_code, base_code, "
+                        + "bank_name, address, is_headquarter, country_iso2, country_name) "
+                        + "VALUES ('TESTPLRCXXX', 'TESTPLRC', 'POST', 'ADDRESS', TRUE, 'PL', 'POLAND')")).join();
+            }
+            return existing;
+        }).when(bulkRepository).findExisting(anyCollection());
+
+        ImportReport report = importService.importCodes(List.of(code("TESTPLRCXXX", "IMPORT"), code("TESTPLRCAAA", "BRANCH")));
+
+        assertEquals(1, report.getRowsInserted());
+        assertEquals(1, report.getRowsUpdated());
+        assertEquals(0, report.getRowsRejected());
+        assertEquals("IMPORT", swiftCodeRepository.findBySwiftCode("TESTPLRCXXX").get().getBankName());
+        assertEquals("BRANCH", swiftCodeRepository.findBySwiftCode("TESTPLRCAAA").get().getBankName());
+    }
+
+    // Test that an import rebuilds the Bloom filter, the search index and the statistics from a single
+    // scan of the table
+    @Test
+    public void testImportRebuildsViewsFromOneScan() throws Exception {
+        clearInvocations(bulkRepository);
+
+        importService.importCodes(List.of(code("TESTPLSCXXX", "SINGLE SCAN BANK")));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (searchIndex.search("SINGLE SCAN", null, false, 0, 10).getTotal() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "search index not rebuilt");
+            Thread.sleep(20);
+        }
+        verify(bulkRepository, after(500).times(1)).forEachRow(any());
+    }
+}
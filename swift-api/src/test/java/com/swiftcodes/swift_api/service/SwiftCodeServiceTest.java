@@ -0,0 +1,202 @@
+package com.swiftcodes.swift_api.service;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import com.swiftcodes.swift_api.index.SwiftCodeAggregates;
+import com.swiftcodes.swift_api.index.SwiftCodeFilter;
+import com.swiftcodes.swift_api.index.SwiftCodeTextIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Read model disabled, so every read below goes to the H2 database
+@SpringBootTest(properties = "swift.read-model.enabled=false")
+public class SwiftCodeServiceTest {
+
+    @Autowired
+    private SwiftCodeService swiftCodeService;
+
+    @Autowired
+    private SwiftCodeFilter swiftCodeFilter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Test that walking a country page by page returns the same codes, in order, as streaming it
+    @Test
+    public void testCountryPagesAndStream() {
+        List<String> streamed = new ArrayList<>();
+        swiftCodeService.forEachSwiftCodeInCountry("PL", code -> streamed.add(code.getSwiftCode()));
+
+        List<String> paged = new ArrayList<>();
+        String after = null;
+        List<SwiftCode> page;
+        do {
+            page = swiftCodeService.getSwiftCodesByCountry("PL", after, 7);
+            page.forEach(code -> paged.add(code.getSwiftCode()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1).getSwiftCode();
+        } while (page.size() == 7);
+
+        assertTrue(streamed.size() > 7);
+        assertEquals(streamed, paged);
+        assertEquals(streamed.stream().sorted().toList(), streamed);
+        assertTrue(swiftCodeService.hasSwiftCodesInCountry("PL"));
+        assertFalse(swiftCodeService.hasSwiftCodesInCountry("AQ"));
+    }
+
+    // Test that batch lookups through IN queries agree with the single-code lookups
+    @Test
+    public void testBatchLookup() {
+        List<String> codes = new ArrayList<>();
+        swiftCodeService.forEachSwiftCodeInCountry("PL", code -> codes.add(code.getSwiftCode()));
+        codes.add("ZZZZZZZZZZZ");
+
+        Map<String, SwiftCode> found = swiftCodeService.getSwiftCodesByCodes(codes);
+        assertEquals(codes.size() - 1, found.size());
+        assertFalse(found.containsKey("ZZZZZZZZZZZ"));
+
+        List<String> headquarters = codes.stream().filter(code -> code.endsWith("XXX")).toList();
+        Map<String, List<SwiftCode>> branches = swiftCodeService.findBranchesByHeadquarters(headquarters);
+        for (String headquarter : headquarters) {
+            assertEquals(
+                    swiftCodeService.findBranchesByBaseCode(headquarter.substring(0, 8), headquarter).stream()
+                            .map(SwiftCode::getSwiftCode).sorted().toList(),
+                    branches.get(headquarter).stream().map(SwiftCode::getSwiftCode).sorted().toList());
+        }
+    }
+
+    // Test that unknown codes are answered by the Bloom filter or the negative cache, and added codes are not
+    @Test
+    public void testUnknownCodeFilter() {
+        String known = swiftCodeService.getSwiftCodesByCountry("PL", null, 1).get(0).getSwiftCode();
+        assertFalse(swiftCodeFilter.isKnownAbsent(known));
+
+        // A code the filter cannot rule out is remembered once the database had nothing for it
+        String falsePositive = null;
+        for (int i = 0; falsePositive == null; i++) {
+            String candidate = String.format("QQQQPL%05d", i);
+            if (!swiftCodeFilter.isKnownAbsent(candidate)) {
+                falsePositive = candidate;
+            }
+        }
+        assertTrue(swiftCodeService.getSwiftCodeByCode(falsePositive).isEmpty());
+        assertTrue(swiftCodeFilter.isKnownAbsent(falsePositive));
+
+        SwiftCode added = new SwiftCode();
+        added.setSwiftCode(falsePositive);
+        added.setBankName("FILTER TEST BANK");
+        added.setAddress("ADDRESS");
+        added.setCountryISO2("PL");
+        added.setCountryName("POLAND");
+        swiftCodeService.addSwiftCode(added);
+        try {
+            assertFalse(swiftCodeFilter.isKnownAbsent(falsePositive));
+            assertTrue(swiftCodeService.getSwiftCodeByCode(falsePositive).isPresent());
+        } finally {
+            swiftCodeService.deleteSwiftCode(falsePositive);
+        }
+    }
+
+    // Test that the search index follows single-code writes
+    @Test
+    public void testSearchFollowsWrites() {
+        String bank = swiftCodeService.getSwiftCodesByCountry("PL", null, 1).get(0).getBankName();
+        assertTrue(swiftCodeService.searchSwiftCodes(bank, "PL", false, 0, 10).getTotal() > 0);
+
+        SwiftCode added = new SwiftCode();
+        added.setSwiftCode("QQQQPLPWXXX");
+        added.setBankName("QUETZAL SEARCH TEST BANK");
+        added.setAddress("ADDRESS");
+        added.setTownName("WARSZAWA");
+        added.setCountryISO2("PL");
+        added.setCountryName("POLAND");
+        added.setHeadquarter(true);
+        swiftCodeService.addSwiftCode(added);
+        try {
+            SwiftCodeTextIndex.Result found = swiftCodeService.searchSwiftCodes("quetzl warszawa", null, true, 0, 10);
+            assertEquals(1, found.getTotal());
+            assertEquals("QQQQPLPWXXX", found.getHits().get(0).getSwiftCode().getSwiftCode());
+        } finally {
+            swiftCodeService.deleteSwiftCode("QQQQPLPWXXX");
+        }
+        assertEquals(0, swiftCodeService.searchSwiftCodes("quetzal", null, true, 0, 10).getTotal());
+    }
+
+    // Test that the statistics follow single-code writes and agree with the database's counts
+    @Test
+    public void testStatsFollowWrites() {
+        SwiftCodeAggregates.CountryStats before = swiftCodeService.getCountryStats("PL", 5).orElseThrow();
+        assertTrue(swiftCodeService.checkStats().isConsistent());
+
+        SwiftCode headquarter = new SwiftCode();
+        headquarter.setSwiftCode("QQQQPLPWXXX");
+        headquarter.setBankName("STATS TEST BANK");
+        headquarter.setAddress("ADDRESS");
+        headquarter.setTownName("STATS TEST TOWN");
+        headquarter.setCountryISO2("PL");
+        headquarter.setCountryName("POLAND");
+        headquarter.setHeadquarter(true);
+        SwiftCode branch = new SwiftCode();
+        branch.setSwiftCode("QQQQPLPWBR1");
+        branch.setBankName("STATS TEST BANK");
+        branch.setAddress("ADDRESS");
+        branch.setTownName("STATS TEST TOWN");
+        branch.setCountryISO2("PL");
+        branch.setCountryName("POLAND");
+        swiftCodeService.addSwiftCode(headquarter);
+        swiftCodeService.addSwiftCode(branch);
+        try {
+            SwiftCodeAggregates.CountryStats after = swiftCodeService.getCountryStats("PL", 5).orElseThrow();
+            assertEquals(before.getCodes() + 2, after.getCodes());
+            assertEquals(before.getHeadquarters() + 1, after.getHeadquarters());
+            assertEquals(before.getBanksWithHeadquarter() + 1, after.getBanksWithHeadquarter());
+            assertEquals(before.getBranchesPerHeadquarter().getOrDefault(1, 0) + 1,
+                    after.getBranchesPerHeadquarter().get(1));
+            assertTrue(swiftCodeService.checkStats().isConsistent());
+        } finally {
+            swiftCodeService.deleteSwiftCode("QQQQPLPWBR1");
+            swiftCodeService.deleteSwiftCode("QQQQPLPWXXX");
+        }
+        SwiftCodeAggregates.CountryStats restored = swiftCodeService.getCountryStats("PL", 5).orElseThrow();
+        assertEquals(before.getCodes(), restored.getCodes());
+        assertEquals(before.getBranchesPerHeadquarter(), restored.getBranchesPerHeadquarter());
+        assertTrue(swiftCodeService.checkStats().isConsistent());
+    }
+
+    // Test that a check made inside a REPEATABLE READ transaction, as every MySQL transaction is by default,
+    // counts in its own: the caller's snapshot predates a write the statistics have already taken in
+    @Test
+    public void testStatsCheckIgnoresCallerSnapshot() {
+        TransactionTemplate repeatableRead = new TransactionTemplate(transactionManager);
+        repeatableRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        repeatableRead.setReadOnly(true);
+        SwiftCode code = new SwiftCode();
+        code.setSwiftCode("QQQQPLPRXXX");
+        code.setBankName("SNAPSHOT TEST BANK");
+        code.setAddress("ADDRESS");
+        code.setTownName("SNAPSHOT TEST TOWN");
+        code.setCountryISO2("PL");
+        code.setCountryName("POLAND");
+        code.setHeadquarter(true);
+        try {
+            repeatableRead.executeWithoutResult(status -> {
+                assertTrue(swiftCodeService.hasSwiftCodesInCountry("PL"));
+                CompletableFuture.runAsync(() -> swiftCodeService.addSwiftCode(code)).join();
+                assertTrue(swiftCodeService.checkStats().isConsistent());
+            });
+        } finally {
+            swiftCodeService.deleteSwiftCode("QQQQPLPRXXX");
+        }
+    }
+}
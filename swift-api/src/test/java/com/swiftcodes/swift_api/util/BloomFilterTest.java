@@ -0,0 +1,66 @@
+package com.swiftcodes.swift_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    // Test that every value put is found and that unknown values stay close to the target false-positive rate
+    @Test
+    public void testMembershipAndFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put(String.format("BANKPL%05d", i));
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(filter.mightContain(String.format("BANKPL%05d", i)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(String.format("BANKDE%05d", i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+        assertTrue(filter.sizeInBytes() < 64 * 1024);
+    }
+
+    // Test that puts from several threads at once lose no bits, as SwiftCodeFilter's rebuild and
+    // change listener may write while lookups read
+    @Test
+    public void testConcurrentPuts() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t * 10_000;
+            Thread writer = new Thread(() -> {
+                for (int i = first; i < first + 10_000; i++) {
+                    filter.put(String.format("BANKPL%05d", i));
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int i = 0; i < 40_000; i++) {
+            assertTrue(filter.mightContain(String.format("BANKPL%05d", i)));
+        }
+    }
+
+    // Test that an impossible false-positive rate is rejected
+    @Test
+    public void testInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+}
@@ -0,0 +1,63 @@
+package com.swiftcodes.swift_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountRankingTest {
+
+    // Test that counts and the ranking follow increments and decrements, keys dropping out at zero
+    @Test
+    public void testIncrementAndDecrement() {
+        CountRanking<String> ranking = new CountRanking<>();
+        ranking.increment("WARSZAWA");
+        ranking.increment("KRAKOW");
+        ranking.increment("WARSZAWA");
+        ranking.increment("GDANSK");
+        ranking.increment("WARSZAWA");
+        ranking.increment("KRAKOW");
+
+        assertEquals(3, ranking.count("WARSZAWA"));
+        assertEquals(List.of("WARSZAWA", "KRAKOW"), ranking.top(2).stream().map(Map.Entry::getKey).toList());
+        assertEquals(List.of(3, 2, 1), ranking.top(10).stream().map(Map.Entry::getValue).toList());
+
+        ranking.decrement("WARSZAWA");
+        ranking.decrement("WARSZAWA");
+        ranking.decrement("GDANSK");
+        ranking.decrement("UNKNOWN");
+        assertEquals(List.of("KRAKOW", "WARSZAWA"), ranking.top(10).stream().map(Map.Entry::getKey).toList());
+        assertEquals(0, ranking.count("GDANSK"));
+        assertEquals(2, ranking.size());
+    }
+
+    // Test random changes against plain counting
+    @Test
+    public void testAgainstMap() {
+        CountRanking<Integer> ranking = new CountRanking<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                ranking.decrement(key);
+                expected.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+            } else {
+                ranking.increment(key);
+                expected.merge(key, 1, Integer::sum);
+            }
+        }
+
+        assertEquals(expected, ranking.toMap());
+        List<Map.Entry<Integer, Integer>> top = ranking.top(expected.size());
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getValue() >= top.get(i).getValue());
+        }
+        assertEquals(expected.values().stream().max(Integer::compare).orElseThrow(), top.get(0).getValue());
+    }
+}
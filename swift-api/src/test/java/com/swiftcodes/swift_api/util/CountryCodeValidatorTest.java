@@ -0,0 +1,48 @@
+package com.swiftcodes.swift_api.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountryCodeValidatorTest {
+
+    private CountryCodeValidator validator;
+
+    @BeforeEach
+    public void setUp() {
+        validator = new CountryCodeValidator();
+        validator.loadCountryCodes();
+    }
+
+    // Test case-insensitive lookups in the registry
+    @Test
+    public void testLookup() {
+        assertEquals("Poland", validator.getCountryByCode("PL").getName());
+        assertEquals("PL", validator.getCountryByCode("pl").getCode());
+        assertEquals("Poland", validator.getCountryByCode("pL").getName());
+        assertTrue(validator.isValid("cl"));
+    }
+
+    // Test codes that are unassigned or not two ASCII letters
+    @Test
+    public void testInvalidCodes() {
+        assertFalse(validator.isValid("ZZ"));
+        assertFalse(validator.isValid("ABCD"));
+        assertFalse(validator.isValid("P"));
+        assertFalse(validator.isValid("P1"));
+        assertFalse(validator.isValid("[@"));
+        assertNull(validator.getCountryByCode(null));
+    }
+
+    // Test the ISO2 / country name check used by the CSV import
+    @Test
+    public void testMatches() {
+        assertTrue(validator.matches("AL", "ALBANIA"));
+        assertFalse(validator.matches("AL", "BULGARIA"));
+        assertFalse(validator.matches("COUNTRY ISO2 CODE", "COUNTRY NAME"));
+    }
+}
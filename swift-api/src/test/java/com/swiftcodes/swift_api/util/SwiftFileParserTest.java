@@ -0,0 +1,150 @@
+package com.swiftcodes.swift_api.util;
+
+import com.swiftcodes.swift_api.entity.SwiftCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SwiftFileParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SwiftFileParser parser;
+
+    @BeforeEach
+    public void setUp() {
+        CountryCodeValidator validator = new CountryCodeValidator();
+        validator.loadCountryCodes();
+
+        parser = new SwiftFileParser();
+        ReflectionTestUtils.setField(parser, "countryCodeValidator", validator);
+        ReflectionTestUtils.setField(parser, "parserThreads", 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        parser.shutdown();
+    }
+
+    private static List<String> describe(List<SwiftCode> codes) {
+        return describeInOrder(codes.stream().sorted(Comparator.comparing(SwiftCode::getSwiftCode)).toList());
+    }
+
+    private static List<String> describeInOrder(List<SwiftCode> codes) {
+        List<String> rows = new ArrayList<>();
+        codes.forEach(c -> rows.add(String.join("|",
+                c.getSwiftCode(), c.getBaseCode(), c.getBankName(), c.getAddress(), c.getTownName(),
+                c.getCountryISO2(), c.getCountryName(), Boolean.toString(c.isHeadquarter()))));
+        return rows;
+    }
+
+    private List<SwiftCode> parseFile(Path file, int batchSize, AtomicLong bytes) throws Exception {
+        return parseFile(file, batchSize, bytes, new AtomicLong());
+    }
+
+    private List<SwiftCode> parseFile(Path file, int batchSize, AtomicLong bytes, AtomicLong rejected) throws Exception {
+        List<SwiftCode> codes = new ArrayList<>();
+        SwiftFileParser.ParseSummary summary = parser.parseFile(file, batchSize, (batch, bytesRead) -> {
+            codes.addAll(batch);
+            bytes.addAndGet(bytesRead);
+        });
+        rejected.set(summary.getRowsRejected());
+        return codes;
+    }
+
+    // Test that the memory-mapped parser produces the same rows as the commons-csv one on the bundled file
+    @Test
+    public void testBundledFileMatchesStreamingParser() throws Exception {
+        ReflectionTestUtils.setField(parser, "chunkSizeBytes", 4096L);
+        Path file = new ClassPathResource("data/Interns_2025_SWIFT_CODES-Sheet1.csv").getFile().toPath();
+
+        List<SwiftCode> expected;
+        try (InputStream in = Files.newInputStream(file)) {
+            expected = parser.parseCSV(in);
+        }
+        AtomicLong bytes = new AtomicLong();
+        List<SwiftCode> actual = parseFile(file, 50, bytes);
+
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(Files.size(file), bytes.get());
+    }
+
+    // Test quoting, escaped quotes, embedded line breaks, CRLF and empty lines across many tiny chunks
+    @Test
+    public void testQuotedRecordsAcrossChunkBoundaries() throws Exception {
+        ReflectionTestUtils.setField(parser, "chunkSizeBytes", 16L);
+        String csv = "COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\r\n"
+                + "PL,BPKOPLPWXXX,BIC11,\"PKO, \"\"BANK\"\" POLSKI\",\"LINE 1\nLINE 2, WARSZAWA\",WARSZAWA,POLAND,Europe/Warsaw\r\n"
+                + "\r\n"
+                + "PL,BPKOPLPWKAT,BIC11,PKO BANK POLSKI,\"UL. \"\"X\"\" 1\",KATOWICE,POLAND,Europe/Warsaw\n"
+                + "\n"
+                + "AL,AAISALTRXXX,BIC11,UNITED BANK OF ALBANIA SH.A,\"\",TIRANA,ALBANIA,Europe/Tirane\n"
+                + "XX,BADCODE0XXX,BIC11,UNKNOWN COUNTRY,ADDRESS,TOWN,NOWHERE,UTC\n"
+                + "PL,SHORTROW\n"
+                + "CL,BCCSCLR1XXX,BIC11,BCI,ADDRESS,SANTIAGO,CHILE,America/Santiago";
+        Path file = tempDir.resolve("codes.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        List<SwiftCode> expected = parser.parseCSV(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        List<SwiftCode> actual = parseFile(file, 1, bytes, rejected);
+
+        assertEquals(4, expected.size());
+        // The unknown country and the short row, not the header
+        assertEquals(2, rejected.get());
+        assertEquals(2, parser.parseStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 100,
+                (batch, bytesRead) -> { }).getRowsRejected());
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(Files.size(file), bytes.get());
+        SwiftCode pko = actual.stream().filter(c -> c.getSwiftCode().equals("BPKOPLPWXXX")).findFirst().get();
+        assertEquals("PKO, \"BANK\" POLSKI", pko.getBankName());
+        assertEquals("LINE 1\nLINE 2, WARSZAWA", pko.getAddress());
+    }
+
+    // Test that rows reach the consumer in file order across many chunks, so of a code repeated in
+    // different chunks the last row is the one imported, as with the sequential parser
+    @Test
+    public void testChunksHandedOverInFileOrder() throws Exception {
+        ReflectionTestUtils.setField(parser, "chunkSizeBytes", 256L);
+        StringBuilder csv = new StringBuilder("COUNTRY ISO2 CODE,SWIFT CODE,CODE TYPE,NAME,ADDRESS,TOWN NAME,COUNTRY NAME,TIME ZONE\n");
+        for (int i = 0; i < 2000; i++) {
+            // Every 100th row repeats one code with a new bank name
+            String code = i % 100 == 0 ? "BPKOPLPWXXX" : String.format("BANK%04dXXX", i);
+            csv.append("PL,").append(code).append(",BIC11,BANK ").append(i).append(",ADDRESS,WARSZAWA,POLAND,Europe/Warsaw\n");
+        }
+        Path file = tempDir.resolve("repeated.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        List<SwiftCode> expected = parser.parseCSV(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        AtomicLong rejected = new AtomicLong();
+        List<SwiftCode> actual = parseFile(file, 7, new AtomicLong(), rejected);
+
+        assertEquals(describeInOrder(expected), describeInOrder(actual));
+        assertEquals(2000, actual.size());
+        assertEquals(0, rejected.get());
+        SwiftCode last = null;
+        for (SwiftCode code : actual) {
+            if (code.getSwiftCode().equals("BPKOPLPWXXX")) {
+                last = code;
+            }
+        }
+        assertEquals("BANK 1900", last.getBankName());
+    }
+}
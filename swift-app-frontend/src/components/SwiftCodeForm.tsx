@@ -246,28 +246,39 @@ export default function Form() {
     formData.append("file", file);
 
     try {
-      const response = await fetch("http://localhost:8080/v1/swift-codes/import", {
+      // The file is imported by a background job; poll its status until it finishes
+      const response = await fetch("http://localhost:8080/v1/swift-codes/import/jobs", {
         method: "POST",
         body: formData,
       });
 
-      const contentType = response.headers.get("Content-Type") || "";
-      let result;
-      if (contentType.includes("application/json")) {
-        result = await response.json();
-      } else {
-        result = { message: await response.text() };
-      }
-
+      let job = await response.json();
       if (!response.ok) {
-        throw new Error(result.message || `HTTP error: ${response.status}`);
+        throw new Error(job.message || `HTTP error: ${response.status}`);
       }
 
-      setSuccess(result.message || "SWIFT codes imported from CSV.");
+      setSuccess(`Import started (job ${job.jobId}).`);
       setError(null);
       if (fileInputRef.current) {
         fileInputRef.current.value = "";
       }
+
+      while (job.state === "QUEUED" || job.state === "RUNNING") {
+        await new Promise((resolve) => setTimeout(resolve, 1000));
+        const statusResponse = await fetch(`http://localhost:8080/v1/swift-codes/import/jobs/${job.jobId}`);
+        job = await statusResponse.json();
+        if (!statusResponse.ok) {
+          throw new Error(job.message || `HTTP error: ${statusResponse.status}`);
+        }
+        if (job.state === "RUNNING") {
+          setSuccess(`Importing: ${job.rowsWritten} rows written (${job.rowsPerSecond} rows/s).`);
+        }
+      }
+
+      if (job.state === "FAILED") {
+        throw new Error(job.errors?.join(", ") || "Import failed");
+      }
+      setSuccess(job.report?.message || "SWIFT codes imported from CSV.");
     } catch (err) {
       setError(err instanceof Error ? err.message : "An error occurred while importing CSV");
       setSuccess(null);
@@ -1,6 +1,6 @@
 "use client";
 
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef } from "react";
 import { SwiftCode, SwiftHeadquarter } from "@/interfaces/SwiftCode";
 import Paper from "@mui/material/Paper";
 import Typography from "@mui/material/Typography";
@@ -26,6 +26,16 @@ import DialogTitle from '@mui/material/DialogTitle';
 import DialogContent from '@mui/material/DialogContent';
 import DialogActions from '@mui/material/DialogActions';
 
+// Rows requested per call when listing a country
+const COUNTRY_PAGE_SIZE = 50;
+
+// One event of GET /v1/swift-codes/changes
+interface SwiftCodeChange {
+  sequence: number;
+  type: "ADDED" | "DELETED" | "IMPORTED";
+  swiftCodes: SwiftCode[];
+}
+
 interface TableProps {
   data: SwiftHeadquarter[];
 }
@@ -41,6 +51,12 @@ export default function SwiftCodeTable({ data: initialData }: TableProps) {
   const [rowsPerPage, setRowsPerPage] = useState(10);
   const [openDialog, setOpenDialog] = useState(false);
   const [selectedAddress, setSelectedAddress] = useState<string>("");
+  // Country being listed and the cursor of its next page (null once every page is loaded)
+  const [countryCursor, setCountryCursor] = useState<{ country: string; next: string | null } | null>(null);
+  // What the table shows, read by the change feed handlers without reconnecting on every search
+  const viewRef = useRef<{ country?: string; swiftCode?: string }>({});
+  const countryCursorRef = useRef(countryCursor);
+  countryCursorRef.current = countryCursor;
 
   // Validate search input based on searchType
   const validateSearchInput = (value: string, type: "swiftCode" | "countryISO2") => {
@@ -59,25 +75,88 @@ export default function SwiftCodeTable({ data: initialData }: TableProps) {
     return null;
   };
 
+  // Fetch one keyset page of a country's SWIFT codes
+  const fetchCountryPage = async (country: string, after: string | null) => {
+    const params = new URLSearchParams({ limit: String(COUNTRY_PAGE_SIZE) });
+    if (after) {
+      params.set("after", after);
+    }
+    const response = await fetch(`http://localhost:8080/v1/swift-codes/country/${country}?${params}`);
+    const result = await response.json();
+    if (!response.ok) {
+      throw new Error(result.message || "Failed to fetch swift codes for country");
+    }
+    const countryEntries: SwiftHeadquarter[] = result.swiftCodes.map((code: SwiftCode) => ({
+      swiftCode: code.swiftCode,
+      countryISO2: code.countryISO2,
+      bankName: code.bankName,
+      address: code.address,
+      countryName: result.countryName,
+      isHeadquarter: code.isHeadquarter,
+      townName: "",
+    }));
+    return { entries: countryEntries, nextCursor: (result.nextCursor as string | undefined) ?? null };
+  };
+
+  // Fetch a SWIFT code, with its branches for a headquarter
+  const fetchSwiftCode = async (swiftCode: string) => {
+    const response = await fetch(`http://localhost:8080/v1/swift-codes/${swiftCode}`);
+    const result = await response.json();
+    if (!response.ok) {
+      throw new Error(result.message || "Failed to fetch swift code");
+    }
+    const entry: SwiftHeadquarter = {
+      swiftCode: result.swiftCode,
+      countryISO2: result.countryISO2,
+      bankName: result.bankName,
+      address: result.address,
+      countryName: result.countryName,
+      isHeadquarter: result.isHeadquarter,
+      townName: "",
+    };
+    if (result.branches) {
+      entry.branches = result.branches.map((branch: SwiftCode) => ({
+        swiftCode: branch.swiftCode,
+        countryISO2: branch.countryISO2,
+        bankName: branch.bankName,
+        address: branch.address,
+        isHeadquarter: branch.isHeadquarter,
+        townName: "",
+      }));
+    }
+    return [entry];
+  };
+
+  // Load further pages of the current country until `rows` rows are available
+  const ensureCountryRows = async (rows: number) => {
+    if (!countryCursor?.next) {
+      return;
+    }
+    let loaded = data.length;
+    let next: string | null = countryCursor.next;
+    const appended: SwiftHeadquarter[] = [];
+    try {
+      while (loaded < rows && next) {
+        const page = await fetchCountryPage(countryCursor.country, next);
+        appended.push(...page.entries);
+        loaded += page.entries.length;
+        next = page.nextCursor;
+      }
+    } catch (err) {
+      setError(err instanceof Error ? err.message : "Failed to load more swift codes");
+    }
+    setData((prevData) => [...prevData, ...appended]);
+    setCountryCursor({ country: countryCursor.country, next });
+  };
+
   // Fetch SWIFT codes for "PL" on mount if initialData is empty
   useEffect(() => {
     const fetchInitialData = async () => {
       try {
-        const response = await fetch(`http://localhost:8080/v1/swift-codes/country/PL`);
-        const result = await response.json();
-        if (!response.ok) {
-          throw new Error("Failed to fetch swift codes for PL");
-        }
-        const countryEntries: SwiftHeadquarter[] = result.swiftCodes.map((code: SwiftCode) => ({
-          swiftCode: code.swiftCode,
-          countryISO2: code.countryISO2,
-          bankName: code.bankName,
-          address: code.address,
-          countryName: result.countryName,
-          isHeadquarter: code.isHeadquarter,
-          townName: "",
-        }));
-        setData(countryEntries);
+        const page = await fetchCountryPage("PL", null);
+        setData(page.entries);
+        setCountryCursor({ country: "PL", next: page.nextCursor });
+        viewRef.current = { country: "PL" };
         setSearchType("countryISO2");
         setSearchValue("PL");
       } catch (err) {
@@ -91,6 +170,82 @@ export default function SwiftCodeTable({ data: initialData }: TableProps) {
     }
   }, [initialData]);
 
+  // Keep the rows in step with other users' writes through the change feed. EventSource reconnects
+  // by itself and resumes after the last event it saw; a reset or an import reloads the view.
+  useEffect(() => {
+    const reloadView = async () => {
+      const view = viewRef.current;
+      try {
+        if (view.country) {
+          const page = await fetchCountryPage(view.country, null);
+          setData(page.entries);
+          setCountryCursor({ country: view.country, next: page.nextCursor });
+        } else if (view.swiftCode) {
+          setData(await fetchSwiftCode(view.swiftCode));
+        }
+      } catch {
+        setData([]);
+      }
+    };
+
+    const applyChange = (change: SwiftCodeChange) => {
+      const view = viewRef.current;
+      if (change.type === "IMPORTED") {
+        reloadView();
+        return;
+      }
+      const codes = new Set(change.swiftCodes.map((code) => code.swiftCode));
+      if (change.type === "DELETED") {
+        setData((prevData) =>
+          prevData
+            .filter((entry) => !codes.has(entry.swiftCode))
+            .map((entry) =>
+              entry.branches
+                ? { ...entry, branches: entry.branches.filter((branch) => !codes.has(branch.swiftCode)) }
+                : entry
+            )
+        );
+        return;
+      }
+      if (view.country) {
+        // Rows of pages not loaded yet arrive with those pages
+        if (countryCursorRef.current?.next) {
+          return;
+        }
+        const added = change.swiftCodes.filter((code) => code.countryISO2 === view.country);
+        setData((prevData) => {
+          const shown = new Set(prevData.map((entry) => entry.swiftCode));
+          return [...prevData, ...added.filter((code) => !shown.has(code.swiftCode))];
+        });
+      } else if (view.swiftCode) {
+        // New branches of the headquarter on screen
+        const prefix = view.swiftCode.substring(0, 8);
+        const branches = change.swiftCodes.filter(
+          (code) => !code.isHeadquarter && code.swiftCode.startsWith(prefix)
+        );
+        setData((prevData) =>
+          prevData.map((entry) =>
+            entry.branches
+              ? {
+                  ...entry,
+                  branches: [
+                    ...entry.branches,
+                    ...branches.filter((code) => !entry.branches?.some((b) => b.swiftCode === code.swiftCode)),
+                  ],
+                }
+              : entry
+          )
+        );
+      }
+    };
+
+    const source = new EventSource("http://localhost:8080/v1/swift-codes/changes");
+    source.addEventListener("change", (event) => applyChange(JSON.parse((event as MessageEvent).data)));
+    source.addEventListener("reset", () => reloadView());
+    return () => source.close();
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, []);
+
   const handleSearch = async () => {
     const validationError = validateSearchInput(searchValue, searchType);
     if (validationError) {
@@ -101,61 +256,16 @@ export default function SwiftCodeTable({ data: initialData }: TableProps) {
     setError(null);
     setSuccess(null);
     setSearchError(null);
+    setCountryCursor(null);
     try {
-      let response;
       if (searchType === "swiftCode") {
-        response = await fetch(`http://localhost:8080/v1/swift-codes/${searchValue}`);
-        const result = await response.json();
-        if (!response.ok) {
-          throw new Error(result.message || "Failed to fetch swift code");
-        }
-        if (result.branches) {
-          const headquarterEntry: SwiftHeadquarter = {
-            swiftCode: result.swiftCode,
-            countryISO2: result.countryISO2,
-            bankName: result.bankName,
-            address: result.address,
-            countryName: result.countryName,
-            isHeadquarter: result.isHeadquarter,
-            townName: "",
-            branches: result.branches.map((branch: SwiftCode) => ({
-              swiftCode: branch.swiftCode,
-              countryISO2: branch.countryISO2,
-              bankName: branch.bankName,
-              address: branch.address,
-              isHeadquarter: branch.isHeadquarter,
-              townName: "",
-            })),
-          };
-          setData([headquarterEntry]);
-        } else {
-          const branchEntry: SwiftHeadquarter = {
-            swiftCode: result.swiftCode,
-            countryISO2: result.countryISO2,
-            bankName: result.bankName,
-            address: result.address,
-            countryName: result.countryName,
-            isHeadquarter: result.isHeadquarter,
-            townName: "",
-          };
-          setData([branchEntry]);
-        }
+        setData(await fetchSwiftCode(searchValue));
+        viewRef.current = { swiftCode: searchValue };
       } else {
-        response = await fetch(`http://localhost:8080/v1/swift-codes/country/${searchValue}`);
-        const result = await response.json();
-        if (!response.ok) {
-          throw new Error(result.message || "Failed to fetch swift codes for country");
-        }
-        const countryEntries: SwiftHeadquarter[] = result.swiftCodes.map((code: SwiftCode) => ({
-          swiftCode: code.swiftCode,
-          countryISO2: code.countryISO2,
-          bankName: code.bankName,
-          address: code.address,
-          countryName: result.countryName,
-          isHeadquarter: code.isHeadquarter,
-          townName: "",
-        }));
-        setData(countryEntries);
+        const page = await fetchCountryPage(searchValue, null);
+        setData(page.entries);
+        setCountryCursor({ country: searchValue, next: page.nextCursor });
+        viewRef.current = { country: searchValue };
       }
       setPage(0);
     } catch (err) {
@@ -212,13 +322,16 @@ export default function SwiftCodeTable({ data: initialData }: TableProps) {
   });
 
   // Handle page change
-  const handleChangePage = (event: unknown, newPage: number) => {
+  const handleChangePage = async (event: unknown, newPage: number) => {
+    await ensureCountryRows((newPage + 1) * rowsPerPage);
     setPage(newPage);
   };
 
   // Handle rows per page change
-  const handleChangeRowsPerPage = (event: React.ChangeEvent<HTMLInputElement>) => {
-    setRowsPerPage(parseInt(event.target.value, 10));
+  const handleChangeRowsPerPage = async (event: React.ChangeEvent<HTMLInputElement>) => {
+    const newRowsPerPage = parseInt(event.target.value, 10);
+    await ensureCountryRows(newRowsPerPage);
+    setRowsPerPage(newRowsPerPage);
     setPage(0);
   };
 
@@ -531,12 +644,12 @@ export default function SwiftCodeTable({ data: initialData }: TableProps) {
         </DialogActions>
       </Dialog>
 
-      {/* Pagination */}
+      {/* Pagination (count -1 = more country pages on the server) */}
       <Box sx={{ display: 'flex', justifyContent: 'flex-end', mt: 2 }}>
         <TablePagination
           rowsPerPageOptions={[10, 25, 50]}
           component="div"
-          count={flattenedData.length}
+          count={countryCursor?.next ? -1 : flattenedData.length}
           rowsPerPage={rowsPerPage}
           page={page}
           onPageChange={handleChangePage}